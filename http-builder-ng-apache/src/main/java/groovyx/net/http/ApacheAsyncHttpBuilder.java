@@ -0,0 +1,370 @@
+/**
+ * Copyright (C) 2017 HttpBuilder-NG Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package groovyx.net.http;
+
+import groovy.lang.Closure;
+import groovy.lang.DelegatesTo;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.*;
+import org.apache.http.client.utils.URIUtils;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.nio.client.methods.HttpAsyncMethods;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.net.ssl.SSLContext;
+import java.io.IOException;
+import java.net.Proxy;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static groovyx.net.http.HttpBuilder.ResponseHandlerFunction.HANDLER_FUNCTION;
+
+/**
+ * `HttpBuilder` implementation based on the https://hc.apache.org/httpcomponents-asyncclient-4.1.x/[Apache HttpAsyncClient library].
+ *
+ * All requests are executed on a non-blocking `CloseableHttpAsyncClient`, so that in-flight asynchronous (`*Async`) requests do not hold a thread,
+ * and so that the configured connection limits (`execution.maxConnections` and `execution.maxConnectionsPerRoute`) apply to all of the requests of the
+ * builder. The response content is streamed to the response handling as it arrives (see {@link StreamingResponseConsumer}) rather than buffered in
+ * memory first. The handling of a synchronous request is run on the calling thread; the handling of an asynchronous request is run on the configured
+ * executor as soon as the response headers have been received - or, when the executor runs tasks on the calling thread (the default), on a pool of the
+ * builder of at most `execution.maxThreads` threads.
+ *
+ * The configured `client.clientCustomizer` is applied to both client builders - it is called with the `HttpClientBuilder` and with the
+ * `HttpAsyncClientBuilder`, so it should check the type of the builder it is given.
+ *
+ * SOCKS proxies are not supported by the async client; when one is configured, requests are executed on the blocking client of the
+ * {@link ApacheHttpBuilder} instead, the asynchronous methods running them on the configured executor.
+ *
+ * Generally, this class should not be used directly, the preferred method of instantiation is via one of the two static `configure()` methods of this
+ * class or using one of the `configure` methods of `HttpBuilder` with a factory function for this builder.
+ */
+public class ApacheAsyncHttpBuilder extends ApacheHttpBuilder {
+
+    private static final Function<HttpObjectConfig, ? extends HttpBuilder> apacheAsyncFactory = ApacheAsyncHttpBuilder::new;
+    private static final Logger log = LoggerFactory.getLogger(ApacheAsyncHttpBuilder.class);
+
+    /**
+     * Creates an `HttpBuilder` using the `ApacheAsyncHttpBuilder` factory instance configured with the provided configuration closure.
+     *
+     * The configuration closure delegates to the {@link HttpObjectConfig} interface, which is an extension of the {@link HttpConfig} interface -
+     * configuration properties from either may be applied to the global client configuration here. See the documentation for those interfaces for
+     * configuration property details.
+     *
+     * [source,groovy]
+     * ----
+     * def http = ApacheAsyncHttpBuilder.configure {
+     *     request.uri = 'http://localhost:10101'
+     * }
+     * ----
+     *
+     * @param closure the configuration closure (delegated to {@link HttpObjectConfig})
+     * @return the configured `HttpBuilder`
+     */
+    public static HttpBuilder configure(@DelegatesTo(HttpObjectConfig.class) final Closure<?> closure) {
+        return configure(apacheAsyncFactory, closure);
+    }
+
+    /**
+     * Creates an `HttpBuilder` using the `ApacheAsyncHttpBuilder` factory instance configured with the provided configuration function.
+     *
+     * The configuration {@link Consumer} function accepts an instance of the {@link HttpObjectConfig} interface, which is an extension of the {@link HttpConfig}
+     * interface - configuration properties from either may be applied to the global client configuration here. See the documentation for those interfaces for
+     * configuration property details.
+     *
+     * This configuration method is generally meant for use with standard Java.
+     *
+     * [source,java]
+     * ----
+     * HttpBuilder http = ApacheAsyncHttpBuilder.configure(config -> {
+     *     config.getRequest().setUri("http://localhost:10101");
+     * });
+     * ----
+     *
+     * @param configuration the configuration function (accepting {@link HttpObjectConfig})
+     * @return the configured `HttpBuilder`
+     */
+    public static HttpBuilder configure(final Consumer<HttpObjectConfig> configuration) {
+        return configure(apacheAsyncFactory, configuration);
+    }
+
+    private final CloseableHttpAsyncClient asyncClient;
+    private final ThreadPoolExecutor handlingExecutor;
+    private final boolean socksProxied;
+
+    /**
+     * Creates a new `HttpBuilder` based on the Apache HTTP async client. While it is acceptable to create a builder with this method, it is generally
+     * preferred to use one of the `static` `configure(...)` methods.
+     *
+     * @param config the configuration object
+     */
+    public ApacheAsyncHttpBuilder(final HttpObjectConfig config) {
+        super(config);
+
+        final ProxyInfo proxyInfo = config.getExecution().getProxyInfo();
+        this.socksProxied = proxyInfo != null && proxyInfo.getProxy().type() == Proxy.Type.SOCKS;
+
+        // runs the response handling when the configured executor would run it on the I/O reactor thread (e.g. the default same-thread executor)
+        final int maxThreads = config.getExecution().getMaxThreads();
+        this.handlingExecutor = new ThreadPoolExecutor(maxThreads, maxThreads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+            final Thread thread = new Thread(r, "http-builder-ng-async-response");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.handlingExecutor.allowCoreThreadTimeOut(true);
+
+        final HttpAsyncClientBuilder myBuilder = HttpAsyncClients.custom();
+
+        // an explicitly configured limit always applies, since this client executes all of the requests (the blocking client is only used through
+        // a SOCKS proxy)
+        final int maxConnections = maxConnections(config.getExecution());
+        if (config.getExecution().getMaxConnections() > 0 || maxConnections > 1) {
+            myBuilder.setMaxConnTotal(maxConnections);
+            myBuilder.setMaxConnPerRoute(maxConnectionsPerRoute(config.getExecution()));
+        }
+
+        final Duration keepAlive = config.getExecution().getKeepAlive();
+        if (keepAlive != null) {
+            myBuilder.setKeepAliveStrategy(keepAliveStrategy(keepAlive));
+        }
+
+        final SSLContext sslContext = config.getExecution().getSslContext();
+        if (sslContext != null) {
+            myBuilder.setSSLContext(sslContext);
+            myBuilder.setSSLHostnameVerifier(config.getExecution().getHostnameVerifier());
+        }
+
+        // gzip content is decompressed by the StreamingResponseConsumer, since the response is handed over before its content is received
+
+        final Consumer<Object> clientCustomizer = config.getClient().getClientCustomizer();
+        if (clientCustomizer != null) {
+            clientCustomizer.accept(myBuilder);
+        }
+
+        this.asyncClient = myBuilder.build();
+        this.asyncClient.start();
+    }
+
+    @Override
+    public void close() {
+        super.close();
+
+        try {
+            asyncClient.close();
+        } catch (IOException ioe) {
+            if (log.isWarnEnabled()) {
+                log.warn("Error in closing http async client", ioe);
+            }
+        }
+
+        handlingExecutor.shutdown();
+    }
+
+    @Override
+    protected CompletableFuture<Object> doAsync(final ChainedHttpConfig requestConfig) {
+        if (socksProxied) {
+            return super.doAsync(requestConfig);
+        }
+
+        final CompletableFuture<Object> future = new CompletableFuture<>();
+
+        try {
+            final URI theUri = requestConfig.getChainedRequest().getUri().toURI();
+
+            final StreamingResponseConsumer[] consumer = new StreamingResponseConsumer[1];
+            consumer[0] = new StreamingResponseConsumer(response -> {
+                final Thread ioThread = Thread.currentThread();
+                getExecutor().execute(() -> {
+                    if (Thread.currentThread() == ioThread) {
+                        // reading the content on the I/O reactor thread would block it, so the handling is moved off of it
+                        handlingExecutor.execute(() -> handle(requestConfig, future, consumer[0], theUri, response));
+                    } else {
+                        handle(requestConfig, future, consumer[0], theUri, response);
+                    }
+                });
+            });
+
+            final CompletableFuture<Void> failure = new CompletableFuture<>();
+            failure.whenComplete((ignored, thrown) -> {
+                if (failure.isCancelled()) {
+                    future.cancel(false);
+                } else {
+                    completeExceptionally(requestConfig, future, (Exception) thrown);
+                }
+            });
+
+            final Future<HttpResponse> execution = execute(requestConfig, theUri, consumer[0], failure);
+
+            future.whenComplete((result, thrown) -> {
+                if (future.isCancelled()) {
+                    execution.cancel(true);
+                }
+            });
+
+        } catch (Exception e) {
+            completeExceptionally(requestConfig, future, e);
+        }
+
+        return future;
+    }
+
+    private Object exec(final ChainedHttpConfig requestConfig) {
+        try {
+            final URI theUri = requestConfig.getChainedRequest().getUri().toURI();
+
+            final CompletableFuture<HttpResponse> handedOver = new CompletableFuture<>();
+            final StreamingResponseConsumer consumer = new StreamingResponseConsumer(handedOver::complete);
+            final Future<HttpResponse> execution = execute(requestConfig, theUri, consumer, handedOver);
+
+            final HttpResponse response;
+            try {
+                response = handedOver.get();
+            } catch (InterruptedException ie) {
+                execution.cancel(true);
+                Thread.currentThread().interrupt();
+                throw ie;
+            }
+
+            // the response is handled on the calling thread, its content streamed to it by the I/O reactor
+            try {
+                return HANDLER_FUNCTION.apply(requestConfig, new ApacheFromServer(theUri, response));
+            } catch (Exception e) {
+                consumer.discard();
+                throw e;
+            }
+
+        } catch (ExecutionException ee) {
+            return handleException(requestConfig.getChainedResponse(), ee.getCause() instanceof Exception ? (Exception) ee.getCause() : ee);
+        } catch (Exception e) {
+            return handleException(requestConfig.getChainedResponse(), e);
+        }
+    }
+
+    /**
+     * Executes the request on the async client. The `failure` future is completed exceptionally (or cancelled) if the request fails (or is
+     * cancelled) before its response is handed over to the consumer - once handed over, failures are reported while reading the content.
+     */
+    private Future<HttpResponse> execute(final ChainedHttpConfig requestConfig, final URI theUri, final StreamingResponseConsumer consumer,
+                                         final CompletableFuture<?> failure) throws Exception {
+        final HttpRequestBase request = prepareRequest(requestConfig, constructor(requestConfig.getChainedRequest().getVerb()));
+
+        return asyncClient.execute(
+            HttpAsyncMethods.create(URIUtils.extractHost(theUri), request), consumer, context(requestConfig), new FutureCallback<HttpResponse>() {
+                @Override
+                public void completed(final HttpResponse response) {
+                    // handled by the consumer once the response headers have been received
+                }
+
+                @Override
+                public void failed(final Exception e) {
+                    if (!consumer.isHandedOver()) {
+                        failure.completeExceptionally(e);
+                    }
+                }
+
+                @Override
+                public void cancelled() {
+                    if (!consumer.isHandedOver()) {
+                        failure.cancel(false);
+                    }
+                }
+            });
+    }
+
+    private void handle(final ChainedHttpConfig requestConfig, final CompletableFuture<Object> future, final StreamingResponseConsumer consumer,
+                        final URI theUri, final HttpResponse response) {
+        try {
+            future.complete(HANDLER_FUNCTION.apply(requestConfig, new ApacheFromServer(theUri, response)));
+        } catch (Exception e) {
+            consumer.discard();
+            completeExceptionally(requestConfig, future, e);
+        }
+    }
+
+    @Override
+    protected Object doGet(final ChainedHttpConfig requestConfig) {
+        return socksProxied ? super.doGet(requestConfig) : exec(requestConfig);
+    }
+
+    @Override
+    protected Object doHead(final ChainedHttpConfig requestConfig) {
+        return socksProxied ? super.doHead(requestConfig) : exec(requestConfig);
+    }
+
+    @Override
+    protected Object doPost(final ChainedHttpConfig requestConfig) {
+        return socksProxied ? super.doPost(requestConfig) : exec(requestConfig);
+    }
+
+    @Override
+    protected Object doPut(final ChainedHttpConfig requestConfig) {
+        return socksProxied ? super.doPut(requestConfig) : exec(requestConfig);
+    }
+
+    @Override
+    protected Object doPatch(final ChainedHttpConfig requestConfig) {
+        return socksProxied ? super.doPatch(requestConfig) : exec(requestConfig);
+    }
+
+    @Override
+    protected Object doDelete(final ChainedHttpConfig requestConfig) {
+        return socksProxied ? super.doDelete(requestConfig) : exec(requestConfig);
+    }
+
+    @Override
+    protected Object doOptions(final ChainedHttpConfig requestConfig) {
+        return socksProxied ? super.doOptions(requestConfig) : exec(requestConfig);
+    }
+
+    @Override
+    protected Object doTrace(final ChainedHttpConfig requestConfig) {
+        return socksProxied ? super.doTrace(requestConfig) : exec(requestConfig);
+    }
+
+    private static Function<URI, HttpRequestBase> constructor(final HttpVerb verb) {
+        switch (verb) {
+            case GET:
+                return HttpGet::new;
+            case HEAD:
+                return HttpHead::new;
+            case POST:
+                return HttpPost::new;
+            case PUT:
+                return HttpPut::new;
+            case PATCH:
+                return HttpPatch::new;
+            case DELETE:
+                return HttpDelete::new;
+            case OPTIONS:
+                return HttpOptions::new;
+            case TRACE:
+                return HttpTrace::new;
+            default:
+                throw new IllegalArgumentException("Unsupported verb: " + verb);
+        }
+    }
+}
@@ -23,18 +23,19 @@ import org.apache.http.auth.AuthScope;
 import org.apache.http.auth.UsernamePasswordCredentials;
 import org.apache.http.client.CredentialsProvider;
 import org.apache.http.client.HttpClient;
-import org.apache.http.client.ResponseHandler;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.entity.GzipDecompressingEntity;
 import org.apache.http.client.methods.*;
 import org.apache.http.client.protocol.HttpClientContext;
 import org.apache.http.config.Registry;
 import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
 import org.apache.http.conn.socket.ConnectionSocketFactory;
 import org.apache.http.conn.socket.PlainConnectionSocketFactory;
 import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.impl.client.BasicCredentialsProvider;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.impl.client.HttpClients;
 import org.apache.http.impl.conn.BasicHttpClientConnectionManager;
@@ -52,17 +53,20 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.PushbackInputStream;
 import java.net.Proxy;
 import java.net.Socket;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.Charset;
 import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -97,7 +101,7 @@ public class ApacheHttpBuilder extends HttpBuilder {
      * @param closure the configuration closure (delegated to {@link HttpObjectConfig})
      * @return the configured `HttpBuilder`
      */
-    public static HttpBuilder configure(@DelegatesTo(HttpObjectConfig.class) final Closure closure) {
+    public static HttpBuilder configure(@DelegatesTo(HttpObjectConfig.class) final Closure<?> closure) {
         return configure(apacheFactory, closure);
     }
 
@@ -191,7 +195,7 @@ public class ApacheHttpBuilder extends HttpBuilder {
         }
     }
 
-    private class ApacheFromServer implements FromServer {
+    class ApacheFromServer implements FromServer {
 
         private final HttpResponse response;
         private final HttpEntity entity;
@@ -248,13 +252,32 @@ public class ApacheHttpBuilder extends HttpBuilder {
 
         public void finish() {
             EntityUtils.consumeQuietly(response.getEntity());
+
+            if (response instanceof CloseableHttpResponse) {
+                try {
+                    ((CloseableHttpResponse) response).close();
+                } catch (IOException e) {
+                    // the connection has been released or discarded either way
+                }
+            }
         }
     }
 
+    /**
+     * Request entity fed by the configured encoder. Content of a known length (e.g. a `File`, `Path` or `byte[]` body) is streamed to the server with
+     * a `Content-Length` header. Content of unknown length is buffered when it is no larger than {@link #BUFFER_LIMIT} bytes; anything larger is
+     * streamed using chunked transfer encoding. In-memory content and content with a {@link ToServer.Source} (e.g. a `File` or `Path` body) is
+     * repeatable - the latter is reopened each time it is sent.
+     */
     public static class ApacheToServer implements ToServer, HttpEntity {
 
+        static final int BUFFER_LIMIT = 8_192;
+
         private ChainedHttpConfig config;
         private byte[] bytes;
+        private InputStream inputStream;
+        private Source source;
+        private long contentLength = -1L;
 
         public ApacheToServer(final ChainedHttpConfig config) {
             this.config = config;
@@ -262,22 +285,37 @@ public class ApacheHttpBuilder extends HttpBuilder {
 
         public void toServer(final InputStream inputStream) {
             try {
-                this.bytes = IoUtils.streamToBytes(inputStream);
+                final PushbackInputStream pushback = new PushbackInputStream(inputStream, BUFFER_LIMIT + 1);
+                this.bytes = IoUtils.bufferIfSmall(pushback, BUFFER_LIMIT);
+                if (bytes == null) {
+                    this.inputStream = pushback;
+                }
             } catch (IOException e) {
                 throw new RuntimeException(e);
             }
         }
 
+        public void toServer(final InputStream inputStream, final long contentLength) {
+            this.inputStream = inputStream;
+            this.contentLength = contentLength;
+        }
+
+        @Override
+        public void toServer(final Source source, final long contentLength) {
+            this.source = source;
+            this.contentLength = contentLength;
+        }
+
         public boolean isRepeatable() {
-            return true;
+            return bytes != null || source != null || inputStream instanceof ByteArrayInputStream;
         }
 
         public boolean isChunked() {
-            return false;
+            return getContentLength() < 0;
         }
 
         public long getContentLength() {
-            return bytes.length;
+            return bytes != null ? bytes.length : contentLength;
         }
 
         public org.apache.http.Header getContentType() {
@@ -288,37 +326,72 @@ public class ApacheHttpBuilder extends HttpBuilder {
             return null;
         }
 
-        public InputStream getContent() {
-            return new ByteArrayInputStream(bytes);
+        public InputStream getContent() throws IOException {
+            if (bytes != null) {
+                return new ByteArrayInputStream(bytes);
+            } else if (source != null) {
+                return source.open();
+            } else if (inputStream instanceof ByteArrayInputStream) {
+                ((ByteArrayInputStream) inputStream).reset();
+            }
+
+            return inputStream;
         }
 
-        public void writeTo(final OutputStream outputStream) {
-            transfer(getContent(), outputStream, false);
+        public void writeTo(final OutputStream outputStream) throws IOException {
+            // in-memory content is unaffected by closing, a reopened source must be closed after each write
+            try (InputStream content = getContent()) {
+                transfer(content, outputStream, false);
+            }
         }
 
         public boolean isStreaming() {
-            return true;
+            return bytes == null && source == null;
         }
 
         @SuppressWarnings("deprecation") //apache httpentity requires method
         public void consumeContent() throws IOException {
             bytes = null;
+            source = null;
+            if (inputStream != null) {
+                inputStream.close();
+            }
         }
     }
 
-    private class Handler implements ResponseHandler<Object> {
+    static final HttpResponseInterceptor GZIP_INTERCEPTOR = (response, context) -> {
+        HttpEntity entity = response.getEntity();
+        if (entity != null) {
+            Header ceheader = entity.getContentEncoding();
+            if (ceheader != null) {
+                HeaderElement[] codecs = ceheader.getElements();
+                for (HeaderElement codec : codecs) {
+                    if (codec.getName().equalsIgnoreCase("gzip")) {
+                        response.setEntity(new GzipDecompressingEntity(response.getEntity()));
+                        return;
+                    }
+                }
+            }
+        }
+    };
 
-        private final ChainedHttpConfig requestConfig;
-        private final URI theUri;
+    static int maxConnections(final HttpObjectConfig.Execution execution) {
+        return execution.getMaxConnections() > 0 ? execution.getMaxConnections() : execution.getMaxThreads();
+    }
 
-        public Handler(final ChainedHttpConfig requestConfig) throws URISyntaxException {
-            this.requestConfig = requestConfig;
-            this.theUri = requestConfig.getChainedRequest().getUri().toURI();
-        }
+    static int maxConnectionsPerRoute(final HttpObjectConfig.Execution execution) {
+        return execution.getMaxConnectionsPerRoute() > 0 ? execution.getMaxConnectionsPerRoute() : maxConnections(execution);
+    }
 
-        public Object handleResponse(final HttpResponse response) {
-            return HANDLER_FUNCTION.apply(requestConfig, new ApacheFromServer(theUri, response));
-        }
+    /**
+     * Keeps connections alive for the duration requested by the server (`Keep-Alive` header), capped at the configured keep-alive duration.
+     */
+    static ConnectionKeepAliveStrategy keepAliveStrategy(final Duration keepAlive) {
+        final long maxMillis = keepAlive.toMillis();
+        return (response, context) -> {
+            final long millis = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return millis > 0 && millis < maxMillis ? millis : maxMillis;
+        };
     }
 
     final private CloseableHttpClient client;
@@ -345,37 +418,30 @@ public class ApacheHttpBuilder extends HttpBuilder {
 
         final Registry<ConnectionSocketFactory> registry = registry(config);
 
-        if (config.getExecution().getMaxThreads() > 1) {
+        final int maxConnections = maxConnections(config.getExecution());
+        if (maxConnections > 1) {
             final PoolingHttpClientConnectionManager cm = new PoolingHttpClientConnectionManager(registry);
-            cm.setMaxTotal(config.getExecution().getMaxThreads());
-            cm.setDefaultMaxPerRoute(config.getExecution().getMaxThreads());
+            cm.setMaxTotal(maxConnections);
+            cm.setDefaultMaxPerRoute(maxConnectionsPerRoute(config.getExecution()));
             myBuilder.setConnectionManager(cm);
         } else {
             final BasicHttpClientConnectionManager cm = new BasicHttpClientConnectionManager(registry);
             myBuilder.setConnectionManager(cm);
         }
 
+        final Duration keepAlive = config.getExecution().getKeepAlive();
+        if (keepAlive != null) {
+            myBuilder.setKeepAliveStrategy(keepAliveStrategy(keepAlive));
+            myBuilder.evictIdleConnections(keepAlive.toMillis(), TimeUnit.MILLISECONDS);
+        }
+
         final SSLContext sslContext = config.getExecution().getSslContext();
         if (sslContext != null) {
             myBuilder.setSSLContext(sslContext);
             myBuilder.setSSLSocketFactory(new SSLConnectionSocketFactory(sslContext, config.getExecution().getHostnameVerifier()));
         }
 
-        myBuilder.addInterceptorFirst((HttpResponseInterceptor) (response, context) -> {
-            HttpEntity entity = response.getEntity();
-            if (entity != null) {
-                Header ceheader = entity.getContentEncoding();
-                if (ceheader != null) {
-                    HeaderElement[] codecs = ceheader.getElements();
-                    for (HeaderElement codec : codecs) {
-                        if (codec.getName().equalsIgnoreCase("gzip")) {
-                            response.setEntity(new GzipDecompressingEntity(response.getEntity()));
-                            return;
-                        }
-                    }
-                }
-            }
-        });
+        myBuilder.addInterceptorFirst(GZIP_INTERCEPTOR);
 
         final Consumer<Object> clientCustomizer = clientConfig.getClientCustomizer();
         if (clientCustomizer != null) {
@@ -410,6 +476,8 @@ public class ApacheHttpBuilder extends HttpBuilder {
                 log.warn("Error in closing http client", ioe);
             }
         }
+
+        closeCookieStore();
     }
 
     private void basicAuth(final HttpClientContext c, final HttpConfig.Auth auth, final URI uri) {
@@ -423,7 +491,7 @@ public class ApacheHttpBuilder extends HttpBuilder {
         basicAuth(c, auth, uri);
     }
 
-    private HttpClientContext context(final ChainedHttpConfig requestConfig) throws URISyntaxException {
+    HttpClientContext context(final ChainedHttpConfig requestConfig) throws URISyntaxException {
         final HttpClientContext c = HttpClientContext.create();
         final ChainedHttpConfig.ChainedRequest cr = requestConfig.getChainedRequest();
         final HttpConfig.Auth auth = cr.actualAuth();
@@ -440,27 +508,40 @@ public class ApacheHttpBuilder extends HttpBuilder {
         return c;
     }
 
+    <T extends HttpRequestBase> T prepareRequest(final ChainedHttpConfig requestConfig, final Function<URI, T> constructor) throws URISyntaxException {
+        final ChainedHttpConfig.ChainedRequest cr = requestConfig.getChainedRequest();
+        final URI theUri = cr.getUri().toURI();
+        final T request = constructor.apply(theUri);
+
+        if ((request instanceof HttpEntityEnclosingRequest) && cr.actualBody() != null) {
+            final HttpEntity entity = entity(requestConfig);
+            ((HttpEntityEnclosingRequest) request).setEntity(entity);
+            request.setHeader(entity.getContentType());
+        }
+
+        addHeaders(cr, request);
+
+        if (proxyInfo != null && proxyInfo.getProxy().type() == Proxy.Type.HTTP) {
+            HttpHost proxy = new HttpHost(proxyInfo.getAddress(), proxyInfo.getPort(), proxyInfo.isSecure() ? "https" : "http");
+            request.setConfig(RequestConfig.custom().setProxy(proxy).build());
+        }
+
+        return request;
+    }
+
     private <T extends HttpRequestBase> Object exec(final ChainedHttpConfig requestConfig, final Function<URI, T> constructor) {
         try {
-            final ChainedHttpConfig.ChainedRequest cr = requestConfig.getChainedRequest();
-            final URI theUri = cr.getUri().toURI();
-            final T request = constructor.apply(theUri);
-
-            if ((request instanceof HttpEntityEnclosingRequest) && cr.actualBody() != null) {
-                final HttpEntity entity = entity(requestConfig);
-                ((HttpEntityEnclosingRequest) request).setEntity(entity);
-                request.setHeader(entity.getContentType());
-            }
+            final URI theUri = requestConfig.getChainedRequest().getUri().toURI();
 
-            addHeaders(cr, request);
-
-            if (proxyInfo != null && proxyInfo.getProxy().type() == Proxy.Type.HTTP) {
-                HttpHost proxy = new HttpHost(proxyInfo.getAddress(), proxyInfo.getPort(), proxyInfo.isSecure() ? "https" : "http");
-                request.setConfig(RequestConfig.custom().setProxy(proxy).build());
+            // the response handling releases the response, unless its content is still being streamed to the caller
+            final CloseableHttpResponse response = client.execute(prepareRequest(requestConfig, constructor), context(requestConfig));
+            try {
+                return HANDLER_FUNCTION.apply(requestConfig, new ApacheFromServer(theUri, response));
+            } catch (Exception e) {
+                response.close();
+                throw e;
             }
 
-            return client.execute(request, new Handler(requestConfig), context(requestConfig));
-
         } catch (Exception e) {
             return handleException(requestConfig.getChainedResponse(), e);
         }
@@ -0,0 +1,258 @@
+/**
+ * Copyright (C) 2017 HttpBuilder-NG Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package groovyx.net.http;
+
+import org.apache.http.ConnectionClosedException;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpException;
+import org.apache.http.HttpResponse;
+import org.apache.http.entity.BasicHttpEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.impl.io.EmptyInputStream;
+import org.apache.http.nio.ContentDecoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.protocol.AbstractAsyncResponseConsumer;
+import org.apache.http.protocol.HttpContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Response consumer of the {@link ApacheAsyncHttpBuilder} which streams the response content to the response handling, rather than buffering the
+ * whole content on the heap before the response is handled (as the default consumer of the async client does).
+ *
+ * The response is handed over as soon as its status line and headers have been received, with an entity whose content is fed by the I/O reactor as
+ * it arrives. At most {@link #BUFFER_LIMIT} bytes are buffered: input from the connection is suspended while the buffer is full and resumed as the
+ * content is read. Content left unread when the stream is closed is discarded, so that the connection may be reused.
+ */
+class StreamingResponseConsumer extends AbstractAsyncResponseConsumer<HttpResponse> {
+
+    static final int BUFFER_LIMIT = 64 * 1024;
+    private static final int CHUNK_SIZE = 8_192;
+
+    private final Consumer<HttpResponse> onResponse;
+    private final AtomicBoolean handedOver = new AtomicBoolean();
+    private HttpResponse response;
+    private ContentPipe pipe;
+
+    /**
+     * @param onResponse receives the response once its head has been received - it must not read the content on the calling (I/O reactor) thread
+     */
+    StreamingResponseConsumer(final Consumer<HttpResponse> onResponse) {
+        this.onResponse = onResponse;
+    }
+
+    /**
+     * Used to determine whether the response has been handed over - failures after that are reported by the content stream.
+     *
+     * @return `true` if the response has been handed over
+     */
+    boolean isHandedOver() {
+        return handedOver.get();
+    }
+
+    /**
+     * Discards the content of a response whose handling failed before its content was consumed.
+     */
+    void discard() {
+        if (pipe != null) {
+            pipe.close();
+        }
+    }
+
+    @Override
+    protected void onResponseReceived(final HttpResponse response) {
+        this.response = response;
+    }
+
+    @Override
+    protected void onEntityEnclosed(final HttpEntity entity, final ContentType contentType) throws IOException {
+        pipe = new ContentPipe();
+
+        final BasicHttpEntity streamed = new BasicHttpEntity();
+        streamed.setContentLength(entity.getContentLength());
+        streamed.setContentType(entity.getContentType());
+        streamed.setContentEncoding(entity.getContentEncoding());
+        streamed.setChunked(entity.isChunked());
+        streamed.setContent(entity.getContentLength() == 0 ? EmptyInputStream.INSTANCE : pipe);
+
+        response.setEntity(streamed);
+
+        try {
+            ApacheHttpBuilder.GZIP_INTERCEPTOR.process(response, null);
+        } catch (HttpException e) {
+            throw new IOException(e);
+        }
+
+        handOver();
+    }
+
+    private void handOver() {
+        if (handedOver.compareAndSet(false, true)) {
+            onResponse.accept(response);
+        }
+    }
+
+    @Override
+    protected void onContentReceived(final ContentDecoder decoder, final IOControl ioctrl) throws IOException {
+        pipe.consume(decoder, ioctrl);
+    }
+
+    @Override
+    protected HttpResponse buildResult(final HttpContext context) {
+        if (pipe != null) {
+            pipe.finish(null);
+        }
+
+        // a response without content is handed over once it is complete
+        handOver();
+        return response;
+    }
+
+    @Override
+    protected void releaseResources() {
+        if (pipe != null) {
+            // only has an effect when the exchange failed or was cancelled before the content was complete
+            final Exception ex = getException();
+            pipe.finish(ex instanceof IOException ? (IOException) ex :
+                new ConnectionClosedException("The response content was not completely received" + (ex != null ? ": " + ex : "")));
+        }
+    }
+
+    /**
+     * Bounded buffer between the I/O reactor, which writes the content as it is received, and the reader of the response content.
+     */
+    static class ContentPipe extends InputStream {
+
+        private final Deque<ByteBuffer> chunks = new ArrayDeque<>();
+        private IOControl ioctrl;
+        private int buffered;
+        private boolean suspended;
+        private boolean finished;
+        private boolean closed;
+        private IOException failure;
+
+        synchronized void consume(final ContentDecoder decoder, final IOControl ioctrl) throws IOException {
+            this.ioctrl = ioctrl;
+
+            while (closed || buffered < BUFFER_LIMIT) {
+                final ByteBuffer chunk = ByteBuffer.allocate(CHUNK_SIZE);
+                final int read = decoder.read(chunk);
+                if (read <= 0) {
+                    return;
+                }
+
+                if (!closed) {
+                    chunk.flip();
+                    chunks.add(chunk);
+                    buffered += read;
+                    notifyAll();
+                }
+            }
+
+            ioctrl.suspendInput();
+            suspended = true;
+        }
+
+        synchronized void finish(final IOException failure) {
+            if (finished || this.failure != null) {
+                return;
+            }
+
+            if (failure == null) {
+                finished = true;
+            } else {
+                this.failure = failure;
+            }
+            notifyAll();
+        }
+
+        @Override
+        public synchronized int read(final byte[] bytes, final int offset, final int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+
+            while (chunks.isEmpty()) {
+                if (closed) {
+                    throw new IOException("The response content stream is closed");
+                } else if (failure != null) {
+                    throw failure;
+                } else if (finished) {
+                    return -1;
+                }
+
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for the response content");
+                }
+            }
+
+            final ByteBuffer chunk = chunks.peek();
+            final int count = Math.min(length, chunk.remaining());
+            chunk.get(bytes, offset, count);
+            if (!chunk.hasRemaining()) {
+                chunks.poll();
+            }
+
+            buffered -= count;
+            if (suspended && buffered <= BUFFER_LIMIT / 2) {
+                resume();
+            }
+
+            return count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final byte[] single = new byte[1];
+            return read(single, 0, 1) == -1 ? -1 : single[0] & 0xff;
+        }
+
+        @Override
+        public synchronized int available() {
+            return buffered;
+        }
+
+        @Override
+        public synchronized void close() {
+            if (closed) {
+                return;
+            }
+
+            closed = true;
+            chunks.clear();
+            buffered = 0;
+            if (suspended) {
+                resume();
+            }
+            notifyAll();
+        }
+
+        private void resume() {
+            suspended = false;
+            ioctrl.requestInput();
+        }
+    }
+}
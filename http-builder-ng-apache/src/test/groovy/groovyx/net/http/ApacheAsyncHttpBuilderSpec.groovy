@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2017 HttpBuilder-NG Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package groovyx.net.http
+
+import com.stehno.ersatz.ErsatzServer
+import org.apache.http.client.config.RequestConfig
+import org.apache.http.impl.client.HttpClientBuilder
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager
+import org.apache.http.impl.nio.client.HttpAsyncClientBuilder
+import spock.lang.AutoCleanup
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import static com.stehno.ersatz.ContentType.TEXT_PLAIN
+
+class ApacheAsyncHttpBuilderSpec extends Specification {
+
+    @AutoCleanup('stop')
+    private ErsatzServer ersatzServer = new ErsatzServer({
+        expectations {
+            get('/foo').responds().content('ok', TEXT_PLAIN)
+        }
+    })
+
+    def 'client customization is applied to both clients'() {
+        setup:
+        List<Class> customized = []
+
+        HttpBuilder http = ApacheAsyncHttpBuilder.configure {
+            client.clientCustomizer { builder ->
+                customized << builder.getClass()
+
+                RequestConfig.Builder requestBuilder = RequestConfig.custom()
+                requestBuilder.connectTimeout = 1234567
+
+                if (builder instanceof HttpClientBuilder) {
+                    builder.defaultRequestConfig = requestBuilder.build()
+                } else if (builder instanceof HttpAsyncClientBuilder) {
+                    builder.defaultRequestConfig = requestBuilder.build()
+                }
+            }
+            request.uri = "${ersatzServer.httpUrl}/foo"
+        }
+
+        expect:
+        customized == [HttpClientBuilder, HttpAsyncClientBuilder]
+
+        and:
+        http.clientImplementation.defaultConfig.connectTimeout == 1234567
+        http.asyncClient.defaultConfig.connectTimeout == 1234567
+
+        and:
+        http.getAsync().get() == 'ok'
+
+        cleanup:
+        http.close()
+    }
+
+    @Unroll 'connection limits apply to all of the requests (connections: #connections, per-route: #perRoute)'() {
+        setup:
+        HttpBuilder http = ApacheAsyncHttpBuilder.configure {
+            execution.maxConnections = connections
+            execution.maxConnectionsPerRoute = perRoute
+            request.uri = "${ersatzServer.httpUrl}/foo"
+        }
+
+        when:
+        def asyncManager = http.asyncClient.connmgr
+
+        then:
+        asyncManager.maxTotal == total
+        asyncManager.defaultMaxPerRoute == routeTotal
+
+        and:
+        http.get() == 'ok'
+        http.getAsync().get() == 'ok'
+
+        cleanup:
+        http.close()
+
+        where:
+        connections | perRoute || total | routeTotal
+        200         | 0        || 200   | 200
+        200         | 50       || 200   | 50
+        1           | 0        || 1     | 1
+    }
+
+    def 'synchronous requests are executed by the async client and handled on the calling thread'() {
+        setup:
+        HttpBuilder http = ApacheAsyncHttpBuilder.configure {
+            execution.maxConnections = 4
+            request.uri = "${ersatzServer.httpUrl}/foo"
+        }
+        Thread handling = null
+
+        when:
+        def result = http.get {
+            response.success { FromServer fs, Object body ->
+                handling = Thread.currentThread()
+                body
+            }
+        }
+
+        then:
+        result == 'ok'
+        handling == Thread.currentThread()
+
+        and:
+        PoolingHttpClientConnectionManager manager = http.clientImplementation.connManager
+        manager.totalStats.available == 0
+        manager.totalStats.leased == 0
+
+        cleanup:
+        http.close()
+    }
+
+    def 'asynchronous responses are handled on at most maxThreads threads with the default executor'() {
+        setup:
+        HttpBuilder http = ApacheAsyncHttpBuilder.configure {
+            execution.maxThreads = 2
+            request.uri = "${ersatzServer.httpUrl}/foo"
+        }
+        Set<Thread> handling = Collections.synchronizedSet(new HashSet<Thread>())
+
+        when:
+        def results = (1..8).collect {
+            http.getAsync {
+                response.success { FromServer fs, Object body ->
+                    handling << Thread.currentThread()
+                    body
+                }
+            }
+        }*.get()
+
+        then:
+        results.every { it == 'ok' }
+        handling.size() <= 2
+        handling.every { it.name == 'http-builder-ng-async-response' }
+
+        cleanup:
+        http.close()
+    }
+}
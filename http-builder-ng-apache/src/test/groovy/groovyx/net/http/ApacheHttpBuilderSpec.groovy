@@ -15,13 +15,21 @@
  */
 package groovyx.net.http
 
+import com.stehno.ersatz.Decoders
 import com.stehno.ersatz.ErsatzServer
 import groovy.transform.Canonical
 import org.apache.http.client.HttpClient
 import org.apache.http.client.config.RequestConfig
 import org.apache.http.impl.client.HttpClientBuilder
+import org.apache.http.impl.conn.BasicHttpClientConnectionManager
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager
+import org.junit.Rule
+import org.junit.rules.TemporaryFolder
 import spock.lang.AutoCleanup
 import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.time.Duration
 
 import static com.stehno.ersatz.ContentType.TEXT_PLAIN
 import static groovyx.net.http.ContentTypes.JSON
@@ -29,6 +37,8 @@ import static groovyx.net.http.NativeHandlers.Parsers.json
 
 class ApacheHttpBuilderSpec extends Specification {
 
+    @Rule TemporaryFolder folder = new TemporaryFolder()
+
     @AutoCleanup('stop')
     private ErsatzServer ersatzServer = new ErsatzServer({
         expectations {
@@ -80,6 +90,40 @@ class ApacheHttpBuilderSpec extends Specification {
         client.defaultConfig.connectionRequestTimeout == 98765
     }
 
+    @Unroll 'connection pooling (threads: #threads, connections: #connections, per-route: #perRoute)'() {
+        setup:
+        HttpBuilder http = ApacheHttpBuilder.configure {
+            execution.maxThreads = threads
+            execution.maxConnections = connections
+            execution.maxConnectionsPerRoute = perRoute
+            execution.keepAlive = Duration.ofSeconds(30)
+            request.uri = "${ersatzServer.httpUrl}/foo"
+        }
+
+        when:
+        PoolingHttpClientConnectionManager manager = http.clientImplementation.connManager
+
+        then:
+        manager.maxTotal == maxTotal
+        manager.defaultMaxPerRoute == maxPerRoute
+
+        and:
+        http.get() == 'ok'
+
+        where:
+        threads | connections | perRoute || maxTotal | maxPerRoute
+        4       | 0           | 0        || 4        | 4
+        4       | 200         | 0        || 200      | 200
+        1       | 200         | 50       || 200      | 50
+    }
+
+    def 'single connection by default'() {
+        expect:
+        ApacheHttpBuilder.configure {
+            request.uri = "${ersatzServer.httpUrl}/foo"
+        }.clientImplementation.connManager instanceof BasicHttpClientConnectionManager
+    }
+
     def 'FromServer hasBody should return false when there is no content'() {
         setup:
         ersatzServer.expectations {
@@ -139,6 +183,143 @@ class ApacheHttpBuilderSpec extends Specification {
         "Your score for item (${itemScore.item}) was (${itemScore.score})." == "Your score for item (ASDFASEACV235) was (90786)."
     }
 
+    def 'ApacheToServer: file content is repeatable'() {
+        setup:
+        File file = folder.newFile()
+        file.text = 'x' * (ApacheHttpBuilder.ApacheToServer.BUFFER_LIMIT * 2)
+
+        def config = HttpConfigs.requestLevel(HttpConfigs.threadSafe(HttpConfigs.root()))
+        config.request.body = file
+        def toServer = new ApacheHttpBuilder.ApacheToServer(config)
+
+        when:
+        NativeHandlers.Encoders.handleRawUpload(config, toServer)
+
+        then:
+        toServer.contentLength == file.length()
+        !toServer.chunked
+        toServer.repeatable
+        !toServer.streaming
+
+        when:
+        def first = new ByteArrayOutputStream()
+        def second = new ByteArrayOutputStream()
+        toServer.writeTo(first)
+        toServer.writeTo(second)
+
+        then:
+        first.toString() == file.text
+        second.toString() == file.text
+        toServer.content.text == file.text
+    }
+
+    def 'ApacheToServer: small content of unknown length is buffered'() {
+        setup:
+        def toServer = new ApacheHttpBuilder.ApacheToServer(null)
+
+        when:
+        toServer.toServer(new BufferedInputStream(new ByteArrayInputStream('some content'.bytes)))
+
+        then:
+        toServer.contentLength == 12
+        !toServer.chunked
+        toServer.repeatable
+        toServer.content.text == 'some content'
+        toServer.content.text == 'some content'
+    }
+
+    def 'ApacheToServer: large content of unknown length is streamed'() {
+        setup:
+        def toServer = new ApacheHttpBuilder.ApacheToServer(null)
+        byte[] bytes = new byte[ApacheHttpBuilder.ApacheToServer.BUFFER_LIMIT * 2]
+        new Random().nextBytes(bytes)
+
+        when:
+        toServer.toServer(new BufferedInputStream(new ByteArrayInputStream(bytes)))
+
+        then:
+        toServer.contentLength == -1
+        toServer.chunked
+        !toServer.repeatable
+
+        when:
+        def out = new ByteArrayOutputStream()
+        toServer.writeTo(out)
+
+        then:
+        out.toByteArray() == bytes
+    }
+
+    def 'ApacheToServer: content of known length is streamed'() {
+        setup:
+        def toServer = new ApacheHttpBuilder.ApacheToServer(null)
+        File file = folder.newFile('content.txt')
+        file.text = 'file content'
+
+        when:
+        toServer.toServer(file.newInputStream(), file.length())
+
+        then:
+        toServer.contentLength == 12
+        !toServer.chunked
+        !toServer.repeatable
+        toServer.streaming
+
+        when:
+        def out = new ByteArrayOutputStream()
+        toServer.writeTo(out)
+
+        then:
+        out.toString() == 'file content'
+    }
+
+    def 'POST large stream content'() {
+        setup:
+        String content = 'streamed-content ' * 2_000
+
+        ersatzServer.expectations {
+            post('/upload') {
+                header 'Transfer-Encoding', 'chunked'
+                decoder TEXT_PLAIN, Decoders.utf8String
+                body content, TEXT_PLAIN
+                responds().content('ok', TEXT_PLAIN)
+            }
+        }
+
+        expect:
+        ApacheHttpBuilder.configure {
+            request.uri = ersatzServer.httpUrl
+        }.post {
+            request.uri.path = '/upload'
+            request.contentType = TEXT_PLAIN.value
+            request.body = new ByteArrayInputStream(content.bytes)
+        } == 'ok'
+    }
+
+    def 'POST file content'() {
+        setup:
+        File file = folder.newFile('upload.txt')
+        file.text = 'file-content ' * 2_000
+
+        ersatzServer.expectations {
+            post('/upload') {
+                header 'Content-Length', file.length() as String
+                decoder TEXT_PLAIN, Decoders.utf8String
+                body file.text, TEXT_PLAIN
+                responds().content('ok', TEXT_PLAIN)
+            }
+        }
+
+        expect:
+        ApacheHttpBuilder.configure {
+            request.uri = ersatzServer.httpUrl
+        }.post {
+            request.uri.path = '/upload'
+            request.contentType = TEXT_PLAIN.value
+            request.body = file
+        } == 'ok'
+    }
+
     @Canonical
     static class ItemScore {
         String item
@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2017 HttpBuilder-NG Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package groovyx.net.http
+
+import com.stehno.ersatz.ErsatzServer
+import org.apache.http.nio.ContentDecoder
+import org.apache.http.nio.IOControl
+import spock.lang.AutoCleanup
+import spock.lang.Specification
+
+import java.nio.ByteBuffer
+
+import static com.stehno.ersatz.ContentType.TEXT_PLAIN
+import static groovyx.net.http.StreamingResponseConsumer.BUFFER_LIMIT
+
+class StreamingResponseConsumerSpec extends Specification {
+
+    @AutoCleanup('stop') private ErsatzServer ersatzServer = new ErsatzServer()
+
+    private final IOControl ioctrl = Mock(IOControl)
+    private final StreamingResponseConsumer.ContentPipe pipe = new StreamingResponseConsumer.ContentPipe()
+
+    def 'input is suspended while the buffer is full and resumed as it is read'() {
+        setup:
+        def decoder = new BytesDecoder(new byte[BUFFER_LIMIT * 2])
+
+        when:
+        pipe.consume(decoder, ioctrl)
+
+        then:
+        1 * ioctrl.suspendInput()
+        pipe.available() >= BUFFER_LIMIT
+        decoder.remaining() > 0
+
+        when:
+        byte[] bytes = new byte[BUFFER_LIMIT]
+        while (pipe.available() > BUFFER_LIMIT / 2) {
+            pipe.read(bytes)
+        }
+
+        then:
+        1 * ioctrl.requestInput()
+    }
+
+    def 'buffered content is read before the end of the content'() {
+        setup:
+        pipe.consume(new BytesDecoder('some content'.bytes), ioctrl)
+        pipe.finish(null)
+
+        expect:
+        pipe.text == 'some content'
+    }
+
+    def 'buffered content is read before the failure is thrown'() {
+        setup:
+        pipe.consume(new BytesDecoder('some'.bytes), ioctrl)
+        pipe.finish(new IOException('failed'))
+
+        byte[] bytes = new byte[10]
+
+        expect:
+        pipe.read(bytes) == 4
+
+        when:
+        pipe.read(bytes)
+
+        then:
+        def ex = thrown(IOException)
+        ex.message == 'failed'
+    }
+
+    def 'content received after the stream is closed is discarded'() {
+        setup:
+        def decoder = new BytesDecoder(new byte[BUFFER_LIMIT * 2])
+
+        when:
+        pipe.consume(decoder, ioctrl)
+        pipe.close()
+
+        then:
+        1 * ioctrl.requestInput()
+        pipe.available() == 0
+
+        when:
+        pipe.consume(decoder, ioctrl)
+
+        then:
+        0 * ioctrl.suspendInput()
+        decoder.remaining() == 0
+    }
+
+    def 'large content is streamed to the response handling'() {
+        setup:
+        String content = 'x' * (BUFFER_LIMIT * 5)
+
+        ersatzServer.expectations {
+            get('/large').responds().content(content, TEXT_PLAIN)
+        }
+
+        HttpBuilder http = ApacheAsyncHttpBuilder.configure {
+            request.uri = "${ersatzServer.httpUrl}/large"
+        }
+
+        when:
+        String result = http.getAsync().get()
+
+        then:
+        result == content
+
+        cleanup:
+        http.close()
+    }
+
+    private static class BytesDecoder implements ContentDecoder {
+
+        private final ByteBuffer source
+
+        BytesDecoder(final byte[] bytes) {
+            source = ByteBuffer.wrap(bytes)
+        }
+
+        int remaining() {
+            source.remaining()
+        }
+
+        @Override
+        int read(final ByteBuffer dst) {
+            if (!source.hasRemaining()) {
+                return -1
+            }
+
+            int count = Math.min(dst.remaining(), source.remaining())
+            ByteBuffer slice = source.slice()
+            slice.limit(count)
+            dst.put(slice)
+            source.position(source.position() + count)
+            count
+        }
+
+        @Override
+        boolean isCompleted() {
+            !source.hasRemaining()
+        }
+    }
+}
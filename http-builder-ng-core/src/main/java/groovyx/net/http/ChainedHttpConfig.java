@@ -154,13 +154,15 @@ public interface ChainedHttpConfig extends HttpConfig {
     }
 
     /**
-     * Used to find the encoder configured to encode the current resolved content-type.
+     * Used to find the encoder configured to encode the current resolved content-type. When {@link Compression} is configured for the content-type,
+     * the encoder compresses its output.
      *
      * @return the configured encoder
      * @throws IllegalStateException if no coder was found
      */
     default BiConsumer<ChainedHttpConfig, ToServer> findEncoder() {
-        return findEncoder(findContentType());
+        final String contentType = findContentType();
+        return Compression.encoder(this, contentType, findEncoder(contentType));
     }
 
     /**
@@ -0,0 +1,373 @@
+/**
+ * Copyright (C) 2017 HttpBuilder-NG Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package groovyx.net.http;
+
+import groovyx.net.http.util.IoUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Compression of request content with a `Content-Encoding` of `gzip` or `deflate`. The content produced by the configured encoder is compressed as
+ * it is sent, and the `Content-Encoding` header is added to the request, by all of the client implementations. Content shorter than the threshold
+ * of the configured `Compression` is sent as it is.
+ *
+ * Compression may be configured for all requests of a client, or for an individual request, optionally limited to some content types:
+ *
+ * [source,groovy]
+ * ----
+ * def http = HttpBuilder.configure {
+ *     request.uri = 'http://localhost:10101'
+ *     Compression.compress(delegate, ContentTypes.JSON, new Compression(Compression.Encoding.GZIP, 6, 4096))
+ * }
+ *
+ * http.post {
+ *     request.uri.path = '/events'
+ *     request.contentType = 'text/csv'
+ *     request.body = rows
+ *     Compression.gzip(delegate)
+ * }
+ * ----
+ *
+ * A request may turn off compression configured on the client with {@link #none(HttpConfig)}. Content already carrying a `Content-Encoding` header is
+ * never compressed again.
+ */
+public class Compression {
+
+    public static final String ID = "eZ2YqCk0vW7bRjL3nTfPaUxD9sM=";
+
+    /**
+     * The supported content encodings.
+     */
+    public enum Encoding {
+        GZIP("gzip"), DEFLATE("deflate");
+
+        private final String value;
+
+        Encoding(final String value) {
+            this.value = value;
+        }
+
+        /**
+         * Retrieves the value of the `Content-Encoding` header for the encoding.
+         *
+         * @return the header value
+         */
+        public String getValue() {
+            return value;
+        }
+    }
+
+    /**
+     * Compresses content of 1 KB or more with `gzip`, at the default compression level.
+     */
+    public static final Compression GZIP = new Compression(Encoding.GZIP, Deflater.DEFAULT_COMPRESSION, 1_024);
+
+    /**
+     * Compresses content of 1 KB or more with `deflate`, at the default compression level.
+     */
+    public static final Compression DEFLATE = new Compression(Encoding.DEFLATE, Deflater.DEFAULT_COMPRESSION, 1_024);
+
+    /**
+     * Does not compress any content.
+     */
+    public static final Compression NONE = new Compression(null, Deflater.DEFAULT_COMPRESSION, Integer.MAX_VALUE);
+
+    private final Encoding encoding;
+    private final int level;
+    private final int threshold;
+
+    /**
+     * Creates a compression configuration.
+     *
+     * @param encoding  the content encoding
+     * @param level     the compression level, from `0` to `9` or `-1` for the default level (see {@link Deflater})
+     * @param threshold the content length (in bytes) from which content is compressed
+     */
+    public Compression(final Encoding encoding, final int level, final int threshold) {
+        if (level < Deflater.DEFAULT_COMPRESSION || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Invalid compression level: " + level);
+        }
+
+        if (threshold < 0) {
+            throw new IllegalArgumentException("Compression threshold cannot be negative");
+        }
+
+        this.encoding = encoding;
+        this.level = level;
+        this.threshold = threshold;
+    }
+
+    public Encoding getEncoding() {
+        return encoding;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Compresses the request content of all content types with `gzip` (see {@link #GZIP}).
+     *
+     * @param config the `HttpConfig` instance (request or client)
+     */
+    public static void gzip(final HttpConfig config) {
+        compress(config, GZIP);
+    }
+
+    /**
+     * Compresses the request content of all content types with `deflate` (see {@link #DEFLATE}).
+     *
+     * @param config the `HttpConfig` instance (request or client)
+     */
+    public static void deflate(final HttpConfig config) {
+        compress(config, DEFLATE);
+    }
+
+    /**
+     * Turns off the compression of request content, generally to override compression configured on the client for a request.
+     *
+     * @param config the `HttpConfig` instance (request or client)
+     */
+    public static void none(final HttpConfig config) {
+        compress(config, NONE);
+    }
+
+    /**
+     * Compresses the request content of all content types as configured.
+     *
+     * @param config      the `HttpConfig` instance (request or client)
+     * @param compression the compression configuration
+     */
+    public static void compress(final HttpConfig config, final Compression compression) {
+        config.context(ContentTypes.ANY.getAt(0), ID, compression);
+    }
+
+    /**
+     * Compresses the request content of the given content types as configured.
+     *
+     * @param config       the `HttpConfig` instance (request or client)
+     * @param contentTypes the content types to be compressed
+     * @param compression  the compression configuration
+     */
+    public static void compress(final HttpConfig config, final Iterable<String> contentTypes, final Compression compression) {
+        config.context(contentTypes, ID, compression);
+    }
+
+    /**
+     * Wraps the encoder of the request content so that its output is compressed, when compression is configured for the content type.
+     *
+     * @param config      the request configuration
+     * @param contentType the content type of the request
+     * @param encoder     the configured encoder
+     * @return the encoder to be used for the request
+     */
+    static BiConsumer<ChainedHttpConfig, ToServer> encoder(final ChainedHttpConfig config, final String contentType,
+                                                           final BiConsumer<ChainedHttpConfig, ToServer> encoder) {
+        final Compression compression = (Compression) config.actualContext(contentType, ID);
+        if (compression == null || compression.encoding == null) {
+            return encoder;
+        }
+
+        return (cfg, ts) -> encoder.accept(cfg, new CompressingToServer(cfg, compression, ts));
+    }
+
+    private static class CompressingToServer implements ToServer {
+
+        private final ChainedHttpConfig config;
+        private final Compression compression;
+        private final ToServer target;
+
+        private CompressingToServer(final ChainedHttpConfig config, final Compression compression, final ToServer target) {
+            this.config = config;
+            this.compression = compression;
+            this.target = target;
+        }
+
+        @Override
+        public void toServer(final InputStream inputStream) {
+            if (compression.threshold == 0 || encoded()) {
+                send(inputStream, -1);
+                return;
+            }
+
+            try {
+                final ByteArrayOutputStream buffered = new ByteArrayOutputStream(Math.min(compression.threshold, IoUtils.getBufferSize()));
+                if (buffer(inputStream, buffered)) {
+                    inputStream.close();
+                    target.toServer(new ByteArrayInputStream(buffered.toByteArray()), buffered.size());
+                } else {
+                    send(new SequenceInputStream(new ByteArrayInputStream(buffered.toByteArray()), inputStream), -1);
+                }
+            } catch (IOException ioe) {
+                throw new TransportingException(ioe);
+            }
+        }
+
+        /**
+         * Reads the start of the content, until the end of the stream or the threshold is reached - the buffer only grows with the content read.
+         *
+         * @return `true` if the whole content was read, being shorter than the threshold
+         */
+        private boolean buffer(final InputStream inputStream, final ByteArrayOutputStream buffered) throws IOException {
+            final byte[] chunk = new byte[Math.min(compression.threshold, IoUtils.getBufferSize())];
+
+            int read;
+            while (buffered.size() < compression.threshold
+                && (read = inputStream.read(chunk, 0, Math.min(chunk.length, compression.threshold - buffered.size()))) != -1) {
+                buffered.write(chunk, 0, read);
+            }
+
+            return buffered.size() < compression.threshold;
+        }
+
+        @Override
+        public void toServer(final InputStream inputStream, final long contentLength) {
+            send(inputStream, contentLength);
+        }
+
+        private void send(final InputStream inputStream, final long contentLength) {
+            if (encoded() || (contentLength >= 0 && contentLength < compression.threshold)) {
+                if (contentLength >= 0) {
+                    target.toServer(inputStream, contentLength);
+                } else {
+                    target.toServer(inputStream);
+                }
+            } else {
+                config.getChainedRequest().getHeaders().put("Content-Encoding", compression.encoding.getValue());
+                target.toServer(new CompressingInputStream(inputStream, compression));
+            }
+        }
+
+        private boolean encoded() {
+            for (final Map.Entry<String, CharSequence> header : config.getChainedRequest().actualHeaders(new LinkedHashMap<>()).entrySet()) {
+                if ("Content-Encoding".equalsIgnoreCase(header.getKey())) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+    }
+
+    /**
+     * Compresses the content of a stream as it is read, in the `gzip` or `deflate` (zlib) format.
+     */
+    private static class CompressingInputStream extends InputStream {
+
+        private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+        // the whole gzip header (10 bytes) and trailer (8 bytes) are written at once, whatever the configured buffer size
+
+        private final InputStream source;
+        private final Deflater deflater;
+        private final boolean gzip;
+        private final CRC32 crc = new CRC32();
+        private final byte[] input = new byte[IoUtils.getBufferSize()];
+        private final byte[] single = new byte[1];
+        private final byte[] output = new byte[Math.max(GZIP_HEADER.length, IoUtils.getBufferSize())];
+        private int position;
+        private int limit;
+        private boolean trailed;
+
+        private CompressingInputStream(final InputStream source, final Compression compression) {
+            this.source = source;
+            this.gzip = compression.encoding == Encoding.GZIP;
+            this.deflater = new Deflater(compression.level, gzip);
+
+            if (gzip) {
+                System.arraycopy(GZIP_HEADER, 0, output, 0, GZIP_HEADER.length);
+                limit = GZIP_HEADER.length;
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            return read(single, 0, 1) == -1 ? -1 : single[0] & 0xff;
+        }
+
+        @Override
+        public int read(final byte[] bytes, final int off, final int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+
+            while (position == limit) {
+                if (!fill()) {
+                    return -1;
+                }
+            }
+
+            final int count = Math.min(len, limit - position);
+            System.arraycopy(output, position, bytes, off, count);
+            position += count;
+            return count;
+        }
+
+        private boolean fill() throws IOException {
+            position = 0;
+            limit = 0;
+
+            if (!deflater.finished()) {
+                if (deflater.needsInput()) {
+                    final int read = source.read(input);
+                    if (read == -1) {
+                        deflater.finish();
+                    } else {
+                        crc.update(input, 0, read);
+                        deflater.setInput(input, 0, read);
+                    }
+                }
+
+                limit = deflater.deflate(output, 0, output.length);
+                return true;
+
+            } else if (gzip && !trailed) {
+                trailed = true;
+                littleEndian(crc.getValue(), 0);
+                littleEndian(deflater.getBytesRead(), 4);
+                limit = 8;
+                return true;
+            }
+
+            return false;
+        }
+
+        private void littleEndian(final long value, final int offset) {
+            for (int i = 0; i < 4; i++) {
+                output[offset + i] = (byte) (value >>> (8 * i));
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            deflater.end();
+            source.close();
+        }
+    }
+}
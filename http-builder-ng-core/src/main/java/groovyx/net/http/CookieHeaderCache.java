@@ -0,0 +1,80 @@
+/**
+ * Copyright (C) 2017 HttpBuilder-NG Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package groovyx.net.http;
+
+import java.net.HttpCookie;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Cache of the computed cookie request headers, per scheme, host, port and path. An entry is only used while the cookie store is unmodified, none
+ * of its cookies can have expired and the request is configured with the very same cookie instances, which is the case for cookies configured on
+ * the client rather than on each request.
+ */
+class CookieHeaderCache {
+
+    private static final int MAX_ENTRIES = 1_024;
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private static final class Entry {
+        final List<HttpCookie> configured;
+        final long modifications;
+        final long validUntil;
+        final Map<String, String> headers;
+
+        Entry(final List<HttpCookie> configured, final long modifications, final long validUntil, final Map<String, String> headers) {
+            this.configured = configured;
+            this.modifications = modifications;
+            this.validUntil = validUntil;
+            this.headers = headers;
+        }
+
+        boolean usableFor(final List<HttpCookie> cookies, final NonBlockingCookieStore store) {
+            if (modifications != store.getModifications() || System.currentTimeMillis() >= validUntil || configured.size() != cookies.size()) {
+                return false;
+            }
+
+            for (int i = 0; i < cookies.size(); ++i) {
+                if (configured.get(i) != cookies.get(i)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+    }
+
+    Map<String, String> get(final URI uri, final List<HttpCookie> configured, final NonBlockingCookieStore store) {
+        final Entry entry = entries.get(key(uri));
+        return entry != null && entry.usableFor(configured, store) ? entry.headers : null;
+    }
+
+    void put(final URI uri, final List<HttpCookie> configured, final long modifications, final long validUntil, final Map<String, String> headers) {
+        if (entries.size() >= MAX_ENTRIES) {
+            entries.clear();
+        }
+
+        entries.put(key(uri), new Entry(configured, modifications, validUntil, headers));
+    }
+
+    private static String key(final URI uri) {
+        return uri.getScheme() + "://" + uri.getRawAuthority() + uri.getRawPath();
+    }
+}
@@ -0,0 +1,53 @@
+/**
+ * Copyright (C) 2017 HttpBuilder-NG Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package groovyx.net.http;
+
+/**
+ * Counters exposed by the in-memory and file-backed cookie stores used by the {@link HttpBuilder} implementations. The cookie store of a builder may
+ * be checked for them:
+ *
+ * [source,groovy]
+ * ----
+ * def store = http.cookieStore
+ * if (store instanceof CookieStoreStatistics) {
+ *     println "${store.size} cookies, ${store.evictions} evicted, ${store.expirations} expired"
+ * }
+ * ----
+ */
+public interface CookieStoreStatistics {
+
+    /**
+     * Retrieves the number of cookie entries currently held by the store. A cookie with an explicit domain is held both for its domain and for the
+     * host it was received from.
+     *
+     * @return the number of cookie entries in the store
+     */
+    int getSize();
+
+    /**
+     * Retrieves the number of cookie entries evicted to keep the store within its configured capacity or per-domain limit.
+     *
+     * @return the number of evicted cookie entries
+     */
+    long getEvictions();
+
+    /**
+     * Retrieves the number of cookie entries removed from the store because they had expired.
+     *
+     * @return the number of expired cookie entries
+     */
+    long getExpirations();
+}
@@ -15,16 +15,8 @@
  */
 package groovyx.net.http;
 
-import javax.activation.DataHandler;
-import javax.activation.DataSource;
-import javax.mail.MessagingException;
-import javax.mail.internet.MimeBodyPart;
-import javax.mail.internet.MimeMultipart;
-import java.io.*;
-
 import static groovyx.net.http.ContentTypes.MULTIPART_FORMDATA;
 import static groovyx.net.http.ContentTypes.MULTIPART_MIXED;
-import static java.lang.String.format;
 
 /**
  * Generic content encoders for use with all client implementations. Note that there may be client-specific implementations for some of these (see
@@ -38,89 +30,46 @@ public class CoreEncoders {
      * Encodes multipart/form-data where the body content must be an instance of the {@link MultipartContent} class. Individual parts will be
      * encoded using the encoders available to the {@link ChainedHttpConfig} object.
      *
+     * The body is streamed to the server as it is encoded - `File`, `Path`, `byte[]`, `InputStream` and `Reader` parts are read directly from their
+     * source, and the `Content-Length` of the request is known unless one of the parts is an `InputStream` or `Reader`. The content is sent as
+     * `multipart/mixed`, as it always has been by this encoder.
+     *
      * @param config the chained configuration object
      * @param ts     the server adapter
      */
     public static void multipart(final ChainedHttpConfig config, final ToServer ts) {
-        try {
-            final ChainedHttpConfig.ChainedRequest request = config.getChainedRequest();
-
-            final Object body = request.actualBody();
-            if (!(body instanceof MultipartContent)) {
-                throw new IllegalArgumentException("Multipart body content must be MultipartContent.");
-            }
-
-            final String contentType = request.actualContentType();
-            if (!(contentType.equals(MULTIPART_FORMDATA.getAt(0)) || contentType.equals(MULTIPART_MIXED.getAt(0)))) {
-                throw new IllegalArgumentException("Multipart body content must be multipart/form-data.");
-            }
-
-            final MimeMultipart mimeMultipart = new MimeMultipart();
-
-            for (final MultipartContent.MultipartPart mpe : ((MultipartContent) body).parts()) {
-                mimeMultipart.addBodyPart(part(config, mpe));
-            }
-
-            request.setContentType(mimeMultipart.getContentType());
-
-            final ByteArrayOutputStream bytesOut = new ByteArrayOutputStream();
-            mimeMultipart.writeTo(bytesOut);
-
-            ts.toServer(new ByteArrayInputStream(bytesOut.toByteArray()));
-
-        } catch (IOException | MessagingException ioe) {
-            ioe.printStackTrace();
-        }
-    }
-
-    private static MimeBodyPart part(final ChainedHttpConfig config, final MultipartContent.MultipartPart multipartPart) throws MessagingException {
-        final MimeBodyPart bodyPart = new MimeBodyPart();
-        bodyPart.setDisposition("form-data");
-
-        if (multipartPart.getFileName() != null) {
-            bodyPart.setFileName(multipartPart.getFileName());
-            bodyPart.setHeader("Content-Disposition", format("form-data; name=\"%s\"; filename=\"%s\"", multipartPart.getFieldName(), multipartPart.getFileName()));
-
-        } else {
-            bodyPart.setHeader("Content-Disposition", format("form-data; name=\"%s\"", multipartPart.getFieldName()));
-        }
-
-        bodyPart.setDataHandler(new DataHandler(new EncodedDataSource(config, multipartPart.getContentType(), multipartPart.getContent())));
-        bodyPart.setHeader("Content-Type", multipartPart.getContentType());
-
-        return bodyPart;
+        multipart(config, ts, "multipart/mixed");
     }
 
-    private static class EncodedDataSource implements DataSource {
-
-        private final ChainedHttpConfig config;
-        private final String contentType;
-        private final Object value;
+    /**
+     * Encodes the {@link MultipartContent} body of the request as a stream (see {@link MultipartInputStream}), with the given multipart content type.
+     *
+     * @param config    the chained configuration object
+     * @param ts        the server adapter
+     * @param mediaType the multipart content type sent, without the boundary
+     */
+    static void multipart(final ChainedHttpConfig config, final ToServer ts, final String mediaType) {
+        final ChainedHttpConfig.ChainedRequest request = config.getChainedRequest();
 
-        private EncodedDataSource(final ChainedHttpConfig config, final String contentType, final Object value) {
-            this.config = config;
-            this.contentType = contentType != null ? contentType : "text/plain";
-            this.value = value;
+        final Object body = request.actualBody();
+        if (!(body instanceof MultipartContent)) {
+            throw new IllegalArgumentException("Multipart body content must be MultipartContent.");
         }
 
-        @Override
-        public InputStream getInputStream() throws IOException {
-            return new ByteArrayInputStream(EmbeddedEncoder.encode(config, contentType, value));
+        final String contentType = request.actualContentType();
+        if (!(contentType.equals(MULTIPART_FORMDATA.getAt(0)) || contentType.equals(MULTIPART_MIXED.getAt(0)))) {
+            throw new IllegalArgumentException("Multipart body content must be multipart/form-data.");
         }
 
-        @Override
-        public OutputStream getOutputStream() throws IOException {
-            throw new UnsupportedOperationException("Writing is not supported.");
-        }
+        final MultipartContent content = (MultipartContent) body;
+        final MultipartInputStream inputStream = new MultipartInputStream(config, content);
 
-        @Override
-        public String getContentType() {
-            return contentType;
-        }
+        request.setContentType(mediaType + "; boundary=" + content.boundary());
 
-        @Override
-        public String getName() {
-            return null;
+        if (inputStream.getLength() >= 0) {
+            ts.toServer(inputStream, inputStream.getLength());
+        } else {
+            ts.toServer(inputStream);
         }
     }
 }
@@ -44,8 +44,13 @@ class EmbeddedEncoder {
 
         @Override
         public void toServer(final InputStream inputStream) {
+            toServer(inputStream, -1);
+        }
+
+        @Override
+        public void toServer(final InputStream inputStream, final long contentLength) {
             try {
-                bytes = IoUtils.streamToBytes(inputStream);
+                bytes = IoUtils.streamToBytes(inputStream, contentLength, true);
             }
             catch(IOException e) {
                 throw new TransportingException("Unable to perform embedded encoding", e);
@@ -51,6 +51,16 @@ class FileBackedCookieStore extends NonBlockingCookieStore {
     private volatile boolean live = true;
 
     public FileBackedCookieStore(final File directory, final Executor executor, final Consumer<Throwable> onException) {
+        this(directory, executor, onException, 0, 0);
+    }
+
+    public FileBackedCookieStore(final File directory, final Executor executor, final int capacity, final int perDomain) {
+        this(directory, executor, (t) -> {}, capacity, perDomain);
+    }
+
+    public FileBackedCookieStore(final File directory, final Executor executor, final Consumer<Throwable> onException,
+                                 final int capacity, final int perDomain) {
+        super(capacity, perDomain);
         this.onException = onException;
         ensureUniqueControl(directory);
         this.directory = directory;
@@ -67,12 +77,16 @@ class FileBackedCookieStore extends NonBlockingCookieStore {
         this(directory, executor, (t) -> {});
     }
 
-    private static void ensureUniqueControl(final File directory) {
+    static void ensureUniqueControl(final File directory) {
         if(null != inUse.putIfAbsent(directory, directory)) {
             throw new ConcurrentModificationException(directory + " is already being used by another " +
                                                       "cookie store in this process");
         }
     }
+
+    static void releaseControl(final File directory) {
+        inUse.remove(directory);
+    }
     
     private void withLock(final Key key, final Runnable runner) {
         Object lock = locks[Math.abs(key.hashCode() % NUM_LOCKS)];
@@ -139,7 +153,7 @@ class FileBackedCookieStore extends NonBlockingCookieStore {
         return ret;
     }
     
-    private static String fileName(final Key key) {
+    static String fileName(final Key key) {
         if(key instanceof UriKey) {
             final UriKey uriKey = (UriKey) key;
             return clean(uriKey.host) + clean(uriKey.name) + SUFFIX;
@@ -199,13 +213,13 @@ class FileBackedCookieStore extends NonBlockingCookieStore {
         }
     }
 
-    private void ifNotNull(final Properties props, final String key, final String value) {
+    private static void ifNotNull(final Properties props, final String key, final String value) {
         if(value != null) {
             props.setProperty(key, value);
         }
     }
 
-    private Properties keyProperties(final Key key) {
+    private static Properties keyProperties(final Key key) {
         final Properties props = new Properties();
         props.setProperty("keyType", key.getKeyType());
         if(key instanceof UriKey) {
@@ -215,7 +229,7 @@ class FileBackedCookieStore extends NonBlockingCookieStore {
         return props;
     }
 
-    private Properties toProperties(final Key key, final HttpCookie cookie) {
+    static Properties toProperties(final Key key, final HttpCookie cookie) {
         final Properties props = keyProperties(key);
         
         final Instant expires = key.createdAt.plusSeconds(cookie.getMaxAge());
@@ -239,7 +253,7 @@ class FileBackedCookieStore extends NonBlockingCookieStore {
         return props;
     }
 
-    private Map.Entry<Key,HttpCookie> fromProperties(final Properties props, final HttpCookie cookie) {
+    private static Map.Entry<Key,HttpCookie> fromProperties(final Properties props, final HttpCookie cookie) {
         final String keyType = props.getProperty("keyType");
         if(UriKey.uriKey(keyType)) {
             try {
@@ -255,7 +269,7 @@ class FileBackedCookieStore extends NonBlockingCookieStore {
         }
     }
 
-    private Map.Entry<Key,HttpCookie> fromProperties(final Properties props) {
+    static Map.Entry<Key,HttpCookie> fromProperties(final Properties props) {
         final Instant now = Instant.now();
         final Instant expires = Instant.parse(props.getProperty("expires"));
         if(now.isAfter(expires)) {
@@ -290,10 +304,12 @@ class FileBackedCookieStore extends NonBlockingCookieStore {
         return fromProperties(props, cookie);
     }
 
+    @Override
     public void shutdown() {
         //not necessary to call, but can be useful
         live = false;
-        inUse.remove(directory);
+        stopSweeping();
+        releaseControl(directory);
     }
 
     public void assertLive() {
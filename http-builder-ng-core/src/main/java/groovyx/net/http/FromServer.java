@@ -16,6 +16,7 @@
 package groovyx.net.http;
 
 import java.io.BufferedReader;
+import java.io.Closeable;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
@@ -43,6 +44,15 @@ public interface FromServer {
 
     public static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
 
+    /**
+     * Implemented by parsed response content which keeps reading from the response after the parser has returned, such as a lazy sequence of
+     * records. When such content is handed to the caller, the response is not finished by the response handling; closing the content must
+     * call {@link FromServer#finish()} instead. Content which is not handed to the caller (e.g. when a response action returns something else, or
+     * fails) is closed by the response handling.
+     */
+    interface Streamed extends Closeable {
+    }
+
     /**
      * Defines the interface to the HTTP headers contained in the response. (see also
      * https://en.wikipedia.org/wiki/List_of_HTTP_header_fields[List of HTTP Header Fields])
@@ -187,6 +197,27 @@ public interface FromServer {
             return headers.stream().filter((h) -> h.getKey().equalsIgnoreCase(key)).findFirst().orElse(null);
         }
 
+        /**
+         * Used to find the length of the content from the `Content-Length` header in a {@link Collection} of `Header`s. A malformed (or negative)
+         * value is treated as an unknown length.
+         *
+         * @param headers the {@link Collection} of `Header`s to be searched
+         * @return the content length (or `-1` if it is not known)
+         */
+        public static long contentLength(final Collection<Header<?>> headers) {
+            final Header<?> header = find(headers, "Content-Length");
+            if (header == null) {
+                return -1L;
+            }
+
+            try {
+                final long length = (Long) header.getParsed();
+                return length < 0 ? -1L : length;
+            } catch (NumberFormatException e) {
+                return -1L;
+            }
+        }
+
         /**
          * Type representing headers that are simple key/values, with no parseable structure in the value. For example: `Accept-Ranges: bytes`.
          */
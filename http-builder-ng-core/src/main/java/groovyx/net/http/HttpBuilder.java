@@ -18,6 +18,8 @@ package groovyx.net.http;
 import groovy.lang.Closure;
 import groovy.lang.DelegatesTo;
 import org.codehaus.groovy.runtime.MethodClosure;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.Closeable;
 import java.io.File;
@@ -27,9 +29,11 @@ import java.net.*;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 import static java.util.Collections.*;
 
@@ -123,7 +127,7 @@ public abstract class HttpBuilder implements Closeable {
      * @param closure the configuration closure (delegated to {@link HttpObjectConfig})
      * @return the configured `HttpBuilder`
      */
-    public static HttpBuilder configure(@DelegatesTo(HttpObjectConfig.class) final Closure closure) {
+    public static HttpBuilder configure(@DelegatesTo(HttpObjectConfig.class) final Closure<?> closure) {
         return configure(factory, closure);
     }
 
@@ -147,7 +151,7 @@ public abstract class HttpBuilder implements Closeable {
      * @param closure the configuration closure (delegated to {@link HttpObjectConfig})
      * @return the configured `HttpBuilder`
      */
-    public static HttpBuilder configure(final Function<HttpObjectConfig, ? extends HttpBuilder> factory, @DelegatesTo(HttpObjectConfig.class) final Closure closure) {
+    public static HttpBuilder configure(final Function<HttpObjectConfig, ? extends HttpBuilder> factory, @DelegatesTo(HttpObjectConfig.class) final Closure<?> closure) {
         HttpObjectConfig impl = new HttpObjectConfigImpl();
         closure.setDelegate(impl);
         closure.setResolveStrategy(Closure.DELEGATE_FIRST);
@@ -228,23 +232,52 @@ public abstract class HttpBuilder implements Closeable {
 
     private final EnumMap<HttpVerb, BiFunction<ChainedHttpConfig, Function<ChainedHttpConfig, Object>, Object>> interceptors;
     private final CookieManager cookieManager;
+    private final CookieHeaderCache cookieHeaders = new CookieHeaderCache();
+    private final ResponseCache responseCache;
+    private final AtomicBoolean cookieStoreOpen = new AtomicBoolean(true);
 
     protected HttpBuilder(final HttpObjectConfig objectConfig) {
         this.interceptors = new EnumMap<>(objectConfig.getExecution().getInterceptors());
         this.cookieManager = new CookieManager(makeCookieStore(objectConfig), CookiePolicy.ACCEPT_ALL);
+        this.responseCache = objectConfig.getClient().getResponseCache();
     }
 
     private CookieStore makeCookieStore(final HttpObjectConfig objectConfig) {
-        if (objectConfig.getClient().getCookiesEnabled()) {
-            final File folder = objectConfig.getClient().getCookieFolder();
-            return (folder == null ?
-                new NonBlockingCookieStore() :
-                new FileBackedCookieStore(folder, objectConfig.getExecution().getExecutor()));
+        final HttpObjectConfig.Client client = objectConfig.getClient();
+        if (client.getCookiesEnabled()) {
+            final File folder = client.getCookieFolder();
+            final NonBlockingCookieStore store;
+            if (folder == null) {
+                store = new NonBlockingCookieStore(client.getCookieStoreCapacity(), client.getCookiesPerDomain());
+            } else if (client.getCookieJournal()) {
+                store = new JournaledCookieStore(folder, client.getCookieFlushInterval(), client.getCookieFsync(),
+                                                 client.getCookieStoreCapacity(), client.getCookiesPerDomain());
+            } else {
+                store = new FileBackedCookieStore(folder, objectConfig.getExecution().getExecutor(),
+                                                  client.getCookieStoreCapacity(), client.getCookiesPerDomain());
+            }
+
+            if (client.getCookieSweepInterval() != null) {
+                store.sweepEvery(client.getCookieSweepInterval());
+            }
+
+            return store;
         } else {
             return NullCookieStore.instance();
         }
     }
 
+    /**
+     * Shuts down the cookie store of this builder: changes queued by a persistent store are flushed, its cookie folder is released and the sweeping
+     * of expired cookies is stopped. Client implementations call this from their `close()` method; only the first call has an effect.
+     */
+    protected void closeCookieStore() {
+        final CookieStore cookieStore = cookieManager.getCookieStore();
+        if (cookieStore instanceof NonBlockingCookieStore && cookieStoreOpen.compareAndSet(true, false)) {
+            ((NonBlockingCookieStore) cookieStore).shutdown();
+        }
+    }
+
     protected CookieManager getCookieManager() {
         return cookieManager;
     }
@@ -263,18 +296,37 @@ public abstract class HttpBuilder implements Closeable {
 
         try {
             final URI uri = cr.getUri().toURI();
-            for (HttpCookie cookie : cr.actualCookies(new ArrayList<>())) {
+            final List<HttpCookie> configured = cr.actualCookies(new ArrayList<>());
+
+            final CookieStore cookieStore = cookieManager.getCookieStore();
+            final NonBlockingCookieStore store = cookieStore instanceof NonBlockingCookieStore ? (NonBlockingCookieStore) cookieStore : null;
+            if (store != null) {
+                final Map<String, String> cached = cookieHeaders.get(uri, configured, store);
+                if (cached != null) {
+                    return cached;
+                }
+            }
+
+            for (HttpCookie cookie : configured) {
                 final String keyName = clientConfig.getCookieVersion() == 0 ? "Set-Cookie" : "Set-Cookie2";
                 final Map<String, List<String>> toPut = singletonMap(keyName, singletonList(cookie.toString()));
                 cookieManager.put(cr.getUri().forCookie(cookie), toPut);
             }
 
+            final long modifications = store != null ? store.getModifications() : 0L;
+            final long validUntil = store != null ? store.nextExpiration() : 0L;
+
             Map<String, List<String>> found = cookieManager.get(uri, emptyMap());
             for (Map.Entry<String, List<String>> e : found.entrySet()) {
                 if (e.getValue() != null && !e.getValue().isEmpty()) {
                     tmp.put(e.getKey(), String.join("; ", e.getValue()));
                 }
             }
+
+            if (store != null) {
+                tmp = unmodifiableMap(tmp);
+                cookieHeaders.put(uri, configured, modifications, validUntil, tmp);
+            }
         } catch (IOException ioe) {
             throw new TransportingException(ioe);
         }
@@ -343,7 +395,7 @@ public abstract class HttpBuilder implements Closeable {
      * @return the resulting content cast to the specified type
      */
     public <T> T get(final Class<T> type, @DelegatesTo(HttpConfig.class) final Closure closure) {
-        return type.cast(interceptors.get(HttpVerb.GET).apply(configureRequest(type, HttpVerb.GET, closure), this::doGet));
+        return type.cast(interceptors.get(HttpVerb.GET).apply(configureRequest(type, HttpVerb.GET, closure), this::cachedGet));
     }
 
     /**
@@ -369,7 +421,7 @@ public abstract class HttpBuilder implements Closeable {
      * @return the resulting content cast to the specified type
      */
     public <T> T get(final Class<T> type, final Consumer<HttpConfig> configuration) {
-        return type.cast(interceptors.get(HttpVerb.GET).apply(configureRequest(type, HttpVerb.GET, configuration), this::doGet));
+        return type.cast(interceptors.get(HttpVerb.GET).apply(configureRequest(type, HttpVerb.GET, configuration), this::cachedGet));
     }
 
     /**
@@ -388,7 +440,7 @@ public abstract class HttpBuilder implements Closeable {
      * @return a {@link CompletableFuture} for retrieving the resulting content
      */
     public CompletableFuture<Object> getAsync() {
-        return CompletableFuture.supplyAsync(() -> get(), getExecutor());
+        return getAsync(NO_OP);
     }
 
     /**
@@ -412,7 +464,7 @@ public abstract class HttpBuilder implements Closeable {
      * @return the resulting content
      */
     public CompletableFuture<Object> getAsync(@DelegatesTo(HttpConfig.class) final Closure closure) {
-        return CompletableFuture.supplyAsync(() -> get(closure), getExecutor());
+        return getAsync(Object.class, closure);
     }
 
     /**
@@ -438,7 +490,7 @@ public abstract class HttpBuilder implements Closeable {
      * @return the resulting content wrapped in a {@link CompletableFuture}
      */
     public CompletableFuture<Object> getAsync(final Consumer<HttpConfig> configuration) {
-        return CompletableFuture.supplyAsync(() -> get(configuration), getExecutor());
+        return getAsync(Object.class, configuration);
     }
 
     /**
@@ -463,7 +515,7 @@ public abstract class HttpBuilder implements Closeable {
      * @return the {@link CompletableFuture} for the resulting content cast to the specified type
      */
     public <T> CompletableFuture<T> getAsync(final Class<T> type, @DelegatesTo(HttpConfig.class) final Closure closure) {
-        return CompletableFuture.supplyAsync(() -> get(type, closure), getExecutor());
+        return async(type, HttpVerb.GET, () -> configureRequest(type, HttpVerb.GET, closure));
     }
 
     /**
@@ -487,7 +539,7 @@ public abstract class HttpBuilder implements Closeable {
      * @return the {@link CompletableFuture} for the resulting content cast to the specified type
      */
     public <T> CompletableFuture<T> getAsync(final Class<T> type, final Consumer<HttpConfig> configuration) {
-        return CompletableFuture.supplyAsync(() -> get(type, configuration), getExecutor());
+        return async(type, HttpVerb.GET, () -> configureRequest(type, HttpVerb.GET, configuration));
     }
 
     /**
@@ -578,7 +630,7 @@ public abstract class HttpBuilder implements Closeable {
      * @return a {@link CompletableFuture} for retrieving the resulting content
      */
     public CompletableFuture<Object> headAsync() {
-        return CompletableFuture.supplyAsync(() -> head(), getExecutor());
+        return headAsync(NO_OP);
     }
 
     /**
@@ -603,7 +655,7 @@ public abstract class HttpBuilder implements Closeable {
      * @return the resulting content
      */
     public CompletableFuture<Object> headAsync(@DelegatesTo(HttpConfig.class) final Closure closure) {
-        return CompletableFuture.supplyAsync(() -> head(closure), getExecutor());
+        return headAsync(Object.class, closure);
     }
 
     /**
@@ -629,7 +681,7 @@ public abstract class HttpBuilder implements Closeable {
      * @return the resulting content wrapped in a {@link CompletableFuture}
      */
     public CompletableFuture<Object> headAsync(final Consumer<HttpConfig> configuration) {
-        return CompletableFuture.supplyAsync(() -> head(configuration), getExecutor());
+        return headAsync(Object.class, configuration);
     }
 
     /**
@@ -657,7 +709,7 @@ public abstract class HttpBuilder implements Closeable {
      * @return a {@link CompletableFuture} which may be used to access the resulting content (if present)
      */
     public <T> CompletableFuture<T> headAsync(final Class<T> type, @DelegatesTo(HttpConfig.class) final Closure closure) {
-        return CompletableFuture.supplyAsync(() -> head(type, closure), getExecutor());
+        return async(type, HttpVerb.HEAD, () -> configureRequest(type, HttpVerb.HEAD, closure));
     }
 
     /**
@@ -683,7 +735,7 @@ public abstract class HttpBuilder implements Closeable {
      * @return the resulting content cast to the specified type wrapped in a {@link CompletableFuture}
      */
     public <T> CompletableFuture<T> headAsync(final Class<T> type, final Consumer<HttpConfig> configuration) {
-        return CompletableFuture.supplyAsync(() -> head(type, configuration), getExecutor());
+        return async(type, HttpVerb.HEAD, () -> configureRequest(type, HttpVerb.HEAD, configuration));
     }
 
     /**
@@ -774,7 +826,7 @@ public abstract class HttpBuilder implements Closeable {
      * @return the {@link CompletableFuture} containing the future access to the response
      */
     public CompletableFuture<Object> postAsync() {
-        return CompletableFuture.supplyAsync(() -> post(NO_OP), getExecutor());
+        return postAsync(NO_OP);
     }
 
     /**
@@ -799,7 +851,7 @@ public abstract class HttpBuilder implements Closeable {
      * @return the {@link CompletableFuture} containing the future result data
      */
     public CompletableFuture<Object> postAsync(@DelegatesTo(HttpConfig.class) final Closure closure) {
-        return CompletableFuture.supplyAsync(() -> post(closure), getExecutor());
+        return postAsync(Object.class, closure);
     }
 
     /**
@@ -825,7 +877,7 @@ public abstract class HttpBuilder implements Closeable {
      * @return the resulting content wrapped in a {@link CompletableFuture}
      */
     public CompletableFuture<Object> postAsync(final Consumer<HttpConfig> configuration) {
-        return CompletableFuture.supplyAsync(() -> post(configuration), getExecutor());
+        return postAsync(Object.class, configuration);
     }
 
     /**
@@ -854,7 +906,7 @@ public abstract class HttpBuilder implements Closeable {
      * @return the {@link CompletableFuture} containing the result of the request
      */
     public <T> CompletableFuture<T> postAsync(final Class<T> type, @DelegatesTo(HttpConfig.class) final Closure closure) {
-        return CompletableFuture.supplyAsync(() -> post(type, closure), getExecutor());
+        return async(type, HttpVerb.POST, () -> configureRequest(type, HttpVerb.POST, closure));
     }
 
     /**
@@ -881,7 +933,7 @@ public abstract class HttpBuilder implements Closeable {
      * @return the resulting content cast to the specified type, wrapped in a {@link CompletableFuture}
      */
     public <T> CompletableFuture<T> postAsync(final Class<T> type, final Consumer<HttpConfig> configuration) {
-        return CompletableFuture.supplyAsync(() -> post(type, configuration), getExecutor());
+        return async(type, HttpVerb.POST, () -> configureRequest(type, HttpVerb.POST, configuration));
     }
 
     /**
@@ -972,7 +1024,7 @@ public abstract class HttpBuilder implements Closeable {
      * @return the {@link CompletableFuture} containing the future access to the response
      */
     public CompletableFuture<Object> putAsync() {
-        return CompletableFuture.supplyAsync(() -> put(NO_OP), getExecutor());
+        return putAsync(NO_OP);
     }
 
     /**
@@ -997,7 +1049,7 @@ public abstract class HttpBuilder implements Closeable {
      * @return the {@link CompletableFuture} containing the future result data
      */
     public CompletableFuture<Object> putAsync(@DelegatesTo(HttpConfig.class) final Closure closure) {
-        return CompletableFuture.supplyAsync(() -> put(closure), getExecutor());
+        return putAsync(Object.class, closure);
     }
 
     /**
@@ -1023,7 +1075,7 @@ public abstract class HttpBuilder implements Closeable {
      * @return the resulting content wrapped in a {@link CompletableFuture}
      */
     public CompletableFuture<Object> putAsync(final Consumer<HttpConfig> configuration) {
-        return CompletableFuture.supplyAsync(() -> put(configuration), getExecutor());
+        return putAsync(Object.class, configuration);
     }
 
     /**
@@ -1052,7 +1104,7 @@ public abstract class HttpBuilder implements Closeable {
      * @return the {@link CompletableFuture} containing the result of the request
      */
     public <T> CompletableFuture<T> putAsync(final Class<T> type, @DelegatesTo(HttpConfig.class) final Closure closure) {
-        return CompletableFuture.supplyAsync(() -> put(type, closure), getExecutor());
+        return async(type, HttpVerb.PUT, () -> configureRequest(type, HttpVerb.PUT, closure));
     }
 
     /**
@@ -1079,7 +1131,7 @@ public abstract class HttpBuilder implements Closeable {
      * @return the resulting content cast to the specified type, wrapped in a {@link CompletableFuture}
      */
     public <T> CompletableFuture<T> putAsync(final Class<T> type, final Consumer<HttpConfig> configuration) {
-        return CompletableFuture.supplyAsync(() -> put(type, configuration), getExecutor());
+        return async(type, HttpVerb.PUT, () -> configureRequest(type, HttpVerb.PUT, configuration));
     }
 
     /**
@@ -1168,7 +1220,7 @@ public abstract class HttpBuilder implements Closeable {
      * @return the {@link CompletableFuture} containing the future access to the response
      */
     public CompletableFuture<Object> deleteAsync() {
-        return CompletableFuture.supplyAsync(() -> delete(NO_OP), getExecutor());
+        return deleteAsync(NO_OP);
     }
 
     /**
@@ -1191,7 +1243,7 @@ public abstract class HttpBuilder implements Closeable {
      * @return the {@link CompletableFuture} containing the future result data
      */
     public CompletableFuture<Object> deleteAsync(@DelegatesTo(HttpConfig.class) final Closure closure) {
-        return CompletableFuture.supplyAsync(() -> delete(closure), getExecutor());
+        return deleteAsync(Object.class, closure);
     }
 
     /**
@@ -1217,7 +1269,7 @@ public abstract class HttpBuilder implements Closeable {
      * @return the {@link CompletableFuture} containing the result of the request
      */
     public CompletableFuture<Object> deleteAsync(final Consumer<HttpConfig> configuration) {
-        return CompletableFuture.supplyAsync(() -> delete(configuration), getExecutor());
+        return deleteAsync(Object.class, configuration);
     }
 
     /**
@@ -1245,7 +1297,7 @@ public abstract class HttpBuilder implements Closeable {
      * @return the {@link CompletableFuture} containing the result of the request
      */
     public <T> CompletableFuture<T> deleteAsync(final Class<T> type, @DelegatesTo(HttpConfig.class) final Closure closure) {
-        return CompletableFuture.supplyAsync(() -> delete(type, closure), getExecutor());
+        return async(type, HttpVerb.DELETE, () -> configureRequest(type, HttpVerb.DELETE, closure));
     }
 
     /**
@@ -1272,7 +1324,7 @@ public abstract class HttpBuilder implements Closeable {
      * @return the {@link CompletableFuture} containing the result of the request
      */
     public <T> CompletableFuture<T> deleteAsync(final Class<T> type, final Consumer<HttpConfig> configuration) {
-        return CompletableFuture.supplyAsync(() -> delete(type, configuration), getExecutor());
+        return async(type, HttpVerb.DELETE, () -> configureRequest(type, HttpVerb.DELETE, configuration));
     }
 
     /**
@@ -1639,7 +1691,7 @@ public abstract class HttpBuilder implements Closeable {
      * @return a {@link CompletableFuture} for retrieving the resulting content
      */
     public CompletableFuture<Object> patchAsync() {
-        return CompletableFuture.supplyAsync(() -> patch(), getExecutor());
+        return patchAsync(NO_OP);
     }
 
     /**
@@ -1663,7 +1715,7 @@ public abstract class HttpBuilder implements Closeable {
      * @return the resulting content
      */
     public CompletableFuture<Object> patchAsync(@DelegatesTo(HttpConfig.class) final Closure closure) {
-        return CompletableFuture.supplyAsync(() -> patch(closure), getExecutor());
+        return patchAsync(Object.class, closure);
     }
 
     /**
@@ -1689,7 +1741,7 @@ public abstract class HttpBuilder implements Closeable {
      * @return the resulting content wrapped in a {@link CompletableFuture}
      */
     public CompletableFuture<Object> patchAsync(final Consumer<HttpConfig> configuration) {
-        return CompletableFuture.supplyAsync(() -> patch(configuration), getExecutor());
+        return patchAsync(Object.class, configuration);
     }
 
     /**
@@ -1714,7 +1766,7 @@ public abstract class HttpBuilder implements Closeable {
      * @return the {@link CompletableFuture} for the resulting content cast to the specified type
      */
     public <T> CompletableFuture<T> patchAsync(final Class<T> type, @DelegatesTo(HttpConfig.class) final Closure closure) {
-        return CompletableFuture.supplyAsync(() -> patch(type, closure), getExecutor());
+        return async(type, HttpVerb.PATCH, () -> configureRequest(type, HttpVerb.PATCH, closure));
     }
 
     /**
@@ -1738,7 +1790,7 @@ public abstract class HttpBuilder implements Closeable {
      * @return the {@link CompletableFuture} for the resulting content cast to the specified type
      */
     public <T> CompletableFuture<T> patchAsync(final Class<T> type, final Consumer<HttpConfig> configuration) {
-        return CompletableFuture.supplyAsync(() -> patch(type, configuration), getExecutor());
+        return async(type, HttpVerb.PATCH, () -> configureRequest(type, HttpVerb.PATCH, configuration));
     }
 
     /**
@@ -1875,7 +1927,7 @@ public abstract class HttpBuilder implements Closeable {
      * @return a {@link CompletableFuture} for retrieving the resulting content
      */
     public CompletableFuture<Object> optionsAsync() {
-        return CompletableFuture.supplyAsync(() -> options(), getExecutor());
+        return optionsAsync(NO_OP);
     }
 
     /**
@@ -1900,7 +1952,7 @@ public abstract class HttpBuilder implements Closeable {
      * @return the resulting content
      */
     public CompletableFuture<Object> optionsAsync(@DelegatesTo(HttpConfig.class) final Closure closure) {
-        return CompletableFuture.supplyAsync(() -> options(closure), getExecutor());
+        return optionsAsync(Object.class, closure);
     }
 
     /**
@@ -1926,7 +1978,7 @@ public abstract class HttpBuilder implements Closeable {
      * @return the resulting content wrapped in a {@link CompletableFuture}
      */
     public CompletableFuture<Object> optionsAsync(final Consumer<HttpConfig> configuration) {
-        return CompletableFuture.supplyAsync(() -> options(configuration), getExecutor());
+        return optionsAsync(Object.class, configuration);
     }
 
     /**
@@ -1954,7 +2006,7 @@ public abstract class HttpBuilder implements Closeable {
      * @return a {@link CompletableFuture} which may be used to access the resulting content (if present)
      */
     public <T> CompletableFuture<T> optionsAsync(final Class<T> type, @DelegatesTo(HttpConfig.class) final Closure closure) {
-        return CompletableFuture.supplyAsync(() -> options(type, closure), getExecutor());
+        return async(type, HttpVerb.OPTIONS, () -> configureRequest(type, HttpVerb.OPTIONS, closure));
     }
 
     /**
@@ -1980,7 +2032,7 @@ public abstract class HttpBuilder implements Closeable {
      * @return the resulting content cast to the specified type wrapped in a {@link CompletableFuture}
      */
     public <T> CompletableFuture<T> optionsAsync(final Class<T> type, final Consumer<HttpConfig> configuration) {
-        return CompletableFuture.supplyAsync(() -> options(type, configuration), getExecutor());
+        return async(type, HttpVerb.OPTIONS, () -> configureRequest(type, HttpVerb.OPTIONS, configuration));
     }
 
     /**
@@ -2114,7 +2166,7 @@ public abstract class HttpBuilder implements Closeable {
      * @return a {@link CompletableFuture} for retrieving the resulting content
      */
     public CompletableFuture<Object> traceAsync() {
-        return CompletableFuture.supplyAsync(() -> trace(), getExecutor());
+        return traceAsync(NO_OP);
     }
 
     /**
@@ -2137,7 +2189,7 @@ public abstract class HttpBuilder implements Closeable {
      * @return the resulting content
      */
     public CompletableFuture<Object> traceAsync(@DelegatesTo(HttpConfig.class) final Closure closure) {
-        return CompletableFuture.supplyAsync(() -> trace(closure), getExecutor());
+        return traceAsync(Object.class, closure);
     }
 
     /**
@@ -2163,7 +2215,7 @@ public abstract class HttpBuilder implements Closeable {
      * @return the resulting content wrapped in a {@link CompletableFuture}
      */
     public CompletableFuture<Object> traceAsync(final Consumer<HttpConfig> configuration) {
-        return CompletableFuture.supplyAsync(() -> trace(configuration), getExecutor());
+        return traceAsync(Object.class, configuration);
     }
 
     /**
@@ -2190,7 +2242,7 @@ public abstract class HttpBuilder implements Closeable {
      * @return a {@link CompletableFuture} which may be used to access the resulting content (if present)
      */
     public <T> CompletableFuture<T> traceAsync(final Class<T> type, @DelegatesTo(HttpConfig.class) final Closure closure) {
-        return CompletableFuture.supplyAsync(() -> trace(type, closure), getExecutor());
+        return async(type, HttpVerb.TRACE, () -> configureRequest(type, HttpVerb.TRACE, closure));
     }
 
     /**
@@ -2216,7 +2268,7 @@ public abstract class HttpBuilder implements Closeable {
      * @return the resulting content cast to the specified type wrapped in a {@link CompletableFuture}
      */
     public <T> CompletableFuture<T> traceAsync(final Class<T> type, final Consumer<HttpConfig> configuration) {
-        return CompletableFuture.supplyAsync(() -> trace(type, configuration), getExecutor());
+        return async(type, HttpVerb.TRACE, () -> configureRequest(type, HttpVerb.TRACE, configuration));
     }
 
     /**
@@ -2251,6 +2303,94 @@ public abstract class HttpBuilder implements Closeable {
 
     public abstract Executor getExecutor();
 
+    /**
+     * Executes the fully configured request asynchronously. The default implementation runs the blocking `doXxx` method matching the configured verb
+     * on the configured {@link Executor}; client implementations with a native asynchronous API should override this method so that no thread is held
+     * while waiting on the network.
+     *
+     * Implementations must complete the returned future with the result of the response handling, or exceptionally with the exception produced by
+     * the configured exception handler (see {@link #completeExceptionally(ChainedHttpConfig, CompletableFuture, Exception)}).
+     *
+     * @param config the request configuration
+     * @return the {@link CompletableFuture} for the resulting content
+     */
+    protected CompletableFuture<Object> doAsync(final ChainedHttpConfig config) {
+        final Function<ChainedHttpConfig, Object> func = verbFunction(config.getChainedRequest().getVerb());
+        return CompletableFuture.supplyAsync(() -> func.apply(config), getExecutor());
+    }
+
+    /**
+     * Completes the given future for a request that failed with the given exception. The configured exception handler is applied; when it returns
+     * a value, the future completes normally with that value, when it throws, the future completes exceptionally.
+     *
+     * @param config the request configuration
+     * @param future the future to be completed
+     * @param e the exception thrown by the request
+     */
+    protected void completeExceptionally(final ChainedHttpConfig config, final CompletableFuture<Object> future, final Exception e) {
+        try {
+            future.complete(handleException(config.getChainedResponse(), e));
+        } catch (Throwable t) {
+            future.completeExceptionally(t);
+        }
+    }
+
+    private <T> CompletableFuture<T> async(final Class<T> type, final HttpVerb verb, final Supplier<ChainedHttpConfig> configurer) {
+        final ChainedHttpConfig config;
+        try {
+            config = configurer.get();
+        } catch (Exception e) {
+            final CompletableFuture<T> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+
+        final BiFunction<ChainedHttpConfig, Function<ChainedHttpConfig, Object>, Object> interceptor = interceptors.get(verb);
+        if (interceptor == HttpObjectConfigImpl.NULL_INTERCEPTOR) {
+            final ResponseCache.Exchange exchange = verb == HttpVerb.GET ? ResponseCache.exchange(config) : null;
+            if (exchange != null && exchange.isFresh()) {
+                return CompletableFuture.supplyAsync(() -> type.cast(ResponseHandlerFunction.HANDLER_FUNCTION.apply(config, exchange.cached())), getExecutor());
+            }
+
+            return doAsync(config).thenApply(type::cast);
+        } else {
+            // an interceptor wraps the blocking call, so it must run on the executor
+            return CompletableFuture.supplyAsync(() -> type.cast(interceptor.apply(config, verbFunction(verb))), getExecutor());
+        }
+    }
+
+    private Object cachedGet(final ChainedHttpConfig config) {
+        final ResponseCache.Exchange exchange = responseCache != null ? ResponseCache.exchange(config) : null;
+        if (exchange != null && exchange.isFresh()) {
+            return ResponseHandlerFunction.HANDLER_FUNCTION.apply(config, exchange.cached());
+        }
+
+        return doGet(config);
+    }
+
+    private Function<ChainedHttpConfig, Object> verbFunction(final HttpVerb verb) {
+        switch (verb) {
+            case GET:
+                return this::cachedGet;
+            case HEAD:
+                return this::doHead;
+            case POST:
+                return this::doPost;
+            case PUT:
+                return this::doPut;
+            case DELETE:
+                return this::doDelete;
+            case PATCH:
+                return this::doPatch;
+            case OPTIONS:
+                return this::doOptions;
+            case TRACE:
+                return this::doTrace;
+            default:
+                throw new IllegalArgumentException("Unsupported verb: " + verb);
+        }
+    }
+
     private ChainedHttpConfig configureRequest(final Class<?> type, final HttpVerb verb, final Closure closure) {
         final HttpConfigs.BasicHttpConfig myConfig = HttpConfigs.requestLevel(getObjectConfig());
         closure.setDelegate(myConfig);
@@ -2260,6 +2400,10 @@ public abstract class HttpBuilder implements Closeable {
         myConfig.getChainedRequest().setVerb(verb);
         myConfig.getChainedResponse().setType(type);
 
+        if (responseCache != null) {
+            responseCache.prepare(myConfig);
+        }
+
         return myConfig;
     }
 
@@ -2270,6 +2414,10 @@ public abstract class HttpBuilder implements Closeable {
         myConfig.getChainedRequest().setVerb(verb);
         myConfig.getChainedResponse().setType(type);
 
+        if (responseCache != null) {
+            responseCache.prepare(myConfig);
+        }
+
         return myConfig;
     }
 
@@ -2296,16 +2444,42 @@ public abstract class HttpBuilder implements Closeable {
 
         static final ResponseHandlerFunction HANDLER_FUNCTION = new ResponseHandlerFunction();
 
+        private static final Logger log = LoggerFactory.getLogger(ResponseHandlerFunction.class);
+
         @Override
-        public Object apply(ChainedHttpConfig requestConfig, FromServer fromServer) {
+        public Object apply(ChainedHttpConfig requestConfig, FromServer received) {
+            FromServer fromServer = received;
+            Object parsed = null;
+            boolean handedOver = false;
             try {
+                fromServer = ResponseCache.complete(requestConfig, received);
+
                 final BiFunction<ChainedHttpConfig, FromServer, Object> parser = requestConfig.findParser(fromServer.getContentType());
                 final BiFunction<FromServer, Object, ?> action = requestConfig.getChainedResponse().actualAction(fromServer.getStatusCode());
 
-                return action.apply(fromServer, fromServer.getHasBody() ? parser.apply(requestConfig, fromServer) : null);
+                parsed = fromServer.getHasBody() ? ResponseCache.parse(requestConfig, fromServer, parser) : null;
+                final Object result = action.apply(fromServer, parsed);
+
+                // streamed content returned to the caller finishes the response when it is closed
+                handedOver = parsed instanceof FromServer.Streamed && result == parsed;
+                return result;
 
             } finally {
-                fromServer.finish();
+                if (!handedOver) {
+                    if (parsed instanceof FromServer.Streamed) {
+                        closeQuietly((FromServer.Streamed) parsed);
+                    }
+
+                    fromServer.finish();
+                }
+            }
+        }
+
+        private static void closeQuietly(final Closeable closeable) {
+            try {
+                closeable.close();
+            } catch (IOException | RuntimeException e) {
+                log.warn("Unable to close streamed response content", e);
             }
         }
     }
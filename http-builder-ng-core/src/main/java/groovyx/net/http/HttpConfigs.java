@@ -34,9 +34,8 @@ import java.util.Date;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Function;
@@ -52,9 +51,13 @@ import static groovyx.net.http.ContentTypes.URLENC;
 import static groovyx.net.http.ContentTypes.XML;
 import static groovyx.net.http.Safe.ifClassIsLoaded;
 import static groovyx.net.http.Safe.register;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableMap;
 
 public class HttpConfigs {
 
+    private static final String ANY = ContentTypes.ANY.getAt(0);
+
     public static class BasicAuth implements Auth {
         private String user;
         private String password;
@@ -91,26 +94,38 @@ public class HttpConfigs {
         volatile String password;
         volatile boolean preemptive;
         volatile AuthType authType;
+        private final AtomicInteger modifications;
 
-        public ThreadSafeAuth() { }
+        public ThreadSafeAuth() {
+            this.modifications = new AtomicInteger();
+        }
 
         public ThreadSafeAuth(final BasicAuth toCopy) {
+            this();
             this.user = toCopy.user;
             this.password = toCopy.password;
             this.preemptive = toCopy.preemptive;
             this.authType = toCopy.authType;
         }
 
+        ThreadSafeAuth(final AtomicInteger modifications) {
+            this.modifications = modifications;
+        }
+
         public void basic(final String user, final String password, final boolean preemptive) {
-            this.user = user;
-            this.password = password;
-            this.preemptive = preemptive;
-            this.authType = AuthType.BASIC;
+            set(user, password, preemptive, AuthType.BASIC);
         }
 
         public void digest(final String user, final String password, final boolean preemptive) {
-            basic(user, password, preemptive);
-            this.authType = AuthType.DIGEST;
+            set(user, password, preemptive, AuthType.DIGEST);
+        }
+
+        private void set(final String user, final String password, final boolean preemptive, final AuthType authType) {
+            this.user = user;
+            this.password = password;
+            this.preemptive = preemptive;
+            this.authType = authType;
+            modifications.incrementAndGet();
         }
 
         public String getUser() {
@@ -283,21 +298,25 @@ public class HttpConfigs {
         }
     }
 
+    /**
+     * Thread-safe request configuration - every modification, including those made through the returned headers, cookies, encoders, auth and URI,
+     * is counted so that a frozen snapshot of the configuration is known to be stale.
+     */
     public static class ThreadSafeRequest extends BaseRequest {
 
+        private final AtomicInteger modifications = new AtomicInteger();
         private volatile String contentType;
         private volatile Charset charset;
         private volatile UriBuilder uriBuilder;
-        private final ConcurrentMap<String,CharSequence> headers = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String,CharSequence> headers = TrackedCollections.map(modifications);
         private volatile Object body;
-        private final ConcurrentMap<String,BiConsumer<ChainedHttpConfig,ToServer>> encoderMap = new ConcurrentHashMap<>();
-        private final ThreadSafeAuth auth;
-        private final List<HttpCookie> cookies = new CopyOnWriteArrayList<>();
+        private final ConcurrentMap<String,BiConsumer<ChainedHttpConfig,ToServer>> encoderMap = TrackedCollections.map(modifications);
+        private final ThreadSafeAuth auth = new ThreadSafeAuth(modifications);
+        private final List<HttpCookie> cookies = TrackedCollections.list(modifications);
 
         public ThreadSafeRequest(final ChainedRequest parent) {
             super(parent);
-            this.auth = new ThreadSafeAuth();
-            this.uriBuilder = (parent == null) ? UriBuilder.threadSafe(null) : UriBuilder.threadSafe(parent.getUri());
+            this.uriBuilder = UriBuilder.threadSafe(parent == null ? null : parent.getUri(), modifications);
         }
 
         public List<HttpCookie> getCookies() {
@@ -314,6 +333,7 @@ public class HttpConfigs {
 
         public void setContentType(final String val) {
             this.contentType = val;
+            modifications.incrementAndGet();
         }
 
         public Charset getCharset() {
@@ -322,6 +342,7 @@ public class HttpConfigs {
 
         public void setCharset(final Charset val) {
             this.charset = val;
+            modifications.incrementAndGet();
         }
 
         public UriBuilder getUri() {
@@ -338,6 +359,7 @@ public class HttpConfigs {
 
         public void setBody(Object val) {
             this.body = val;
+            modifications.incrementAndGet();
         }
 
         public ThreadSafeAuth getAuth() {
@@ -468,8 +490,9 @@ public class HttpConfigs {
 
     public static class ThreadSafeResponse extends BaseResponse {
 
-        private final ConcurrentMap<String,BiFunction<ChainedHttpConfig,FromServer,Object>> parserMap = new ConcurrentHashMap<>();
-        private final ConcurrentMap<Integer,BiFunction<FromServer, Object, ?>> byCode = new ConcurrentHashMap<>();
+        private final AtomicInteger modifications = new AtomicInteger();
+        private final ConcurrentMap<String,BiFunction<ChainedHttpConfig,FromServer,Object>> parserMap = TrackedCollections.map(modifications);
+        private final ConcurrentMap<Integer,BiFunction<FromServer, Object, ?>> byCode = TrackedCollections.map(modifications);
         private volatile BiFunction<FromServer, Object, ?> successHandler;
         private volatile BiFunction<FromServer, Object, ?> failureHandler;
         private volatile Function<Throwable,?> exceptionHandler;
@@ -501,14 +524,17 @@ public class HttpConfigs {
 
         public void success(final BiFunction<FromServer, Object, ?> val) {
             successHandler = val;
+            modifications.incrementAndGet();
         }
 
         public void failure(final BiFunction<FromServer, Object, ?> val) {
             failureHandler = val;
+            modifications.incrementAndGet();
         }
 
         public void exception(final Function<Throwable,?> val) {
             this.exceptionHandler = val;
+            modifications.incrementAndGet();
         }
 
         public Class<?> getType() {
@@ -517,6 +543,7 @@ public class HttpConfigs {
 
         public void setType(final Class<?> val) {
             type = val;
+            modifications.incrementAndGet();
         }
     }
 
@@ -568,7 +595,9 @@ public class HttpConfigs {
     public static class ThreadSafeHttpConfig extends BaseHttpConfig {
         private final ThreadSafeRequest request;
         private final ThreadSafeResponse response;
-        private final ConcurrentMap<Map.Entry<String,Object>,Object> contextMap = new ConcurrentHashMap<>();
+        private final AtomicInteger modifications = new AtomicInteger();
+        private final ConcurrentMap<Map.Entry<String,Object>,Object> contextMap = TrackedCollections.map(modifications);
+        private volatile FrozenHttpConfig frozen;
 
         public ThreadSafeHttpConfig(final ChainedHttpConfig parent) {
             super(parent);
@@ -601,6 +630,329 @@ public class HttpConfigs {
         public Map<Map.Entry<String,Object>,Object> getContextMap() {
             return contextMap;
         }
+
+        /**
+         * Retrieves an immutable, pre-merged snapshot of this configuration and its parents, so that request-level configuration resolves in a single
+         * lookup rather than walking the parent chain. The snapshot is cached and rebuilt once this configuration (or one of its parents) has been
+         * modified - including modifications made through previously retrieved headers, cookies, encoders, parsers, auth or URI references. When a parent is not thread-safe, this configuration itself is returned.
+         *
+         * @return the frozen configuration
+         */
+        public ChainedHttpConfig frozen() {
+            final int stamp = stamp(this);
+            if (stamp < 0) {
+                return this;
+            }
+
+            FrozenHttpConfig current = frozen;
+            if (current == null || current.stamp != stamp) {
+                current = new FrozenHttpConfig(levels(this), stamp);
+                frozen = current;
+            }
+
+            return current;
+        }
+
+        private static int stamp(final ThreadSafeHttpConfig config) {
+            int stamp = config.modifications.get() + config.request.modifications.get() + config.response.modifications.get();
+
+            final ChainedHttpConfig parent = config.getParent();
+            if (parent instanceof ThreadSafeHttpConfig) {
+                final int parentStamp = stamp((ThreadSafeHttpConfig) parent);
+                return parentStamp < 0 ? -1 : (stamp + parentStamp) & Integer.MAX_VALUE;
+            } else {
+                return parent == null ? stamp & Integer.MAX_VALUE : -1;
+            }
+        }
+
+        private static List<ThreadSafeHttpConfig> levels(final ThreadSafeHttpConfig config) {
+            final List<ThreadSafeHttpConfig> levels = new ArrayList<>(2);
+            for (ChainedHttpConfig level = config; level != null; level = level.getParent()) {
+                levels.add((ThreadSafeHttpConfig) level);
+            }
+            return levels;
+        }
+    }
+
+    /**
+     * Immutable snapshot of a chain of thread-safe configurations, with every value pre-resolved the way the parent chain would resolve it. It has no
+     * parent; any attempt to modify it throws an {@link UnsupportedOperationException}.
+     */
+    static class FrozenHttpConfig implements ChainedHttpConfig {
+
+        private final int stamp;
+        private final FrozenRequest request;
+        private final FrozenResponse response;
+        private final Map<Map.Entry<String,Object>,Object> contextMap;
+
+        FrozenHttpConfig(final List<ThreadSafeHttpConfig> levels, final int stamp) {
+            this.stamp = stamp;
+            this.request = new FrozenRequest(levels);
+            this.response = new FrozenResponse(levels);
+
+            final Map<Map.Entry<String,Object>,Object> contexts = new LinkedHashMap<>();
+            for (final ThreadSafeHttpConfig level : levels) {
+                for (final Map.Entry<String,Object> key : level.contextMap.keySet()) {
+                    contexts.computeIfAbsent(key, (k) -> {
+                        final Map.Entry<String,Object> anyKey = new AbstractMap.SimpleImmutableEntry<>(ANY, k.getValue());
+                        for (final ThreadSafeHttpConfig lvl : levels) {
+                            final Object ctx = lvl.contextMap.containsKey(k) ? lvl.contextMap.get(k) : lvl.contextMap.get(anyKey);
+                            if (ctx != null) {
+                                return ctx;
+                            }
+                        }
+                        return null;
+                    });
+                }
+            }
+            this.contextMap = unmodifiableMap(contexts);
+        }
+
+        public FrozenRequest getRequest() {
+            return request;
+        }
+
+        public FrozenResponse getResponse() {
+            return response;
+        }
+
+        public FrozenRequest getChainedRequest() {
+            return request;
+        }
+
+        public FrozenResponse getChainedResponse() {
+            return response;
+        }
+
+        public ChainedHttpConfig getParent() {
+            return null;
+        }
+
+        public Map<Map.Entry<String,Object>,Object> getContextMap() {
+            return contextMap;
+        }
+
+        public void context(final String contentType, final Object id, final Object obj) {
+            throw new UnsupportedOperationException("Frozen configuration cannot be modified");
+        }
+    }
+
+    static class FrozenRequest extends BaseRequest {
+        private final String contentType;
+        private final Charset charset;
+        private final UriBuilder uriBuilder;
+        private final Map<String,CharSequence> headers;
+        private final Object body;
+        private final Map<String,BiConsumer<ChainedHttpConfig,ToServer>> encoderMap;
+        private final Auth auth;
+        private final List<HttpCookie> cookies;
+
+        FrozenRequest(final List<ThreadSafeHttpConfig> levels) {
+            super(null);
+
+            String contentType = null;
+            Charset charset = null;
+            Object body = null;
+            Auth auth = null;
+            final Map<String,CharSequence> headers = new LinkedHashMap<>();
+            final List<HttpCookie> cookies = new ArrayList<>();
+            final Map<String,BiConsumer<ChainedHttpConfig,ToServer>> encoders = new LinkedHashMap<>();
+
+            for (final ThreadSafeHttpConfig config : levels) {
+                final ThreadSafeRequest level = config.request;
+                contentType = contentType != null ? contentType : level.contentType;
+                charset = charset != null ? charset : level.charset;
+                body = body != null ? body : level.body;
+                auth = auth != null ? auth : (level.auth.getAuthType() != null ? level.auth : null);
+                headers.putAll(level.headers);
+                cookies.addAll(level.cookies);
+
+                for (final String key : level.encoderMap.keySet()) {
+                    encoders.computeIfAbsent(key, (k) -> {
+                        for (final ThreadSafeHttpConfig lvl : levels) {
+                            final BiConsumer<ChainedHttpConfig,ToServer> encoder = lvl.request.encoderMap.getOrDefault(k, lvl.request.encoderMap.get(ANY));
+                            if (encoder != null) {
+                                return encoder;
+                            }
+                        }
+                        return null;
+                    });
+                }
+            }
+
+            this.contentType = contentType;
+            this.charset = charset;
+            this.body = body;
+            this.auth = auth != null ? auth : new BasicAuth();
+            this.headers = unmodifiableMap(headers);
+            this.cookies = unmodifiableList(cookies);
+            this.encoderMap = unmodifiableMap(encoders);
+            this.uriBuilder = UriBuilder.flattened(levels.get(0).request.uriBuilder);
+        }
+
+        public Map<String,BiConsumer<ChainedHttpConfig,ToServer>> getEncoderMap() {
+            return encoderMap;
+        }
+
+        public List<HttpCookie> getCookies() {
+            return cookies;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public void setContentType(final String val) {
+            throw new UnsupportedOperationException("Frozen configuration cannot be modified");
+        }
+
+        public Charset getCharset() {
+            return charset;
+        }
+
+        public void setCharset(final Charset val) {
+            throw new UnsupportedOperationException("Frozen configuration cannot be modified");
+        }
+
+        public UriBuilder getUri() {
+            return uriBuilder;
+        }
+
+        public void setUri(final String val) {
+            throw new UnsupportedOperationException("Frozen configuration cannot be modified");
+        }
+
+        public void setRaw(final String val) {
+            throw new UnsupportedOperationException("Frozen configuration cannot be modified");
+        }
+
+        public void setUri(final URI val) {
+            throw new UnsupportedOperationException("Frozen configuration cannot be modified");
+        }
+
+        public void setUri(final URL val) {
+            throw new UnsupportedOperationException("Frozen configuration cannot be modified");
+        }
+
+        public Map<String,CharSequence> getHeaders() {
+            return headers;
+        }
+
+        public Object getBody() {
+            return body;
+        }
+
+        public void setBody(final Object val) {
+            throw new UnsupportedOperationException("Frozen configuration cannot be modified");
+        }
+
+        public Auth getAuth() {
+            return auth;
+        }
+
+        @Override
+        public void setVerb(final HttpVerb verb) {
+            throw new UnsupportedOperationException("Frozen configuration cannot be modified");
+        }
+    }
+
+    static class FrozenResponse extends BaseResponse {
+        private final Map<String,BiFunction<ChainedHttpConfig,FromServer,Object>> parserMap;
+        private final Map<Integer,BiFunction<FromServer, Object, ?>> byCode;
+        private final BiFunction<FromServer, Object, ?> successHandler;
+        private final BiFunction<FromServer, Object, ?> failureHandler;
+        private final Function<Throwable,?> exceptionHandler;
+        private final Class<?> type;
+
+        FrozenResponse(final List<ThreadSafeHttpConfig> levels) {
+            super(null);
+
+            BiFunction<FromServer, Object, ?> success = null;
+            BiFunction<FromServer, Object, ?> failure = null;
+            Function<Throwable,?> exception = null;
+            final Map<Integer,BiFunction<FromServer, Object, ?>> codes = new LinkedHashMap<>();
+            final Map<String,BiFunction<ChainedHttpConfig,FromServer,Object>> parsers = new LinkedHashMap<>();
+
+            for (final ThreadSafeHttpConfig config : levels) {
+                final ThreadSafeResponse level = config.response;
+                success = success != null ? success : level.successHandler;
+                failure = failure != null ? failure : level.failureHandler;
+                exception = exception != null ? exception : level.exceptionHandler;
+
+                for (final Integer key : level.byCode.keySet()) {
+                    codes.computeIfAbsent(key, (code) -> {
+                        for (final ThreadSafeHttpConfig lvl : levels) {
+                            final ThreadSafeResponse r = lvl.response;
+                            final BiFunction<FromServer, Object, ?> action = r.byCode.containsKey(code) ? r.byCode.get(code) :
+                                (code < 400 ? r.successHandler : r.failureHandler);
+                            if (action != null) {
+                                return action;
+                            }
+                        }
+                        return null;
+                    });
+                }
+
+                for (final String key : level.parserMap.keySet()) {
+                    parsers.computeIfAbsent(key, (k) -> {
+                        for (final ThreadSafeHttpConfig lvl : levels) {
+                            final BiFunction<ChainedHttpConfig,FromServer,Object> parser = lvl.response.parserMap.getOrDefault(k, lvl.response.parserMap.get(ANY));
+                            if (parser != null) {
+                                return parser;
+                            }
+                        }
+                        return null;
+                    });
+                }
+            }
+
+            this.successHandler = success;
+            this.failureHandler = failure;
+            this.exceptionHandler = exception;
+            this.byCode = unmodifiableMap(codes);
+            this.parserMap = unmodifiableMap(parsers);
+            this.type = levels.get(0).response.type;
+        }
+
+        protected Map<String,BiFunction<ChainedHttpConfig,FromServer,Object>> getParserMap() {
+            return parserMap;
+        }
+
+        protected Map<Integer,BiFunction<FromServer, Object, ?>> getByCode() {
+            return byCode;
+        }
+
+        protected BiFunction<FromServer, Object, ?> getSuccess() {
+            return successHandler;
+        }
+
+        protected BiFunction<FromServer, Object, ?> getFailure() {
+            return failureHandler;
+        }
+
+        public Function<Throwable,?> getException() {
+            return exceptionHandler;
+        }
+
+        public void success(final BiFunction<FromServer, Object, ?> val) {
+            throw new UnsupportedOperationException("Frozen configuration cannot be modified");
+        }
+
+        public void failure(final BiFunction<FromServer, Object, ?> val) {
+            throw new UnsupportedOperationException("Frozen configuration cannot be modified");
+        }
+
+        public void exception(final Function<Throwable,?> val) {
+            throw new UnsupportedOperationException("Frozen configuration cannot be modified");
+        }
+
+        public Class<?> getType() {
+            return type;
+        }
+
+        public void setType(final Class<?> val) {
+            throw new UnsupportedOperationException("Frozen configuration cannot be modified");
+        }
     }
 
     public static class BasicHttpConfig extends BaseHttpConfig {
@@ -680,6 +1032,6 @@ public class HttpConfigs {
     }
 
     public static BasicHttpConfig requestLevel(final ChainedHttpConfig parent) {
-        return new BasicHttpConfig(parent);
+        return new BasicHttpConfig(parent instanceof ThreadSafeHttpConfig ? ((ThreadSafeHttpConfig) parent).frozen() : parent);
     }
 }
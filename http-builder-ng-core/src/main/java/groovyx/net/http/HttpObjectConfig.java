@@ -20,6 +20,7 @@ import java.net.UnknownHostException;
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLContext;
 import java.io.File;
+import java.time.Duration;
 import java.util.EnumMap;
 import java.util.concurrent.Executor;
 import java.util.function.BiFunction;
@@ -58,6 +59,68 @@ public interface HttpObjectConfig extends HttpConfig {
          */
         int getMaxThreads();
 
+        /**
+         * Specifies the maximum number of connections the client may hold open, across all hosts. For clients which dispatch asynchronous requests
+         * themselves (e.g. OkHttp), this is also the maximum number of concurrently executing requests.
+         *
+         * [source,groovy]
+         * ----
+         * def http = HttpBuilder.configure {
+         *      execution.maxConnections = 200
+         *      execution.maxConnectionsPerRoute = 50
+         *      execution.keepAlive = Duration.ofSeconds(30)
+         * }
+         * ----
+         *
+         * If not specified (or `0`), the `maxThreads` value is used when it is greater than `1`, otherwise the client default is used.
+         *
+         * @param val the max connection count
+         */
+        void setMaxConnections(int val);
+
+        /**
+         * Retrieves the configured max number of connections, or `0` if not explicitly configured.
+         *
+         * @return the max connection count
+         */
+        int getMaxConnections();
+
+        /**
+         * Specifies the maximum number of connections the client may hold open to a single route (host). For clients which dispatch asynchronous
+         * requests themselves (e.g. OkHttp), this is also the maximum number of concurrently executing requests per host.
+         *
+         * If not specified (or `0`), the effective `maxConnections` value is used.
+         *
+         * The core Java client does not support this setting, it keeps idle connections in the JVM-wide cache of the JDK, which holds up to
+         * `http.maxConnections` (system property, `5` by default) connections per host. The JDK reads the property once, before the first connection
+         * of the JVM is made, so it is left to the application to set (e.g. `-Dhttp.maxConnections=50`).
+         *
+         * @param val the max connection count per route
+         */
+        void setMaxConnectionsPerRoute(int val);
+
+        /**
+         * Retrieves the configured max number of connections per route, or `0` if not explicitly configured.
+         *
+         * @return the max connection count per route
+         */
+        int getMaxConnectionsPerRoute();
+
+        /**
+         * Specifies the maximum duration an idle connection is kept alive in the pool before it is closed. If not specified, the client default is
+         * used. The core Java client does not support this setting, its connections are kept alive for the duration requested by the server.
+         *
+         * @param val the idle keep-alive duration
+         */
+        void setKeepAlive(Duration val);
+
+        /**
+         * Retrieves the configured idle keep-alive duration, or `null` if not explicitly configured.
+         *
+         * @return the idle keep-alive duration
+         */
+        Duration getKeepAlive();
+
         /**
          * Specifies the executor to be used.
          *
@@ -222,6 +285,137 @@ public interface HttpObjectConfig extends HttpConfig {
          */
         boolean getCookiesEnabled();
 
+        /**
+         * Used to limit the number of cookie entries held by the cookie store. When the limit is exceeded the oldest entries, by the time they were
+         * last stored, are evicted. A value of `0` (the default) means that the store is unbounded.
+         *
+         * [source,groovy]
+         * ----
+         * def http = HttpBuilder.configure {
+         *     client.cookieStoreCapacity = 1000
+         *     client.cookiesPerDomain = 50
+         *     client.cookieSweepInterval = Duration.ofMinutes(1)
+         * }
+         * ----
+         *
+         * @param val the maximum number of cookie entries held by the cookie store
+         */
+        void setCookieStoreCapacity(int val);
+
+        /**
+         * Retrieves the maximum number of cookie entries held by the cookie store, `0` if unbounded.
+         *
+         * @return the cookie store capacity
+         */
+        int getCookieStoreCapacity();
+
+        /**
+         * Used to limit the number of cookie entries held for any single host or domain. When the limit is exceeded the oldest entries for that host
+         * or domain are evicted. A value of `0` (the default) means that there is no per-domain limit.
+         *
+         * @param val the maximum number of cookie entries held for a host or domain
+         */
+        void setCookiesPerDomain(int val);
+
+        /**
+         * Retrieves the maximum number of cookie entries held for a single host or domain, `0` if there is no limit.
+         *
+         * @return the per-domain cookie limit
+         */
+        int getCookiesPerDomain();
+
+        /**
+         * Used to enable a background sweeper which removes expired cookies from the cookie store at the given interval. By default (`null`),
+         * expired cookies are only removed as they are encountered by requests.
+         *
+         * @param val the interval between sweeps of expired cookies
+         */
+        void setCookieSweepInterval(Duration val);
+
+        /**
+         * Retrieves the interval between sweeps of expired cookies, `null` if no sweeper is used.
+         *
+         * @return the cookie sweep interval
+         */
+        Duration getCookieSweepInterval();
+
+        /**
+         * Used to keep the persistent cookies of the `cookieFolder` in a single append-only journal file rather than in one file per cookie. Changes
+         * to the journal are written by a background flusher, so that storing a cookie does not wait on the disk; the queued changes are also flushed when
+         * the `HttpBuilder` is closed. Defaults to `false`.
+         *
+         * [source,groovy]
+         * ----
+         * def http = HttpBuilder.configure {
+         *     client.cookieFolder = new File('/tmp/cookies')
+         *     client.cookieJournal = true
+         *     client.cookieFlushInterval = Duration.ofMillis(500)
+         *     client.cookieFsync = true
+         * }
+         * ----
+         *
+         * @param val true to use a journal file for the persistent cookies
+         */
+        void setCookieJournal(boolean val);
+
+        /**
+         * Retrieves whether the persistent cookies are kept in a journal file.
+         *
+         * @return true if a journal file is used
+         */
+        boolean getCookieJournal();
+
+        /**
+         * Used to specify how often the queued cookie changes are written to the cookie journal. Defaults to one second.
+         *
+         * @param val the interval between journal flushes
+         */
+        void setCookieFlushInterval(Duration val);
+
+        /**
+         * Retrieves the interval between cookie journal flushes, `null` if the default is used.
+         *
+         * @return the cookie flush interval
+         */
+        Duration getCookieFlushInterval();
+
+        /**
+         * Used to force the cookie journal to the storage device (`fsync`) after each flush. Defaults to `false`, in which case the operating system
+         * decides when the written changes reach the device.
+         *
+         * @param val true to sync the journal after each flush
+         */
+        void setCookieFsync(boolean val);
+
+        /**
+         * Retrieves whether the cookie journal is synced after each flush.
+         *
+         * @return true if the journal is synced after each flush
+         */
+        boolean getCookieFsync();
+
+        /**
+         * Used to specify a {@link ResponseCache} for the `GET` responses of the client. Fresh cached responses are served without touching the
+         * network and stale ones are revalidated with conditional requests. By default (`null`) no responses are cached.
+         *
+         * [source,groovy]
+         * ----
+         * def http = HttpBuilder.configure {
+         *     client.responseCache = new ResponseCache(16 * 1024 * 1024)
+         * }
+         * ----
+         *
+         * @param val the response cache to be used
+         */
+        void setResponseCache(ResponseCache val);
+
+        /**
+         * Retrieves the configured response cache, if there is one.
+         *
+         * @return the response cache (or `null`)
+         */
+        ResponseCache getResponseCache();
+
         /**
          * A `Consumer<Object>` may be provided, which will have the internal client implementation reference passed into it to allow further
          * client configuration beyond what it supported directly by HttpBuilder-NG. The `Object` passed in will be an instance of the internal client
@@ -20,6 +20,7 @@ import java.net.UnknownHostException;
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLContext;
 import java.io.File;
+import java.time.Duration;
 import java.util.EnumMap;
 import java.util.concurrent.Executor;
 import java.util.function.BiFunction;
@@ -47,8 +48,13 @@ public class HttpObjectConfigImpl implements HttpObjectConfig {
         return func.apply(config);
     }
 
+    static final BiFunction<ChainedHttpConfig, Function<ChainedHttpConfig, Object>, Object> NULL_INTERCEPTOR = HttpObjectConfigImpl::nullInterceptor;
+
     private static class Exec implements Execution {
         private int maxThreads = 1;
+        private int maxConnections;
+        private int maxConnectionsPerRoute;
+        private Duration keepAlive;
         private Executor executor = SingleThreaded.instance;
         private SSLContext sslContext;
         private HostnameVerifier hostnameVerifier;
@@ -58,7 +64,7 @@ public class HttpObjectConfigImpl implements HttpObjectConfig {
         public Exec() {
             interceptors = new EnumMap<>(HttpVerb.class);
             for (HttpVerb verb : HttpVerb.values()) {
-                interceptors.put(verb, HttpObjectConfigImpl::nullInterceptor);
+                interceptors.put(verb, NULL_INTERCEPTOR);
             }
 
             if(isPropertySet("groovyx.net.http.ignore-ssl-issues")) {
@@ -79,6 +85,42 @@ public class HttpObjectConfigImpl implements HttpObjectConfig {
             return maxThreads;
         }
 
+        public void setMaxConnections(final int val) {
+            if (val < 0) {
+                throw new IllegalArgumentException("Max Connections cannot be negative");
+            }
+
+            this.maxConnections = val;
+        }
+
+        public int getMaxConnections() {
+            return maxConnections;
+        }
+
+        public void setMaxConnectionsPerRoute(final int val) {
+            if (val < 0) {
+                throw new IllegalArgumentException("Max Connections Per Route cannot be negative");
+            }
+
+            this.maxConnectionsPerRoute = val;
+        }
+
+        public int getMaxConnectionsPerRoute() {
+            return maxConnectionsPerRoute;
+        }
+
+        public void setKeepAlive(final Duration val) {
+            if (val != null && val.isNegative()) {
+                throw new IllegalArgumentException("Keep Alive cannot be negative");
+            }
+
+            this.keepAlive = val;
+        }
+
+        public Duration getKeepAlive() {
+            return keepAlive;
+        }
+
         public void setExecutor(final Executor val) {
             if (val == null) {
                 throw new NullPointerException();
@@ -145,6 +187,13 @@ public class HttpObjectConfigImpl implements HttpObjectConfig {
         private boolean cookiesEnabled = true;
         private int cookieVersion = 0;
         private File cookieFolder;
+        private int cookieStoreCapacity;
+        private int cookiesPerDomain;
+        private Duration cookieSweepInterval;
+        private boolean cookieJournal;
+        private Duration cookieFlushInterval;
+        private boolean cookieFsync;
+        private ResponseCache responseCache;
         private Consumer<Object> clientCustomizer;
 
         @Override
@@ -177,6 +226,92 @@ public class HttpObjectConfigImpl implements HttpObjectConfig {
             cookiesEnabled = val;
         }
 
+        @Override
+        public void setCookieStoreCapacity(final int val) {
+            if (val < 0) {
+                throw new IllegalArgumentException("Cookie Store Capacity cannot be negative");
+            }
+
+            this.cookieStoreCapacity = val;
+        }
+
+        @Override
+        public int getCookieStoreCapacity() {
+            return cookieStoreCapacity;
+        }
+
+        @Override
+        public void setCookiesPerDomain(final int val) {
+            if (val < 0) {
+                throw new IllegalArgumentException("Cookies Per Domain cannot be negative");
+            }
+
+            this.cookiesPerDomain = val;
+        }
+
+        @Override
+        public int getCookiesPerDomain() {
+            return cookiesPerDomain;
+        }
+
+        @Override
+        public void setCookieSweepInterval(final Duration val) {
+            if (val != null && (val.isNegative() || val.isZero())) {
+                throw new IllegalArgumentException("Cookie Sweep Interval must be positive");
+            }
+
+            this.cookieSweepInterval = val;
+        }
+
+        @Override
+        public Duration getCookieSweepInterval() {
+            return cookieSweepInterval;
+        }
+
+        @Override
+        public void setCookieJournal(final boolean val) {
+            this.cookieJournal = val;
+        }
+
+        @Override
+        public boolean getCookieJournal() {
+            return cookieJournal;
+        }
+
+        @Override
+        public void setCookieFlushInterval(final Duration val) {
+            if (val != null && (val.isNegative() || val.isZero())) {
+                throw new IllegalArgumentException("Cookie Flush Interval must be positive");
+            }
+
+            this.cookieFlushInterval = val;
+        }
+
+        @Override
+        public Duration getCookieFlushInterval() {
+            return cookieFlushInterval;
+        }
+
+        @Override
+        public void setCookieFsync(final boolean val) {
+            this.cookieFsync = val;
+        }
+
+        @Override
+        public boolean getCookieFsync() {
+            return cookieFsync;
+        }
+
+        @Override
+        public void setResponseCache(final ResponseCache val) {
+            this.responseCache = val;
+        }
+
+        @Override
+        public ResponseCache getResponseCache() {
+            return responseCache;
+        }
+
         @Override
         public void clientCustomizer(final Consumer<Object> customizer) {
             this.clientCustomizer = customizer;
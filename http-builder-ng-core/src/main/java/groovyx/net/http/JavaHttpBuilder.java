@@ -23,8 +23,10 @@ import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.HttpsURLConnection;
 import javax.net.ssl.SSLContext;
 import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.PushbackInputStream;
 import java.net.*;
 import java.nio.charset.Charset;
 import java.util.*;
@@ -49,9 +51,25 @@ public class JavaHttpBuilder extends HttpBuilder {
     private static final Logger contentLog = LoggerFactory.getLogger("groovy.net.http.JavaHttpBuilder.content");
     private static final Logger headerLog = LoggerFactory.getLogger("groovy.net.http.JavaHttpBuilder.headers");
 
+    /**
+     * The maximum number of unread response bytes discarded to keep a connection alive.
+     */
+    static final long DRAIN_LIMIT = 64 * 1024;
+
+    /**
+     * The size of request content above which it is streamed to the server, rather than buffered by the connection.
+     */
+    static final int STREAMING_THRESHOLD = 8_192;
+
+    /**
+     * The maximum number of redirects followed for streamed request content (the JDK default for the redirects it follows itself).
+     */
+    static final int MAX_REDIRECTS = 20;
+
     protected class Action {
 
-        private final HttpURLConnection connection;
+        private HttpURLConnection connection;
+        private final Consumer<Object> clientCustomizer;
         private final ChainedHttpConfig requestConfig;
         private final URI theUri;
 
@@ -65,17 +83,23 @@ public class JavaHttpBuilder extends HttpBuilder {
             final ChainedHttpConfig.ChainedRequest cr = requestConfig.getChainedRequest();
             theUri = cr.getUri().toURI();
 
-            final URL url = theUri.toURL();
-            connection = (HttpURLConnection) (isProxied() ? url.openConnection(proxyInfo.getProxy()) : url.openConnection());
-            connection.setRequestMethod(verb);
+            this.clientCustomizer = clientCustomizer;
+            this.connection = open(theUri.toURL(), verb, cr.actualBody() != null);
+        }
+
+        private HttpURLConnection open(final URL url, final String verb, final boolean doOutput) throws IOException {
+            final HttpURLConnection opened = (HttpURLConnection) (isProxied() ? url.openConnection(proxyInfo.getProxy()) : url.openConnection());
+            opened.setRequestMethod(verb);
 
-            if (cr.actualBody() != null) {
-                connection.setDoOutput(true);
+            if (doOutput) {
+                opened.setDoOutput(true);
             }
 
             if (clientCustomizer != null) {
-                clientCustomizer.accept(connection);
+                clientCustomizer.accept(opened);
             }
+
+            return opened;
         }
 
         private void addHeaders() throws URISyntaxException {
@@ -94,7 +118,9 @@ public class JavaHttpBuilder extends HttpBuilder {
                 }
             }
 
-            connection.addRequestProperty("Accept-Encoding", "gzip, deflate");
+            if (connection.getRequestProperty("Accept-Encoding") == null) {
+                connection.addRequestProperty("Accept-Encoding", "gzip, deflate");
+            }
 
             for (Map.Entry<String, String> e : cookiesToAdd(clientConfig, cr).entrySet()) {
                 connection.addRequestProperty(e.getKey(), e.getValue());
@@ -120,43 +146,37 @@ public class JavaHttpBuilder extends HttpBuilder {
 
         public Object execute() throws Exception {
             return ThreadLocalAuth.with(getAuthInfo(), () -> {
-                if (sslContext != null && connection instanceof HttpsURLConnection) {
-                    HttpsURLConnection https = (HttpsURLConnection) connection;
-
-                    if (hostnameVerifier != null) {
-                        https.setHostnameVerifier(hostnameVerifier);
-                    }
-
-                    https.setSSLSocketFactory(sslContext.getSocketFactory());
-                }
-
                 final ChainedHttpConfig.ChainedRequest cr = requestConfig.getChainedRequest();
 
                 JavaToServer j2s = null;
                 if (cr.actualBody() != null) {
                     j2s = new JavaToServer();
                     requestConfig.findEncoder().accept(requestConfig, j2s);
+                    j2s.streamingMode(cr.actualAuth() != null);
                 }
 
-                if (log.isDebugEnabled()) {
-                    log.debug("Request-URI({}): {}", connection.getRequestMethod(), theUri);
-                }
-
-                addHeaders();
-
-                connection.connect();
+                send(j2s);
 
-                if (j2s != null) {
-                    if (contentLog.isDebugEnabled()) {
-                        contentLog.debug("Request-Body({}): {}", requestConfig.getChainedRequest().actualContentType(), j2s.content());
+                JavaFromServer fromServer = new JavaFromServer(theUri);
+                for (int redirects = 0; j2s != null && j2s.followsRedirects && redirects < MAX_REDIRECTS; ++redirects) {
+                    final HttpURLConnection redirected = redirect(fromServer, j2s);
+                    if (redirected == null) {
+                        break;
                     }
 
-                    j2s.transfer();
+                    fromServer.finish();
+                    connection = redirected;
+                    if (connection.getDoOutput()) {
+                        j2s.streamingMode(false);
+                        send(j2s);
+                    } else {
+                        j2s = null;
+                        send(null);
+                    }
 
+                    fromServer = new JavaFromServer(theUri);
                 }
 
-                final JavaFromServer fromServer = new JavaFromServer(theUri);
-
                 if (contentLog.isDebugEnabled()) {
                     contentLog.debug("Response-Body: {}", fromServer.content());
                 }
@@ -169,21 +189,156 @@ public class JavaHttpBuilder extends HttpBuilder {
             });
         }
 
+        private void send(final JavaToServer j2s) throws IOException, URISyntaxException {
+            if (sslContext != null && connection instanceof HttpsURLConnection) {
+                HttpsURLConnection https = (HttpsURLConnection) connection;
+
+                if (hostnameVerifier != null) {
+                    https.setHostnameVerifier(hostnameVerifier);
+                }
+
+                https.setSSLSocketFactory(sslContext.getSocketFactory());
+            }
+
+            if (log.isDebugEnabled()) {
+                log.debug("Request-URI({}): {}", connection.getRequestMethod(), connection.getURL());
+            }
+
+            addHeaders();
+
+            connection.connect();
+
+            if (j2s != null) {
+                if (contentLog.isDebugEnabled()) {
+                    contentLog.debug("Request-Body({}): {}", requestConfig.getChainedRequest().actualContentType(), j2s.content());
+                }
+
+                j2s.transfer();
+            }
+        }
+
+        /**
+         * Opens the connection for a redirect of streamed request content, following the rules the JDK applies to the redirects it follows
+         * itself: only `300`-`303` and `307` responses with a `Location` of the same protocol are followed, and a `POST` is redirected as a `GET`
+         * (without content) unless the response is a `307`. Content sent again must be reopened from its {@link ToServer.Source}; other redirects
+         * are not followed, and the redirect response is returned to the caller.
+         *
+         * @param fromServer the response to the request
+         * @param j2s the request content
+         * @return the connection to the redirect location, or `null` if the redirect is not followed
+         */
+        private HttpURLConnection redirect(final JavaFromServer fromServer, final JavaToServer j2s) throws IOException {
+            final int status = fromServer.getStatusCode();
+            if (status < 300 || status > 307 || status == 304 || status == 305 || status == 306) {
+                return null;
+            }
+
+            final String location = connection.getHeaderField("Location");
+            if (location == null) {
+                return null;
+            }
+
+            final URL target = new URL(connection.getURL(), location);
+            if (!target.getProtocol().equalsIgnoreCase(connection.getURL().getProtocol())) {
+                return null;
+            }
+
+            final String verb = connection.getRequestMethod();
+            if ("POST".equals(verb) && status != 307) {
+                return open(target, "GET", false);
+            }
+
+            return j2s.reopen() ? open(target, verb, true) : null;
+        }
+
         protected class JavaToServer implements ToServer {
 
-            private BufferedInputStream inputStream;
+            private InputStream inputStream;
+            private Source source;
+            private long contentLength = -1L;
+            private boolean followsRedirects;
 
             public void toServer(final InputStream inputStream) {
-                this.inputStream = inputStream instanceof BufferedInputStream ? (BufferedInputStream) inputStream : new BufferedInputStream(inputStream);
+                this.inputStream = inputStream;
+            }
+
+            public void toServer(final InputStream inputStream, final long contentLength) {
+                this.inputStream = inputStream;
+                this.contentLength = contentLength;
+            }
+
+            @Override
+            public void toServer(final Source source, final long contentLength) throws IOException {
+                this.source = source;
+                this.inputStream = source.open();
+                this.contentLength = contentLength;
+            }
+
+            /**
+             * Opens the content again, to send it to a redirect location.
+             *
+             * @return whether the content could be reopened (only content provided by a {@link ToServer.Source} can)
+             */
+            boolean reopen() throws IOException {
+                if (source == null) {
+                    return false;
+                }
+
+                inputStream = source.open();
+                return true;
+            }
+
+            /**
+             * Selects the streaming mode of the connection, before it is connected. `HttpURLConnection` buffers the whole request body in memory
+             * unless a streaming mode is set, so content larger than {@link #STREAMING_THRESHOLD} bytes is streamed, with a fixed length when it is
+             * known and chunked otherwise. The JDK cannot send a streamed body again, so it fails requests answered with an authentication challenge
+             * (`HttpRetryException`); the content of requests with authentication configured is still buffered. Redirects of streamed content are
+             * not followed by the connection, but by the `Action` itself (see `redirect`).
+             *
+             * @param authenticated whether authentication is configured for the request
+             */
+            void streamingMode(final boolean authenticated) throws IOException {
+                if (authenticated) {
+                    return;
+                }
+
+                boolean streamed = false;
+                if (contentLength > STREAMING_THRESHOLD) {
+                    connection.setFixedLengthStreamingMode(contentLength);
+                    streamed = true;
+
+                } else if (contentLength < 0) {
+                    final PushbackInputStream pushback = new PushbackInputStream(inputStream, STREAMING_THRESHOLD + 1);
+                    final byte[] bytes = IoUtils.bufferIfSmall(pushback, STREAMING_THRESHOLD);
+                    if (bytes != null) {
+                        inputStream = new ByteArrayInputStream(bytes);
+                        contentLength = bytes.length;
+                    } else {
+                        inputStream = pushback;
+                        connection.setChunkedStreamingMode(0);
+                        streamed = true;
+                    }
+                }
+
+                followsRedirects = streamed && connection.getInstanceFollowRedirects();
+                if (followsRedirects) {
+                    connection.setInstanceFollowRedirects(false);
+                }
             }
 
             void transfer() throws IOException {
-                IoUtils.transfer(inputStream, connection.getOutputStream(), true);
+                try (InputStream content = inputStream) {
+                    IoUtils.transfer(content, connection.getOutputStream(), true);
+                }
             }
 
             public String content() {
                 try {
-                    return IoUtils.copyAsString(inputStream);
+                    // only buffered when the content is logged, so that file content can be transferred through its channel otherwise
+                    if (!(inputStream instanceof BufferedInputStream)) {
+                        inputStream = new BufferedInputStream(inputStream);
+                    }
+                    return IoUtils.copyAsString((BufferedInputStream) inputStream);
                 } catch (IOException ioe) {
                     if (log.isWarnEnabled()) {
                         log.warn("Unable to render request stream due to error (may not affect actual content)", ioe);
@@ -199,11 +354,13 @@ public class JavaHttpBuilder extends HttpBuilder {
 
         protected class JavaFromServer implements FromServer {
 
+            private final InputStream raw;
             private final BufferedInputStream is;
             private final List<Header<?>> headers;
             private final URI uri;
             private final int statusCode;
             private final String message;
+            private boolean finished;
 
             public JavaFromServer(final URI originalUri) throws IOException {
                 this.uri = originalUri;
@@ -211,7 +368,8 @@ public class JavaHttpBuilder extends HttpBuilder {
                 addCookieStore(uri, headers);
                 statusCode = connection.getResponseCode();
                 message = connection.getResponseMessage();
-                BufferedInputStream bis = buffered(correctInputStream());
+                raw = correctInputStream();
+                BufferedInputStream bis = buffered(raw);
                 is = (bis == null) ? null : handleEncoding(bis);
             }
 
@@ -312,8 +470,48 @@ public class JavaHttpBuilder extends HttpBuilder {
                 return uri;
             }
 
+            /**
+             * Completes the response so that its connection may be reused: the JDK only returns a connection to its keep-alive cache once the
+             * content has been read to the end and closed. Up to {@link #DRAIN_LIMIT} bytes of unread content are discarded - a connection with
+             * more unread content than that is closed instead.
+             */
             public void finish() {
-                //do nothing, should auto cleanup
+                if (finished || raw == null) {
+                    return;
+                }
+                finished = true;
+
+                try {
+                    if (!drain(raw)) {
+                        connection.disconnect();
+                    }
+
+                    if (is != null) {
+                        is.close();
+                    } else {
+                        raw.close();
+                    }
+                } catch (IOException ioe) {
+                    log.debug("Unable to complete the response content, the connection is closed", ioe);
+                    connection.disconnect();
+                }
+            }
+
+            private boolean drain(final InputStream inputStream) throws IOException {
+                final byte[] buffer = IoUtils.borrowBuffer();
+                try {
+                    long total = 0;
+                    int read;
+                    while ((read = inputStream.read(buffer)) != -1) {
+                        total += read;
+                        if (total > DRAIN_LIMIT) {
+                            return false;
+                        }
+                    }
+                    return true;
+                } finally {
+                    IoUtils.returnBuffer(buffer);
+                }
             }
         }
     }
@@ -419,6 +617,6 @@ public class JavaHttpBuilder extends HttpBuilder {
     }
 
     public void close() {
-        //do nothing, not needed
+        closeCookieStore();
     }
 }
@@ -0,0 +1,319 @@
+/**
+ * Copyright (C) 2017 HttpBuilder-NG Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package groovyx.net.http;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.HttpCookie;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.Consumer;
+
+/**
+ * Persistent cookie store keeping all of its cookies in a single append-only journal file inside the cookie folder. Changes are queued in memory
+ * and appended to the journal by a background flusher, so storing a cookie never waits on the disk. The journal is replayed on startup and is
+ * rewritten (compacted) to hold only the live cookies once it has accumulated enough superseded records.
+ *
+ * Changes made since the last flush are lost if the process exits without calling {@link #shutdown()}.
+ */
+class JournaledCookieStore extends NonBlockingCookieStore {
+
+    static final String JOURNAL = "cookies.journal";
+    static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofSeconds(1);
+
+    private static final byte ADD = 'A';
+    private static final byte REMOVE = 'R';
+    private static final int COMPACTION_THRESHOLD = 1_024;
+
+    private final File directory;
+    private final File journal;
+    private final boolean fsync;
+    private final Consumer<Throwable> onException;
+    private final ConcurrentLinkedQueue<Record> pending = new ConcurrentLinkedQueue<>();
+    private final ScheduledFuture<?> flusher;
+
+    // guarded by this
+    private DataOutputStream out;
+    private FileOutputStream fileOut;
+    private int records;
+    private boolean truncated;
+
+    private volatile boolean live = true;
+
+    private static final class Record {
+        final byte op;
+        final String id;
+        final Properties props;
+
+        Record(final byte op, final String id, final Properties props) {
+            this.op = op;
+            this.id = id;
+            this.props = props;
+        }
+    }
+
+    JournaledCookieStore(final File directory, final Duration flushInterval, final boolean fsync, final int capacity, final int perDomain,
+                         final Consumer<Throwable> onException) {
+        super(capacity, perDomain);
+        FileBackedCookieStore.ensureUniqueControl(directory);
+        this.directory = directory;
+        this.journal = new File(directory, JOURNAL);
+        this.fsync = fsync;
+        this.onException = onException;
+
+        final Map<String, Properties> replayed = replay();
+        for (final Properties props : replayed.values()) {
+            final Map.Entry<Key, HttpCookie> entry = FileBackedCookieStore.fromProperties(props);
+            if (entry != null) {
+                super.add(entry.getKey(), entry.getValue());
+            }
+        }
+
+        synchronized (this) {
+            if (truncated || records > 2 * replayed.size() + COMPACTION_THRESHOLD) {
+                compact();
+            }
+            else {
+                open();
+            }
+        }
+
+        this.flusher = Sweeper.every(this, flushInterval != null ? flushInterval : DEFAULT_FLUSH_INTERVAL, JournaledCookieStore::flush);
+    }
+
+    JournaledCookieStore(final File directory, final Duration flushInterval, final boolean fsync, final int capacity, final int perDomain) {
+        this(directory, flushInterval, fsync, capacity, perDomain, (t) -> {});
+    }
+
+    @Override
+    public void add(final URI uri, final HttpCookie cookie) {
+        assertLive();
+        final Key key = Key.make(uri, cookie);
+        final HttpCookie replaced = all.get(key);
+        add(key, cookie);
+        if (cookie.getMaxAge() != -1L) {
+            pending.add(new Record(ADD, FileBackedCookieStore.fileName(key), FileBackedCookieStore.toProperties(key, cookie)));
+        }
+        else if (replaced != null && replaced.getMaxAge() != -1L) {
+            // a session cookie is not persisted, so the persistent cookie it replaces must not be restored either
+            pending.add(new Record(REMOVE, FileBackedCookieStore.fileName(key), null));
+        }
+    }
+
+    @Override
+    public boolean remove(final URI uri, final HttpCookie cookie) {
+        assertLive();
+        return remove(Key.make(uri, cookie));
+    }
+
+    @Override
+    public boolean removeAll() {
+        assertLive();
+        final boolean ret = all.size() > 0;
+        for (final Key key : all.keySet()) {
+            remove(key);
+        }
+
+        return ret;
+    }
+
+    @Override
+    public boolean remove(final Key key) {
+        final boolean removed = super.remove(key);
+        if (removed) {
+            pending.add(new Record(REMOVE, FileBackedCookieStore.fileName(key), null));
+        }
+
+        return removed;
+    }
+
+    /**
+     * Appends all of the queued changes to the journal, compacting it first if it has accumulated enough superseded records.
+     */
+    synchronized void flush() {
+        if (out == null || pending.isEmpty()) {
+            return;
+        }
+
+        try {
+            if (records > 2 * all.size() + COMPACTION_THRESHOLD) {
+                // the snapshot already reflects everything queued so far; replaying those records again is harmless
+                compact();
+            }
+
+            Record record;
+            while ((record = pending.poll()) != null) {
+                write(out, record);
+                ++records;
+            }
+
+            out.flush();
+            if (fsync) {
+                fileOut.getChannel().force(false);
+            }
+        } catch (IOException ioe) {
+            onException.accept(ioe);
+        }
+    }
+
+    /**
+     * Flushes any queued changes, closes the journal and releases the cookie folder. The store may not be used afterwards.
+     */
+    @Override
+    public void shutdown() {
+        live = false;
+        flusher.cancel(false);
+        stopSweeping();
+
+        synchronized (this) {
+            flush();
+            closeJournal();
+        }
+
+        FileBackedCookieStore.releaseControl(directory);
+    }
+
+    public void assertLive() {
+        if (!live) {
+            throw new IllegalStateException("You have already shutdown this cookie store");
+        }
+    }
+
+    private static void write(final DataOutputStream out, final Record record) throws IOException {
+        out.writeByte(record.op);
+        out.writeUTF(record.id);
+        if (record.op == ADD) {
+            out.writeShort(record.props.size());
+            for (final String name : record.props.stringPropertyNames()) {
+                out.writeUTF(name);
+                out.writeUTF(record.props.getProperty(name));
+            }
+        }
+    }
+
+    private Map<String, Properties> replay() {
+        final Map<String, Properties> found = new LinkedHashMap<>();
+        if (!journal.exists()) {
+            return found;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(journal)))) {
+            while (true) {
+                final int op = in.read();
+                if (op == -1) {
+                    break;
+                }
+
+                final String id = in.readUTF();
+                if (op == ADD) {
+                    final Properties props = new Properties();
+                    final int count = in.readUnsignedShort();
+                    for (int i = 0; i < count; ++i) {
+                        props.setProperty(in.readUTF(), in.readUTF());
+                    }
+
+                    found.put(id, props);
+                }
+                else {
+                    found.remove(id);
+                }
+
+                ++records;
+            }
+        } catch (EOFException eof) {
+            // a partially written trailing record, everything before it is intact
+            truncated = true;
+        } catch (IOException ioe) {
+            onException.accept(ioe);
+        }
+
+        return found;
+    }
+
+    // must hold the lock
+    private void compact() {
+        final List<Record> snapshot = new ArrayList<>();
+        for (final Map.Entry<Key, HttpCookie> entry : all.entrySet()) {
+            if (entry.getValue().getMaxAge() != -1L && !entry.getValue().hasExpired()) {
+                // the expiry is computed from the time the cookie was last stored, not from the key of its first insertion
+                final Key key = storedKey(entry.getKey());
+                snapshot.add(new Record(ADD, FileBackedCookieStore.fileName(key), FileBackedCookieStore.toProperties(key, entry.getValue())));
+            }
+        }
+
+        closeJournal();
+
+        final File temp = new File(directory, JOURNAL + ".tmp");
+        try {
+            try (FileOutputStream tempOut = new FileOutputStream(temp);
+                 DataOutputStream data = new DataOutputStream(new BufferedOutputStream(tempOut))) {
+                for (final Record record : snapshot) {
+                    write(data, record);
+                }
+
+                data.flush();
+                tempOut.getChannel().force(false);
+            }
+
+            Files.move(temp.toPath(), journal.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            records = snapshot.size();
+        } catch (IOException ioe) {
+            onException.accept(ioe);
+        }
+
+        open();
+    }
+
+    // must hold the lock
+    private void open() {
+        try {
+            fileOut = new FileOutputStream(journal, true);
+            out = new DataOutputStream(new BufferedOutputStream(fileOut));
+        } catch (IOException ioe) {
+            onException.accept(ioe);
+        }
+    }
+
+    // must hold the lock
+    private void closeJournal() {
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException ioe) {
+                onException.accept(ioe);
+            }
+
+            out = null;
+            fileOut = null;
+        }
+    }
+}
@@ -0,0 +1,268 @@
+/**
+ * Copyright (C) 2017 HttpBuilder-NG Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package groovyx.net.http;
+
+import groovy.json.JsonParserType;
+import groovy.json.JsonSlurper;
+import groovy.json.internal.Value;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.function.Consumer;
+
+/**
+ * Helpers for tuning the parsing of JSON response content.
+ *
+ * The standard JSON parser ({@link NativeHandlers.Parsers#json(ChainedHttpConfig, FromServer)}) uses the default `JsonSlurper` parser type. A
+ * {@link Context} registered for the JSON content types selects the parser type from the `Content-Length` of the response instead, e.g.
+ * {@link Context#BY_SIZE}:
+ *
+ * [source,groovy]
+ * ----
+ * def http = HttpBuilder.configure {
+ *     request.uri = 'http://localhost:10101'
+ *     context(ContentTypes.JSON, Json.Context.ID, Json.Context.BY_SIZE)
+ * }
+ * ----
+ *
+ * Note that the `INDEX_OVERLAY` parser type returns lazy maps and lists which hold on to the whole content buffer.
+ *
+ * Very large JSON arrays may be processed one element at a time, in bounded memory, rather than materialized as a whole:
+ *
+ * [source,groovy]
+ * ----
+ * long count = http.get(Long) {
+ *     request.uri.path = '/events'
+ *     Json.eachElement(delegate) { event ->
+ *         println event.name
+ *     }
+ * }
+ * ----
+ */
+public class Json {
+
+    private static final int BUFFER_SIZE = 8_192;
+
+    /**
+     * Selects the `JsonSlurper` parser type used for a response from its content length.
+     */
+    public static class Context {
+
+        public static final String ID = "Jxs9PT6u2K1CFEFHhVmLUbWcRjo=";
+
+        /**
+         * Uses the `JsonSlurper` default parser type whatever the content length; used when no context is registered.
+         */
+        public static final Context DEFAULT = new Context(JsonParserType.CHAR_BUFFER, JsonParserType.CHAR_BUFFER, Long.MAX_VALUE);
+
+        /**
+         * Uses `INDEX_OVERLAY` for content up to 2 MB, `CHARACTER_SOURCE` for larger content and the `JsonSlurper` default when the length is not
+         * known.
+         */
+        public static final Context BY_SIZE = new Context(JsonParserType.INDEX_OVERLAY, JsonParserType.CHARACTER_SOURCE, 2L * 1024L * 1024L);
+
+        private final JsonParserType small;
+        private final JsonParserType large;
+        private final long threshold;
+
+        /**
+         * Creates a context selecting the parser type from the content length.
+         *
+         * @param small the parser type used for content no longer than the threshold
+         * @param large the parser type used for content longer than the threshold
+         * @param threshold the content length (in bytes) separating small from large content
+         */
+        public Context(final JsonParserType small, final JsonParserType large, final long threshold) {
+            this.small = small;
+            this.large = large;
+            this.threshold = threshold;
+        }
+
+        public JsonParserType getSmall() {
+            return small;
+        }
+
+        public JsonParserType getLarge() {
+            return large;
+        }
+
+        public long getThreshold() {
+            return threshold;
+        }
+
+        /**
+         * Creates a `JsonSlurper` suited to content of the given length.
+         *
+         * @param contentLength the length of the content, `-1` if not known
+         * @return the configured `JsonSlurper`
+         */
+        public JsonSlurper slurper(final long contentLength) {
+            final JsonSlurper slurper = new JsonSlurper();
+            if (contentLength >= 0) {
+                slurper.setType(contentLength <= threshold ? small : large);
+            }
+
+            return slurper;
+        }
+    }
+
+    /**
+     * Retrieves the `JsonSlurper` configured for the response content.
+     *
+     * @param config the configuration
+     * @param fromServer the server content accessor
+     * @return the configured `JsonSlurper`
+     */
+    static JsonSlurper slurper(final ChainedHttpConfig config, final FromServer fromServer) {
+        final Object ctx = config.actualContext(fromServer.getContentType(), Context.ID);
+        return (ctx instanceof Context ? (Context) ctx : Context.DEFAULT).slurper(FromServer.Header.contentLength(fromServer.getHeaders()));
+    }
+
+    /**
+     * Configures the request to parse a JSON array response one element at a time, passing each parsed element to the consumer rather than
+     * building the whole array. Only a single element is held in memory at a time. The parsed result of the request is the number of elements (as
+     * a `Long`). A response which is not an array is passed to the consumer as a single element.
+     *
+     * @param config the `HttpConfig` instance
+     * @param consumer the consumer of the array elements
+     */
+    public static void eachElement(final HttpConfig config, final Consumer<Object> consumer) {
+        config.getResponse().parser(ContentTypes.JSON, (cfg, fs) -> {
+            final Object ctx = cfg.actualContext(fs.getContentType(), Context.ID);
+            final Context context = ctx instanceof Context ? (Context) ctx : Context.DEFAULT;
+            try (Reader reader = new InputStreamReader(fs.getInputStream(), fs.getCharset())) {
+                return eachElement(reader, context, consumer);
+            } catch (IOException ioe) {
+                throw new TransportingException(ioe);
+            }
+        });
+    }
+
+    /**
+     * Parses a JSON array one element at a time, passing each parsed element to the consumer.
+     *
+     * @param reader the JSON content
+     * @param context the context used to select the parser type of each element
+     * @param consumer the consumer of the array elements
+     * @return the number of elements
+     * @throws IOException if there is a problem reading the content
+     */
+    static long eachElement(final Reader reader, final Context context, final Consumer<Object> consumer) throws IOException {
+        final char[] buffer = new char[BUFFER_SIZE];
+        final StringBuilder element = new StringBuilder();
+
+        int length = reader.read(buffer);
+        int pos = 0;
+
+        // find the start of the content
+        while (length != -1) {
+            while (pos < length && Character.isWhitespace(buffer[pos])) {
+                ++pos;
+            }
+
+            if (pos < length) {
+                break;
+            }
+
+            length = reader.read(buffer);
+            pos = 0;
+        }
+
+        if (length == -1) {
+            return 0L;
+        }
+
+        if (buffer[pos] != '[') {
+            // not an array, the whole content is a single element
+            element.append(buffer, pos, length - pos);
+            while ((length = reader.read(buffer)) != -1) {
+                element.append(buffer, 0, length);
+            }
+
+            consumer.accept(parse(context, element));
+            return 1L;
+        }
+
+        ++pos;
+
+        long count = 0;
+        int depth = 0;
+        boolean inString = false;
+        boolean escaped = false;
+
+        while (length != -1) {
+            for (; pos < length; ++pos) {
+                final char c = buffer[pos];
+                if (inString) {
+                    if (escaped) {
+                        escaped = false;
+                    } else if (c == '\\') {
+                        escaped = true;
+                    } else if (c == '"') {
+                        inString = false;
+                    }
+                } else if (c == '"') {
+                    inString = true;
+                } else if (c == '{' || c == '[') {
+                    ++depth;
+                } else if ((c == '}' || c == ']') && depth > 0) {
+                    --depth;
+                } else if (depth == 0 && (c == ',' || c == ']')) {
+                    if (!isBlank(element)) {
+                        consumer.accept(parse(context, element));
+                        ++count;
+                    }
+
+                    element.setLength(0);
+                    if (c == ']') {
+                        return count;
+                    }
+
+                    continue;
+                }
+
+                element.append(c);
+            }
+
+            length = reader.read(buffer);
+            pos = 0;
+        }
+
+        throw new TransportingException(new IOException("Unterminated JSON array"));
+    }
+
+    private static Object parse(final Context context, final StringBuilder element) {
+        return value(context.slurper(element.length()).parseText(element.toString()));
+    }
+
+    /**
+     * The index-overlay parser leaves top-level scalar values as lazy index overlays, which are resolved here.
+     */
+    static Object value(final Object parsed) {
+        return parsed instanceof Value ? ((Value) parsed).toValue() : parsed;
+    }
+
+    private static boolean isBlank(final CharSequence chars) {
+        for (int i = 0; i < chars.length(); ++i) {
+            if (!Character.isWhitespace(chars.charAt(i))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,205 @@
+/**
+ * Copyright (C) 2017 HttpBuilder-NG Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package groovyx.net.http;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * An `InputStream` of the encoded {@link MultipartContent}, which produces the boundaries and part headers as it is read, rather than writing the
+ * whole body into memory. `File`, `Path`, `byte[]`, `InputStream` and `Reader` part content is read directly from its source; any other content
+ * is encoded up front by the encoder configured for the content type of the part.
+ *
+ * The length of the stream is known ahead of time, unless one of the parts is an `InputStream` or `Reader`.
+ */
+class MultipartInputStream extends InputStream {
+
+    private static final byte[] CRLF = {'\r', '\n'};
+
+    private final List<Segment> segments = new ArrayList<>();
+    private final Iterator<Segment> remaining;
+    private final long length;
+    private final byte[] single = new byte[1];
+    private InputStream current;
+
+    /**
+     * Creates the stream for the given content - no part content is read until the stream itself is read.
+     *
+     * @param config  the configuration of the request, providing the part encoders
+     * @param content the multipart content
+     */
+    MultipartInputStream(final ChainedHttpConfig config, final MultipartContent content) {
+        for (final MultipartContent.MultipartPart part : content.parts()) {
+            segments.add(Segment.of(headers(content.boundary(), part)));
+            segments.add(Segment.of(config, part));
+            segments.add(Segment.of(CRLF));
+        }
+        segments.add(Segment.of(("--" + content.boundary() + "--\r\n").getBytes(UTF_8)));
+
+        long total = 0;
+        for (final Segment segment : segments) {
+            if (segment.length < 0) {
+                total = -1;
+                break;
+            }
+            total += segment.length;
+        }
+
+        this.length = total;
+        this.remaining = segments.iterator();
+    }
+
+    /**
+     * Retrieves the total number of bytes in the stream.
+     *
+     * @return the length of the stream, or `-1` if it is not known
+     */
+    long getLength() {
+        return length;
+    }
+
+    @Override
+    public int read() throws IOException {
+        return read(single, 0, 1) == -1 ? -1 : single[0] & 0xff;
+    }
+
+    @Override
+    public int read(final byte[] bytes, final int off, final int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+
+        while (current != null || next()) {
+            final int read = current.read(bytes, off, len);
+            if (read != -1) {
+                return read;
+            }
+
+            current.close();
+            current = null;
+        }
+
+        return -1;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (current != null) {
+            current.close();
+            current = null;
+        }
+
+        // content handed over as an open stream or reader is closed, even if it was never read
+        while (remaining.hasNext()) {
+            remaining.next().discard();
+        }
+    }
+
+    private boolean next() throws IOException {
+        if (!remaining.hasNext()) {
+            return false;
+        }
+
+        current = remaining.next().open();
+        return true;
+    }
+
+    private static byte[] headers(final String boundary, final MultipartContent.MultipartPart part) {
+        final StringBuilder headers = new StringBuilder("--").append(boundary).append("\r\n");
+
+        if (part.getFileName() != null) {
+            headers.append(format("Content-Disposition: form-data; name=\"%s\"; filename=\"%s\"\r\n", part.getFieldName(), part.getFileName()));
+        } else {
+            headers.append(format("Content-Disposition: form-data; name=\"%s\"\r\n", part.getFieldName()));
+        }
+
+        headers.append("Content-Type: ").append(part.getContentType()).append("\r\n\r\n");
+
+        return headers.toString().getBytes(UTF_8);
+    }
+
+    /**
+     * A section of the multipart body, opened when the stream reaches it.
+     */
+    private static final class Segment {
+
+        private final Object source;
+        private final long length;
+        private final ChainedHttpConfig config;
+
+        private Segment(final Object source, final long length, final ChainedHttpConfig config) {
+            this.source = source;
+            this.length = length;
+            this.config = config;
+        }
+
+        static Segment of(final byte[] bytes) {
+            return new Segment(bytes, bytes.length, null);
+        }
+
+        static Segment of(final ChainedHttpConfig config, final MultipartContent.MultipartPart part) {
+            final Object content = part.getContent();
+            try {
+                if (content instanceof File) {
+                    return new Segment(content, ((File) content).length(), null);
+                } else if (content instanceof Path) {
+                    return new Segment(content, Files.size((Path) content), null);
+                } else if (content instanceof byte[]) {
+                    return of((byte[]) content);
+                } else if (content instanceof InputStream || content instanceof Reader) {
+                    return new Segment(content, -1, config);
+                } else {
+                    return of(EmbeddedEncoder.encode(config, part.getContentType(), content));
+                }
+            } catch (IOException ioe) {
+                throw new TransportingException(ioe);
+            }
+        }
+
+        InputStream open() throws IOException {
+            if (source instanceof byte[]) {
+                return new ByteArrayInputStream((byte[]) source);
+            } else if (source instanceof File) {
+                return new FileInputStream((File) source);
+            } else if (source instanceof Path) {
+                return Files.newInputStream((Path) source);
+            } else if (source instanceof Reader) {
+                return new ReaderInputStream((Reader) source, config.getChainedRequest().actualCharset());
+            } else {
+                return (InputStream) source;
+            }
+        }
+
+        void discard() throws IOException {
+            if (source instanceof Closeable) {
+                ((Closeable) source).close();
+            }
+        }
+    }
+}
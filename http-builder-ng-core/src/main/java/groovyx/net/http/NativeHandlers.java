@@ -16,26 +16,31 @@
 package groovyx.net.http;
 
 import groovy.json.JsonBuilder;
-import groovy.json.JsonSlurper;
 import groovy.lang.Closure;
 import groovy.lang.GString;
 import groovy.lang.Writable;
 import groovy.util.XmlSlurper;
 import groovy.util.slurpersupport.GPathResult;
+import groovy.xml.FactorySupport;
 import groovy.xml.StreamingMarkupBuilder;
 import groovyx.net.http.util.IoUtils;
+import groovyx.net.http.util.XmlReaders;
 import org.apache.xml.resolver.Catalog;
 import org.apache.xml.resolver.CatalogManager;
 import org.apache.xml.resolver.tools.CatalogResolver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
 
+import javax.xml.XMLConstants;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
 import java.io.*;
 import java.nio.CharBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
@@ -161,13 +166,18 @@ public class NativeHandlers {
 
             try {
                 if (body instanceof File) {
-                    ts.toServer(new FileInputStream((File) body));
+                    final File file = (File) body;
+                    ts.toServer(() -> new FileInputStream(file), file.length());
                     return true;
                 } else if (body instanceof Path) {
-                    ts.toServer(Files.newInputStream((Path) body));
+                    // a FileInputStream allows the content to be transferred through its FileChannel
+                    final Path path = (Path) body;
+                    final ToServer.Source source = path.getFileSystem() == FileSystems.getDefault() ?
+                        () -> new FileInputStream(path.toFile()) : () -> Files.newInputStream(path);
+                    ts.toServer(source, Files.size(path));
                     return true;
                 } else if (body instanceof byte[]) {
-                    ts.toServer(new ByteArrayInputStream((byte[]) body));
+                    ts.toServer(new ByteArrayInputStream((byte[]) body), ((byte[]) body).length);
                     return true;
                 } else if (body instanceof InputStream) {
                     ts.toServer((InputStream) body);
@@ -330,6 +340,12 @@ public class NativeHandlers {
          */
         public static CatalogResolver catalogResolver;
 
+        /**
+         * The pool of namespace-aware, non-validating SAX readers used by the {@link #xml(ChainedHttpConfig, FromServer)} parser; a new `XmlSlurper`
+         * is created around a pooled reader for each response.
+         */
+        static final XmlReaders xmlReaders = new XmlReaders(32, Parsers::xmlReader);
+
         static {
             CatalogManager catalogManager = new CatalogManager();
             catalogManager.setIgnoreMissingProperties(true);
@@ -353,9 +369,12 @@ public class NativeHandlers {
          * @return Raw bytes of body returned from http server
          */
         public static byte[] streamToBytes(final ChainedHttpConfig config, final FromServer fromServer) {
-            final ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            IoUtils.transfer(fromServer.getInputStream(), baos, true);
-            return baos.toByteArray();
+            // the length of encoded content is not the length of the decoded stream, but it is still a useful initial size
+            try {
+                return IoUtils.streamToBytes(fromServer.getInputStream(), FromServer.Header.contentLength(fromServer.getHeaders()), true);
+            } catch (IOException ioe) {
+                throw new TransportingException(ioe);
+            }
         }
 
         /**
@@ -400,24 +419,44 @@ public class NativeHandlers {
          */
         public static GPathResult xml(final ChainedHttpConfig config, final FromServer fromServer) {
             try {
-                final XmlSlurper xml = new XmlSlurper();
-                xml.setEntityResolver(catalogResolver);
-                xml.setFeature("http://apache.org/xml/features/disallow-doctype-decl", false);
-                xml.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
-                return xml.parse(new InputStreamReader(fromServer.getInputStream(), fromServer.getCharset()));
-            } catch (IOException | SAXException | ParserConfigurationException ex) {
+                return xmlReaders.parse(reader -> {
+                    reader.setEntityResolver(catalogResolver);
+                    return new XmlSlurper(reader).parse(new InputStreamReader(fromServer.getInputStream(), fromServer.getCharset()));
+                });
+            } catch (IOException | SAXException ex) {
                 throw new TransportingException(ex);
             }
         }
 
+        private static XMLReader xmlReader() throws SAXException {
+            try {
+                final SAXParserFactory factory = FactorySupport.createSaxParserFactory();
+                factory.setNamespaceAware(true);
+                factory.setValidating(false);
+                try {
+                    factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+                } catch (ParserConfigurationException | SAXException ex) {
+                    // not supported by the parser implementation, as with XmlSlurper
+                }
+
+                final XMLReader reader = factory.newSAXParser().getXMLReader();
+                reader.setFeature("http://apache.org/xml/features/disallow-doctype-decl", false);
+                reader.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+                return reader;
+            } catch (ParserConfigurationException ex) {
+                throw new SAXException(ex);
+            }
+        }
+
         /**
-         * Standard parser for json responses.
+         * Standard parser for json responses. The default `JsonSlurper` parser type is used, unless a {@link Json.Context} configured for the
+         * content type selects it from the `Content-Length` of the response.
          *
          * @param fromServer Backend indenpendent representation of data returned from http server
          * @return Body of response
          */
         public static Object json(final ChainedHttpConfig config, final FromServer fromServer) {
-            return new JsonSlurper().parse(new InputStreamReader(fromServer.getInputStream(), fromServer.getCharset()));
+            return Json.value(Json.slurper(config, fromServer).parse(fromServer.getInputStream(), fromServer.getCharset().name()));
         }
 
         /**
@@ -19,19 +19,51 @@ import java.net.CookieStore;
 import java.net.HttpCookie;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.lang.ref.WeakReference;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Map;
+import java.util.LinkedHashSet;
 import java.util.Objects;
+import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
-class NonBlockingCookieStore implements CookieStore {
+class NonBlockingCookieStore implements CookieStore, CookieStoreStatistics {
+
+    private final int capacity;
+    private final int perDomain;
+
+    NonBlockingCookieStore() {
+        this(0, 0);
+    }
+
+    /**
+     * Creates a cookie store holding at most `capacity` cookies in total and at most `perDomain` cookies for any single host or domain. When
+     * either limit is exceeded the oldest cookies (by the time they were last stored) are evicted. A limit of `0` means unlimited.
+     *
+     * @param capacity the maximum number of cookies held by the store
+     * @param perDomain the maximum number of cookies held for a single host or domain
+     */
+    NonBlockingCookieStore(final int capacity, final int perDomain) {
+        this.capacity = capacity;
+        this.perDomain = perDomain;
+    }
 
     //public cookie store api
     public void add(final URI uri, final HttpCookie cookie) {
@@ -49,13 +81,24 @@ class NonBlockingCookieStore implements CookieStore {
     }
 
     public List<HttpCookie> get(final URI uri) {
-        List<HttpCookie> ret = (all.entrySet()
-                                .stream()
-                                .filter(entry -> entryValid(entry) && matches(entry, uri))
-                                .map(Map.Entry::getValue)
-                                .distinct()
-                                .collect(Collectors.toList()));
-        return ret;
+        purgeExpired();
+
+        final String host = Key.forStorage(uri.getHost());
+        if(host == null) {
+            return new ArrayList<>();
+        }
+
+        final Set<HttpCookie> ret = new LinkedHashSet<>();
+        collect(host, uri, ret);
+        for(int dot = host.indexOf('.'); dot != -1; dot = host.indexOf('.', dot + 1)) {
+            collect(host.substring(dot + 1), uri, ret);
+        }
+
+        if(host.indexOf('.') == -1) {
+            collect(LOCAL, uri, ret);
+        }
+
+        return new ArrayList<>(ret);
     }
 
     public List<HttpCookie> getCookies() {
@@ -94,6 +137,12 @@ class NonBlockingCookieStore implements CookieStore {
     public boolean removeAll() {
         int initialSize = all.size();
         all.clear();
+        byHost.clear();
+        expirations.clear();
+        expirationsByKey.clear();
+        ages.clear();
+        modifications.incrementAndGet();
+        agesByKey.clear();
         return initialSize > 0;
     }
 
@@ -236,6 +285,300 @@ class NonBlockingCookieStore implements CookieStore {
 
     protected ConcurrentMap<Key,HttpCookie> all = new ConcurrentHashMap<>(100, 0.75f, 2);
 
+    private static final String LOCAL = "local";
+
+    // keys indexed by host (uri keys) or by domain without its leading dot (domain keys)
+    private final ConcurrentMap<String,Set<Key>> byHost = new ConcurrentHashMap<>(100, 0.75f, 2);
+
+    // expiring cookies, ordered by the time they expire
+    private final ConcurrentSkipListSet<Stamp> expirations = new ConcurrentSkipListSet<>();
+    private final ConcurrentMap<Key,Stamp> expirationsByKey = new ConcurrentHashMap<>(100, 0.75f, 2);
+
+    // all cookies, ordered by the time they were last stored
+    private final ConcurrentSkipListSet<Stamp> ages = new ConcurrentSkipListSet<>();
+    private final ConcurrentMap<Key,Stamp> agesByKey = new ConcurrentHashMap<>(100, 0.75f, 2);
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expired = new AtomicLong();
+    private final AtomicLong modifications = new AtomicLong();
+
+    private volatile ScheduledFuture<?> sweeper;
+
+    private static final class Stamp implements Comparable<Stamp> {
+        final long at;
+        final long sequence;
+        final Key key;
+
+        Stamp(final long at, final long sequence, final Key key) {
+            this.at = at;
+            this.sequence = sequence;
+            this.key = key;
+        }
+
+        @Override
+        public int compareTo(final Stamp rhs) {
+            final int cmp = Long.compare(at, rhs.at);
+            return cmp != 0 ? cmp : Long.compare(sequence, rhs.sequence);
+        }
+    }
+
+    private static String bucket(final Key key) {
+        if(key instanceof UriKey) {
+            final String host = ((UriKey) key).host;
+            return host == null ? "" : host;
+        }
+        else {
+            final String domain = Key.forStorage(((DomainKey) key).domain);
+            if(domain == null) {
+                return "";
+            }
+
+            return domain.startsWith(".") ? domain.substring(1) : domain;
+        }
+    }
+
+    private void collect(final String bucket, final URI uri, final Set<HttpCookie> found) {
+        final Set<Key> keys = byHost.get(bucket);
+        if(keys == null) {
+            return;
+        }
+
+        for(final Key key : keys) {
+            final HttpCookie cookie = all.get(key);
+            if(cookie != null && valid(key, cookie) && matches(key, cookie, uri)) {
+                found.add(cookie);
+            }
+        }
+    }
+
+    /**
+     * Removes all of the cookies which have expired, walking the expirations in time order and stopping at the first one still in the future.
+     */
+    protected void purgeExpired() {
+        final long now = System.currentTimeMillis();
+        Stamp next;
+        while(!expirations.isEmpty() && (next = expirations.first()).at <= now) {
+            if(expirations.remove(next)) {
+                final HttpCookie cookie = all.get(next.key);
+                if(cookie != null && !cookie.hasExpired()) {
+                    // not quite expired by the cookie's own (whole second) reckoning, check it again later
+                    final Stamp later = new Stamp(now + 1_000L, sequence.incrementAndGet(), next.key);
+                    if(expirationsByKey.replace(next.key, next, later)) {
+                        expirations.add(later);
+                    }
+                }
+                else if(cookie != null && remove(next.key)) {
+                    expired.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    private void expireAt(final Key key, final HttpCookie cookie) {
+        final Stamp previous;
+        if(cookie.getMaxAge() < 0) {
+            previous = expirationsByKey.remove(key);
+        }
+        else {
+            final Stamp expiration = new Stamp(expiresAt(System.currentTimeMillis(), cookie.getMaxAge()), sequence.incrementAndGet(), key);
+            previous = expirationsByKey.put(key, expiration);
+            expirations.add(expiration);
+        }
+
+        if(previous != null) {
+            expirations.remove(previous);
+        }
+    }
+
+    /**
+     * Computes when a cookie stored at the given time expires, in milliseconds. Max ages too large to be represented (a server may send any value
+     * that fits a `long`) expire at `Long.MAX_VALUE`, rather than overflowing into the past.
+     *
+     * @param now the current time in milliseconds
+     * @param maxAge the max age of the cookie in seconds (not negative)
+     * @return the expiration time in milliseconds
+     */
+    static long expiresAt(final long now, final long maxAge) {
+        if(maxAge > (Long.MAX_VALUE - now) / 1_000L - 1L) {
+            return Long.MAX_VALUE;
+        }
+
+        return now + (maxAge + 1L) * 1_000L;
+    }
+
+    /**
+     * Returns the key the cookie was last stored with. Replacing a cookie keeps the key of its first insertion in the map, so the creation time of
+     * that key may be stale; the expiration index holds the current one.
+     *
+     * @param key the key of a stored cookie
+     * @return the key the cookie was last stored with
+     */
+    Key storedKey(final Key key) {
+        final Stamp expiration = expirationsByKey.get(key);
+        return expiration != null ? expiration.key : key;
+    }
+
+    private void storedAt(final Key key) {
+        final long seq = sequence.incrementAndGet();
+        final Stamp age = new Stamp(seq, seq, key);
+        final Stamp previous = agesByKey.put(key, age);
+        ages.add(age);
+
+        if(previous != null) {
+            ages.remove(previous);
+        }
+    }
+
+    private void forget(final Key key) {
+        final Stamp expiration = expirationsByKey.remove(key);
+        if(expiration != null) {
+            expirations.remove(expiration);
+        }
+
+        final Stamp age = agesByKey.remove(key);
+        if(age != null) {
+            ages.remove(age);
+        }
+    }
+
+    private void evict(final Key key) {
+        if(remove(key)) {
+            evictions.incrementAndGet();
+        }
+    }
+
+    private void enforceLimits(final Key added) {
+        if(perDomain > 0) {
+            final Set<Key> keys = byHost.get(bucket(added));
+            while(keys != null && keys.size() > perDomain) {
+                final Key oldest = oldest(keys, added);
+                if(oldest == null) {
+                    break;
+                }
+
+                evict(oldest);
+            }
+        }
+
+        if(capacity > 0) {
+            Stamp next;
+            while(all.size() > capacity && (next = ages.pollFirst()) != null) {
+                if(next.key.equals(added)) {
+                    ages.add(next);
+                    break;
+                }
+
+                evict(next.key);
+            }
+        }
+    }
+
+    private Key oldest(final Set<Key> keys, final Key except) {
+        Stamp oldest = null;
+        for(final Key key : keys) {
+            final Stamp age = agesByKey.get(key);
+            if(age != null && !key.equals(except) && (oldest == null || age.compareTo(oldest) < 0)) {
+                oldest = age;
+            }
+        }
+
+        return oldest == null ? null : oldest.key;
+    }
+
+    /**
+     * Starts purging the expired cookies from this store at the given interval, on a shared daemon thread. The sweeper only holds a weak reference
+     * to the store, so it stops by itself once the store is no longer used.
+     *
+     * @param interval the time between sweeps
+     */
+    void sweepEvery(final Duration interval) {
+        stopSweeping();
+        sweeper = Sweeper.every(this, interval, NonBlockingCookieStore::purgeExpired);
+    }
+
+    /**
+     * Stops the periodic purging of expired cookies, if it was started.
+     */
+    void stopSweeping() {
+        final ScheduledFuture<?> current = sweeper;
+        if(current != null) {
+            current.cancel(false);
+            sweeper = null;
+        }
+    }
+
+    /**
+     * Releases the resources held by this store, which may not be used afterwards. Stores persisting their cookies also release their cookie folder.
+     */
+    void shutdown() {
+        stopSweeping();
+    }
+
+    static class Sweeper {
+        static final ScheduledExecutorService instance = Executors.newSingleThreadScheduledExecutor(r -> {
+            final Thread thread = new Thread(r, "http-builder-ng-cookies");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // runs the action against the target until the target is garbage collected or the returned future is cancelled
+        static <T> ScheduledFuture<?> every(final T target, final Duration interval, final Consumer<T> action) {
+            final WeakReference<T> ref = new WeakReference<>(target);
+            final long millis = interval.toMillis();
+            final AtomicReference<ScheduledFuture<?>> self = new AtomicReference<>();
+            self.set(instance.scheduleWithFixedDelay(() -> {
+                final T current = ref.get();
+                if(current == null) {
+                    self.get().cancel(false);
+                }
+                else {
+                    action.accept(current);
+                }
+            }, millis, millis, TimeUnit.MILLISECONDS));
+
+            return self.get();
+        }
+    }
+
+    /**
+     * Retrieves a counter which changes whenever a cookie is stored in or removed from this store.
+     *
+     * @return the current modification count
+     */
+    long getModifications() {
+        return modifications.get();
+    }
+
+    /**
+     * Retrieves the time (in epoch milliseconds) at which the next stored cookie may expire, or `Long.MAX_VALUE` if no stored cookie expires.
+     *
+     * @return the time of the next expiration
+     */
+    long nextExpiration() {
+        try {
+            return expirations.first().at;
+        }
+        catch(NoSuchElementException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    @Override
+    public int getSize() {
+        return all.size();
+    }
+
+    @Override
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    @Override
+    public long getExpirations() {
+        return expired.get();
+    }
+
     private static URI makeURI(final String domain) {
         try {
             return new URI("http", domain, null, null, null);
@@ -246,8 +589,15 @@ class NonBlockingCookieStore implements CookieStore {
     }
 
     public boolean entryValid(final Map.Entry<Key,HttpCookie> entry) {
-        if(entry.getValue().hasExpired()) {
-            remove(entry.getKey());
+        return valid(entry.getKey(), entry.getValue());
+    }
+
+    private boolean valid(final Key key, final HttpCookie cookie) {
+        if(cookie.hasExpired()) {
+            if(remove(key)) {
+                expired.incrementAndGet();
+            }
+
             return false;
         }
         else {
@@ -299,16 +649,15 @@ class NonBlockingCookieStore implements CookieStore {
         return false;
     }
 
-    private boolean matches(final Map.Entry<Key,HttpCookie> entry, final URI uri) {
-        final HttpCookie cookie = entry.getValue();
+    private boolean matches(final Key key, final HttpCookie cookie, final URI uri) {
         final boolean secureLink = "https".equalsIgnoreCase(uri.getScheme());
         if(!secureLink && cookie.getSecure()) {
             return false;
         }
         
         final String host = uri.getHost();
-        if(entry.getKey() instanceof UriKey) {
-            return ((UriKey) entry.getKey()).host.equalsIgnoreCase(host);
+        if(key instanceof UriKey) {
+            return ((UriKey) key).host.equalsIgnoreCase(host);
         }
         else {
             final String domain = cookie.getDomain();
@@ -322,10 +671,38 @@ class NonBlockingCookieStore implements CookieStore {
     }
 
     protected void add(final Key key, final HttpCookie cookie) {
-        all.put(key, cookie);
+        byHost.compute(bucket(key), (bucket, keys) -> {
+            final Set<Key> indexed = keys != null ? keys : ConcurrentHashMap.newKeySet();
+            all.put(key, cookie);
+            indexed.add(key);
+            expireAt(key, cookie);
+            storedAt(key);
+            modifications.incrementAndGet();
+            return indexed;
+        });
+
+        if(capacity > 0 || perDomain > 0) {
+            enforceLimits(key);
+        }
     }
 
     protected boolean remove(final Key key) {
-        return all.remove(key) != null;
+        final boolean[] removed = new boolean[1];
+        byHost.compute(bucket(key), (bucket, keys) -> {
+            removed[0] = all.remove(key) != null;
+            if(removed[0]) {
+                modifications.incrementAndGet();
+            }
+
+            forget(key);
+
+            if(keys != null) {
+                keys.remove(key);
+            }
+
+            return keys == null || keys.isEmpty() ? null : keys;
+        });
+
+        return removed[0];
     }
 }
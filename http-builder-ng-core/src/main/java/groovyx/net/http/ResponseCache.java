@@ -0,0 +1,861 @@
+/**
+ * Copyright (C) 2017 HttpBuilder-NG Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package groovyx.net.http;
+
+import groovyx.net.http.util.IoUtils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * A private HTTP cache for `GET` responses, shared by all of the {@link HttpBuilder} implementations. It honors the `Cache-Control`, `Expires`,
+ * `Date` and `Age` response headers to decide how long a response is fresh; fresh responses are served without touching the network. Stale responses
+ * carrying an `ETag` or `Last-Modified` header are revalidated with a conditional request (`If-None-Match` / `If-Modified-Since`), and a `304 Not
+ * Modified` answer is served from the cache.
+ *
+ * Responses are kept in an in-memory LRU tier bounded by a byte budget. When a disk directory is given, entries evicted from memory are moved to a
+ * disk tier with its own byte budget, from which they are promoted back into memory when used again.
+ *
+ * [source,groovy]
+ * ----
+ * def http = HttpBuilder.configure {
+ *     request.uri = 'http://localhost:10101'
+ *     client.responseCache = new ResponseCache(16 * 1024 * 1024, new File('/tmp/http-cache'), 256 * 1024 * 1024)
+ * }
+ * ----
+ *
+ * Responses larger than a quarter of the memory budget are not cached. Unsafe requests (`POST`, `PUT`, `PATCH` and `DELETE`) invalidate the cached
+ * response of their URI.
+ */
+public class ResponseCache {
+
+    static final String ID = "ResponseCache.Exchange";
+
+    private static final String ANY = ContentTypes.ANY.getAt(0);
+    private static final int DISK_VERSION = 1;
+    private static final long HEURISTIC_LIMIT = 24L * 60L * 60L * 1_000L;
+
+    private final long memoryBytes;
+    private final long maxEntryBytes;
+    private final File directory;
+    private final long diskBytes;
+    private final AtomicLong diskUsed = new AtomicLong();
+    private volatile boolean cacheParsed;
+
+    // guarded by itself
+    private final LinkedHashMap<String, Entry> memory = new LinkedHashMap<>(64, 0.75f, true);
+    private long memoryUsed;
+
+    /**
+     * Creates an in-memory response cache.
+     *
+     * @param memoryBytes the maximum number of bytes held in memory
+     */
+    public ResponseCache(final long memoryBytes) {
+        this(memoryBytes, null, 0L);
+    }
+
+    /**
+     * Creates a response cache with an in-memory tier and a disk tier.
+     *
+     * @param memoryBytes the maximum number of bytes held in memory
+     * @param directory the directory holding the disk tier (created if needed)
+     * @param diskBytes the maximum number of bytes held on disk
+     */
+    public ResponseCache(final long memoryBytes, final File directory, final long diskBytes) {
+        if (memoryBytes <= 0) {
+            throw new IllegalArgumentException("Memory Bytes must be positive");
+        }
+
+        this.memoryBytes = memoryBytes;
+        this.maxEntryBytes = memoryBytes / 4;
+        this.directory = directory;
+        this.diskBytes = diskBytes;
+
+        if (directory != null) {
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                throw new IllegalArgumentException("Unable to create cache directory: " + directory);
+            }
+
+            final File[] files = directory.listFiles();
+            if (files != null) {
+                for (final File file : files) {
+                    diskUsed.addAndGet(file.length());
+                }
+            }
+        }
+    }
+
+    /**
+     * Used to also cache the parsed response body, so that a response served from the cache is not parsed again by the same parser. Since every
+     * caller then receives the same parsed object, it must not be modified. Defaults to `false`.
+     *
+     * @param val true to cache parsed response bodies
+     */
+    public void setCacheParsed(final boolean val) {
+        this.cacheParsed = val;
+    }
+
+    /**
+     * Retrieves whether parsed response bodies are cached.
+     *
+     * @return true if parsed response bodies are cached
+     */
+    public boolean getCacheParsed() {
+        return cacheParsed;
+    }
+
+    /**
+     * Retrieves the number of bytes currently held in memory.
+     *
+     * @return the bytes held in memory
+     */
+    public long getMemoryUsed() {
+        synchronized (memory) {
+            return memoryUsed;
+        }
+    }
+
+    /**
+     * Retrieves the number of bytes currently held on disk.
+     *
+     * @return the bytes held on disk
+     */
+    public long getDiskUsed() {
+        return diskUsed.get();
+    }
+
+    /**
+     * Removes all of the cached responses, from memory and from disk.
+     */
+    public void clear() {
+        synchronized (memory) {
+            memory.clear();
+            memoryUsed = 0;
+        }
+
+        if (directory != null) {
+            final File[] files = directory.listFiles();
+            if (files != null) {
+                for (final File file : files) {
+                    deleteFile(file);
+                }
+            }
+        }
+    }
+
+    /**
+     * Registers the cache exchange for a request, called once the request has been configured. A `GET` request is matched against the cache and
+     * made conditional if a stale response with validators was found; an unsafe request will invalidate the cached response of its URI.
+     */
+    void prepare(final ChainedHttpConfig config) {
+        final ChainedHttpConfig.ChainedRequest request = config.getChainedRequest();
+        final HttpVerb verb = request.getVerb();
+        if (verb == HttpVerb.GET) {
+            final Map<String, CharSequence> headers = request.actualHeaders(new TreeMap<>(String.CASE_INSENSITIVE_ORDER));
+            final Map<String, String> directives = directives(headers.get("Cache-Control"));
+            if (directives.containsKey("no-store") || headers.containsKey("Range")) {
+                return;
+            }
+
+            final URI uri = uri(request);
+            if (uri == null) {
+                return;
+            }
+
+            final Entry entry = lookup(key(uri), headers);
+            final boolean revalidate = directives.containsKey("no-cache") || "0".equals(directives.get("max-age"));
+            final Exchange exchange = new Exchange(this, uri, headers, entry, revalidate);
+
+            if (entry != null && !exchange.isFresh()) {
+                if (entry.etag != null) {
+                    request.getHeaders().put("If-None-Match", entry.etag);
+                }
+
+                if (entry.lastModified != null) {
+                    request.getHeaders().put("If-Modified-Since", entry.lastModified);
+                }
+            }
+
+            config.context(ANY, ID, exchange);
+        } else if (verb == HttpVerb.POST || verb == HttpVerb.PUT || verb == HttpVerb.PATCH || verb == HttpVerb.DELETE) {
+            final URI uri = uri(request);
+            if (uri != null) {
+                config.context(ANY, ID, new Exchange(this, uri, null, null, true));
+            }
+        }
+    }
+
+    /**
+     * Retrieves the cache exchange registered for the request, if any.
+     */
+    static Exchange exchange(final ChainedHttpConfig config) {
+        final Object found = config.actualContext(ANY, ID);
+        return found instanceof Exchange ? (Exchange) found : null;
+    }
+
+    /**
+     * Passes the response of a request through its cache exchange, if it has one: a `304 Not Modified` answer is replaced by the cached response,
+     * a cacheable response is stored and the response of an unsafe request invalidates the cached response of its URI.
+     */
+    static FromServer complete(final ChainedHttpConfig config, final FromServer fromServer) {
+        final Exchange exchange = fromServer instanceof CachedFromServer ? null : exchange(config);
+        return exchange == null ? fromServer : exchange.complete(fromServer);
+    }
+
+    /**
+     * Parses the response body, reusing the parsed body of a cached response when parsed bodies are cached.
+     */
+    static Object parse(final ChainedHttpConfig config, final FromServer fromServer, final BiFunction<ChainedHttpConfig, FromServer, Object> parser) {
+        if (fromServer instanceof CachedFromServer) {
+            final CachedFromServer cached = (CachedFromServer) fromServer;
+            if (cached.cache.cacheParsed) {
+                return cached.entry.parsed(parser, () -> parser.apply(config, fromServer));
+            }
+        }
+
+        return parser.apply(config, fromServer);
+    }
+
+    static final class Exchange {
+        private final ResponseCache cache;
+        private final URI uri;
+        private final Map<String, CharSequence> requestHeaders;
+        private final Entry entry;
+        private final boolean revalidate;
+        private final long requestTime = System.currentTimeMillis();
+
+        private Exchange(final ResponseCache cache, final URI uri, final Map<String, CharSequence> requestHeaders, final Entry entry, final boolean revalidate) {
+            this.cache = cache;
+            this.uri = uri;
+            this.requestHeaders = requestHeaders;
+            this.entry = entry;
+            this.revalidate = revalidate;
+        }
+
+        /**
+         * Determines whether the request can be answered from the cache, without touching the network.
+         */
+        boolean isFresh() {
+            return entry != null && !revalidate && entry.isFresh(System.currentTimeMillis());
+        }
+
+        FromServer cached() {
+            return new CachedFromServer(cache, entry, uri);
+        }
+
+        private FromServer complete(final FromServer fromServer) {
+            final int status = fromServer.getStatusCode();
+            if (requestHeaders == null) {
+                if (status < 400) {
+                    cache.invalidate(key(uri));
+                }
+
+                return fromServer;
+            }
+
+            if (status == 304 && entry != null) {
+                fromServer.finish();
+                final Entry refreshed = entry.refreshed(fromServer.getHeaders(), requestTime, System.currentTimeMillis());
+                cache.store(refreshed);
+                return new CachedFromServer(cache, refreshed, uri);
+            }
+
+            if (status != 200 || !storable(fromServer.getHeaders())) {
+                return fromServer;
+            }
+
+            final long length = FromServer.Header.contentLength(fromServer.getHeaders());
+            if (length > cache.maxEntryBytes) {
+                return fromServer;
+            }
+
+            try {
+                final InputStream inputStream = fromServer.getHasBody() ? fromServer.getInputStream() : new ByteArrayInputStream(new byte[0]);
+                final int expected = length != -1L ? (int) Math.min(length, Integer.MAX_VALUE - 8) : 1_024;
+                final ByteArrayOutputStream bytes = new ByteArrayOutputStream(expected);
+                final byte[] buffer = IoUtils.borrowBuffer();
+                try {
+                    int read;
+                    while ((read = inputStream.read(buffer)) != -1) {
+                        bytes.write(buffer, 0, read);
+                        if (bytes.size() > cache.maxEntryBytes) {
+                            // too large to be cached, hand over what was read so far followed by the rest of the stream
+                            return new Streaming(fromServer, new SequenceInputStream(new ByteArrayInputStream(bytes.toByteArray()), inputStream));
+                        }
+                    }
+                } finally {
+                    IoUtils.returnBuffer(buffer);
+                }
+
+                fromServer.finish();
+
+                final Entry stored = Entry.from(key(uri), fromServer, vary(fromServer.getHeaders(), requestHeaders), bytes.toByteArray(),
+                    requestTime, System.currentTimeMillis());
+                if (stored != null) {
+                    cache.store(stored);
+                    return new CachedFromServer(cache, stored, uri);
+                }
+
+                return new CachedFromServer(cache, Entry.uncached(fromServer, bytes.toByteArray()), uri);
+
+            } catch (IOException ioe) {
+                throw new TransportingException(ioe);
+            }
+        }
+    }
+
+    private static boolean storable(final List<FromServer.Header<?>> headers) {
+        final Map<String, String> directives = directives(value(headers, "Cache-Control"));
+        if (directives.containsKey("no-store")) {
+            return false;
+        }
+
+        final String vary = value(headers, "Vary");
+        if (vary != null && vary.trim().equals("*")) {
+            return false;
+        }
+
+        return (directives.containsKey("max-age") || value(headers, "Expires") != null ||
+            value(headers, "ETag") != null || value(headers, "Last-Modified") != null);
+    }
+
+    private static Map<String, String> vary(final List<FromServer.Header<?>> headers, final Map<String, CharSequence> requestHeaders) {
+        final String vary = value(headers, "Vary");
+        if (vary == null) {
+            return Collections.emptyMap();
+        }
+
+        final Map<String, String> values = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (final String name : vary.split(",")) {
+            if (!name.trim().isEmpty()) {
+                final CharSequence found = requestHeaders.get(name.trim());
+                values.put(name.trim(), found == null ? "" : found.toString());
+            }
+        }
+
+        return values;
+    }
+
+    static Map<String, String> directives(final CharSequence header) {
+        if (header == null) {
+            return Collections.emptyMap();
+        }
+
+        final Map<String, String> directives = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (final String directive : header.toString().split(",")) {
+            final int equals = directive.indexOf('=');
+            if (equals == -1) {
+                if (!directive.trim().isEmpty()) {
+                    directives.put(directive.trim(), "");
+                }
+            } else {
+                directives.put(directive.substring(0, equals).trim(), directive.substring(equals + 1).trim().replace("\"", ""));
+            }
+        }
+
+        return directives;
+    }
+
+    private static String value(final List<FromServer.Header<?>> headers, final String name) {
+        final FromServer.Header<?> header = FromServer.Header.find(headers, name);
+        return header == null ? null : header.getValue();
+    }
+
+    private static long seconds(final String value) {
+        try {
+            return value == null ? -1L : Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+
+    private static long date(final String value) {
+        if (value == null) {
+            return -1L;
+        }
+
+        try {
+            return ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+        } catch (RuntimeException e) {
+            return -1L;
+        }
+    }
+
+    private static URI uri(final ChainedHttpConfig.ChainedRequest request) {
+        try {
+            return request.getUri().toURI();
+        } catch (URISyntaxException e) {
+            return null;
+        }
+    }
+
+    private static String key(final URI uri) {
+        final String str = uri.toString();
+        final int hash = str.indexOf('#');
+        return hash == -1 ? str : str.substring(0, hash);
+    }
+
+    private Entry lookup(final String key, final Map<String, CharSequence> requestHeaders) {
+        Entry entry;
+        synchronized (memory) {
+            entry = memory.get(key);
+        }
+
+        if (entry == null && directory != null) {
+            entry = readFile(key);
+            if (entry != null) {
+                store(entry);
+            }
+        }
+
+        return entry != null && entry.matches(requestHeaders) ? entry : null;
+    }
+
+    private void store(final Entry entry) {
+        final List<Entry> evicted = new ArrayList<>();
+        synchronized (memory) {
+            final Entry previous = memory.put(entry.key, entry);
+            if (previous != null) {
+                memoryUsed -= previous.size();
+            }
+
+            memoryUsed += entry.size();
+
+            final Iterator<Entry> it = memory.values().iterator();
+            while (memoryUsed > memoryBytes && it.hasNext()) {
+                final Entry eldest = it.next();
+                it.remove();
+                memoryUsed -= eldest.size();
+                evicted.add(eldest);
+            }
+        }
+
+        if (directory != null) {
+            for (final Entry eldest : evicted) {
+                writeFile(eldest);
+            }
+        }
+    }
+
+    private void invalidate(final String key) {
+        synchronized (memory) {
+            final Entry previous = memory.remove(key);
+            if (previous != null) {
+                memoryUsed -= previous.size();
+            }
+        }
+
+        if (directory != null) {
+            deleteFile(file(key));
+        }
+    }
+
+    private File file(final String key) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-1").digest(key.getBytes(StandardCharsets.UTF_8));
+            final StringBuilder name = new StringBuilder(digest.length * 2);
+            for (final byte b : digest) {
+                name.append(String.format("%02x", b));
+            }
+
+            return new File(directory, name.toString());
+
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void deleteFile(final File file) {
+        final long length = file.length();
+        if (file.delete()) {
+            diskUsed.addAndGet(-length);
+        }
+    }
+
+    private void writeFile(final Entry entry) {
+        if (entry.size() > diskBytes) {
+            return;
+        }
+
+        final File file = file(entry.key);
+        final long previous = file.length();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            entry.write(out);
+        } catch (IOException ioe) {
+            deleteFile(file);
+            return;
+        }
+
+        if (diskUsed.addAndGet(file.length() - previous) > diskBytes) {
+            trimDisk();
+        }
+    }
+
+    private synchronized void trimDisk() {
+        final File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+
+        Arrays.sort(files, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+        for (int i = 0; i < files.length && diskUsed.get() > diskBytes; ++i) {
+            deleteFile(files[i]);
+        }
+    }
+
+    private Entry readFile(final String key) {
+        final File file = file(key);
+        if (!file.exists()) {
+            return null;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            final Entry entry = Entry.read(in);
+            return key.equals(entry.key) ? entry : null;
+        } catch (IOException ioe) {
+            deleteFile(file);
+            return null;
+        }
+    }
+
+    private static final class Entry {
+        final String key;
+        final int status;
+        final String message;
+        final List<String[]> headers;
+        final Map<String, String> vary;
+        final byte[] body;
+        final long requestTime;
+        final long responseTime;
+        final String etag;
+        final String lastModified;
+
+        private volatile Object parsedBy;
+        private volatile Object parsed;
+
+        private Entry(final String key, final int status, final String message, final List<String[]> headers, final Map<String, String> vary,
+                      final byte[] body, final long requestTime, final long responseTime) {
+            this.key = key;
+            this.status = status;
+            this.message = message;
+            this.headers = headers;
+            this.vary = vary;
+            this.body = body;
+            this.requestTime = requestTime;
+            this.responseTime = responseTime;
+            this.etag = header("ETag");
+            this.lastModified = header("Last-Modified");
+        }
+
+        static Entry from(final String key, final FromServer fromServer, final Map<String, String> vary, final byte[] body, final long requestTime,
+                          final long responseTime) {
+            return new Entry(key, fromServer.getStatusCode(), fromServer.getMessage(), copy(fromServer.getHeaders(), body.length), vary, body,
+                requestTime, responseTime);
+        }
+
+        static Entry uncached(final FromServer fromServer, final byte[] body) {
+            return from(null, fromServer, Collections.emptyMap(), body, 0L, 0L);
+        }
+
+        private static List<String[]> copy(final List<FromServer.Header<?>> headers, final int length) {
+            final List<String[]> copy = new ArrayList<>(headers.size());
+            for (final FromServer.Header<?> header : headers) {
+                if (header.getKey() != null && !header.getKey().equalsIgnoreCase("Content-Length") &&
+                    !header.getKey().equalsIgnoreCase("Transfer-Encoding")) {
+                    copy.add(new String[]{header.getKey(), header.getValue()});
+                }
+            }
+
+            copy.add(new String[]{"Content-Length", Integer.toString(length)});
+            return copy;
+        }
+
+        Entry refreshed(final List<FromServer.Header<?>> updates, final long requestTime, final long responseTime) {
+            final Map<String, String> replaced = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            for (final FromServer.Header<?> update : updates) {
+                if (update.getKey() != null && !update.getKey().equalsIgnoreCase("Content-Length") &&
+                    !update.getKey().equalsIgnoreCase("Transfer-Encoding")) {
+                    replaced.put(update.getKey(), update.getValue());
+                }
+            }
+
+            final List<String[]> merged = new ArrayList<>(headers.size());
+            for (final String[] header : headers) {
+                if (!replaced.containsKey(header[0])) {
+                    merged.add(header);
+                }
+            }
+
+            for (final Map.Entry<String, String> update : replaced.entrySet()) {
+                merged.add(new String[]{update.getKey(), update.getValue()});
+            }
+
+            final Entry entry = new Entry(key, status, message, merged, vary, body, requestTime, responseTime);
+            entry.parsedBy = parsedBy;
+            entry.parsed = parsed;
+            return entry;
+        }
+
+        String header(final String name) {
+            for (final String[] header : headers) {
+                if (header[0].equalsIgnoreCase(name)) {
+                    return header[1];
+                }
+            }
+
+            return null;
+        }
+
+        boolean matches(final Map<String, CharSequence> requestHeaders) {
+            for (final Map.Entry<String, String> varied : vary.entrySet()) {
+                final CharSequence found = requestHeaders.get(varied.getKey());
+                if (!varied.getValue().equals(found == null ? "" : found.toString())) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        boolean isFresh(final long now) {
+            final Map<String, String> directives = directives(header("Cache-Control"));
+            if (directives.containsKey("no-cache")) {
+                return false;
+            }
+
+            // RFC 7234, section 4.2
+            final long date = date(header("Date"));
+            final long apparentAge = date == -1L ? 0L : Math.max(0L, responseTime - date);
+            final long ageValue = Math.max(0L, seconds(header("Age"))) * 1_000L;
+            final long correctedInitialAge = Math.max(apparentAge, ageValue + (responseTime - requestTime));
+            final long currentAge = correctedInitialAge + (now - responseTime);
+
+            return lifetime(directives, date) > currentAge;
+        }
+
+        private long lifetime(final Map<String, String> directives, final long date) {
+            final long maxAge = seconds(directives.get("max-age"));
+            if (maxAge >= 0) {
+                return maxAge * 1_000L;
+            }
+
+            final long expires = date(header("Expires"));
+            if (header("Expires") != null) {
+                return expires == -1L ? 0L : expires - (date == -1L ? responseTime : date);
+            }
+
+            final long modified = date(lastModified);
+            if (modified != -1L) {
+                // heuristic freshness, a tenth of the time since the last modification
+                return Math.min(HEURISTIC_LIMIT, Math.max(0L, ((date == -1L ? responseTime : date) - modified) / 10L));
+            }
+
+            return 0L;
+        }
+
+        long size() {
+            long size = body.length + key.length();
+            for (final String[] header : headers) {
+                size += header[0].length() + header[1].length();
+            }
+
+            return size;
+        }
+
+        Object parsed(final Object parser, final Supplier<Object> parse) {
+            if (parsedBy == parser) {
+                return parsed;
+            }
+
+            final Object result = parse.get();
+            if (!(result instanceof FromServer.Streamed)) {
+                parsed = result;
+                parsedBy = parser;
+            }
+            return result;
+        }
+
+        void write(final DataOutputStream out) throws IOException {
+            out.writeInt(DISK_VERSION);
+            out.writeUTF(key);
+            out.writeInt(status);
+            out.writeUTF(message == null ? "" : message);
+            out.writeLong(requestTime);
+            out.writeLong(responseTime);
+
+            out.writeInt(headers.size());
+            for (final String[] header : headers) {
+                out.writeUTF(header[0]);
+                out.writeUTF(header[1] == null ? "" : header[1]);
+            }
+
+            out.writeInt(vary.size());
+            for (final Map.Entry<String, String> varied : vary.entrySet()) {
+                out.writeUTF(varied.getKey());
+                out.writeUTF(varied.getValue());
+            }
+
+            out.writeInt(body.length);
+            out.write(body);
+        }
+
+        static Entry read(final DataInputStream in) throws IOException {
+            if (in.readInt() != DISK_VERSION) {
+                throw new IOException("Unsupported cache entry version");
+            }
+
+            final String key = in.readUTF();
+            final int status = in.readInt();
+            final String message = in.readUTF();
+            final long requestTime = in.readLong();
+            final long responseTime = in.readLong();
+
+            final int headerCount = in.readInt();
+            final List<String[]> headers = new ArrayList<>(headerCount);
+            for (int i = 0; i < headerCount; ++i) {
+                headers.add(new String[]{in.readUTF(), in.readUTF()});
+            }
+
+            final int varyCount = in.readInt();
+            final Map<String, String> vary = varyCount == 0 ? Collections.emptyMap() : new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            for (int i = 0; i < varyCount; ++i) {
+                vary.put(in.readUTF(), in.readUTF());
+            }
+
+            final byte[] body = new byte[in.readInt()];
+            in.readFully(body);
+
+            return new Entry(key, status, message, headers, vary, body, requestTime, responseTime);
+        }
+    }
+
+    private static final class CachedFromServer implements FromServer {
+        private final ResponseCache cache;
+        private final Entry entry;
+        private final URI uri;
+        private final List<Header<?>> headers;
+        private final InputStream inputStream;
+
+        CachedFromServer(final ResponseCache cache, final Entry entry, final URI uri) {
+            this.cache = cache;
+            this.entry = entry;
+            this.uri = uri;
+            this.inputStream = new ByteArrayInputStream(entry.body);
+
+            final List<Header<?>> tmp = new ArrayList<>(entry.headers.size());
+            for (final String[] header : entry.headers) {
+                tmp.add(Header.keyValue(header[0], header[1]));
+            }
+
+            this.headers = Collections.unmodifiableList(tmp);
+        }
+
+        public InputStream getInputStream() {
+            return inputStream;
+        }
+
+        public int getStatusCode() {
+            return entry.status;
+        }
+
+        public String getMessage() {
+            return entry.message;
+        }
+
+        public List<Header<?>> getHeaders() {
+            return headers;
+        }
+
+        public boolean getHasBody() {
+            return entry.body.length > 0;
+        }
+
+        public URI getUri() {
+            return uri;
+        }
+
+        public void finish() {
+            // nothing to release
+        }
+    }
+
+    private static final class Streaming implements FromServer {
+        private final FromServer delegate;
+        private final InputStream inputStream;
+
+        Streaming(final FromServer delegate, final InputStream inputStream) {
+            this.delegate = delegate;
+            this.inputStream = inputStream;
+        }
+
+        public InputStream getInputStream() {
+            return inputStream;
+        }
+
+        public int getStatusCode() {
+            return delegate.getStatusCode();
+        }
+
+        public String getMessage() {
+            return delegate.getMessage();
+        }
+
+        public List<Header<?>> getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        public boolean getHasBody() {
+            return true;
+        }
+
+        public URI getUri() {
+            return delegate.getUri();
+        }
+
+        public void finish() {
+            delegate.finish();
+        }
+    }
+}
@@ -15,6 +15,7 @@
  */
 package groovyx.net.http;
 
+import java.io.IOException;
 import java.io.InputStream;
 
 /**
@@ -29,4 +30,44 @@ public interface ToServer {
      * @param inputStream the request input stream to be translated.
      */
     void toServer(InputStream inputStream);
+
+    /**
+     * Translates the request content appropriately for the underlying client implementation, when the length of the content is known up front
+     * (e.g. a `File`, `Path` or `byte[]` body). Client implementations may use the length to stream the content with a `Content-Length` header
+     * rather than buffering it; the default implementation ignores the length and delegates to {@link #toServer(InputStream)}.
+     *
+     * @param inputStream the request input stream to be translated.
+     * @param contentLength the number of bytes in the stream
+     */
+    default void toServer(InputStream inputStream, long contentLength) {
+        toServer(inputStream);
+    }
+
+    /**
+     * Translates request content which can be read more than once (e.g. a `File` or `Path` body). Each call of the `source` opens a new stream over
+     * the whole content, so client implementations may keep the source to send the content again (e.g. in answer to an authentication challenge);
+     * the default implementation opens the content once and delegates to {@link #toServer(InputStream, long)}.
+     *
+     * @param source opens a new stream over the request content
+     * @param contentLength the number of bytes in the content
+     * @throws IOException if the content cannot be opened
+     */
+    default void toServer(Source source, long contentLength) throws IOException {
+        toServer(source.open(), contentLength);
+    }
+
+    /**
+     * Source of request content which can be opened more than once.
+     */
+    @FunctionalInterface
+    interface Source {
+
+        /**
+         * Opens a new stream over the content.
+         *
+         * @return the content stream
+         * @throws IOException if the content cannot be opened
+         */
+        InputStream open() throws IOException;
+    }
 }
@@ -0,0 +1,371 @@
+/**
+ * Copyright (C) 2017 HttpBuilder-NG Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package groovyx.net.http;
+
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Thread-safe collections which count every modification made to them - through their own methods, their views or their iterators - so that a
+ * configuration knows when a snapshot taken of it is stale, no matter how long ago the collection reference was obtained. The count is incremented
+ * after the modification has been applied.
+ */
+final class TrackedCollections {
+
+    private TrackedCollections() { }
+
+    /**
+     * Creates a `ConcurrentHashMap`-backed map counting its modifications.
+     *
+     * @param modifications the modification counter
+     * @return the created map
+     */
+    static <K, V> ConcurrentMap<K, V> map(final AtomicInteger modifications) {
+        return new TrackedMap<>(modifications);
+    }
+
+    /**
+     * Creates a `CopyOnWriteArrayList`-backed list counting its modifications. As with the backing list, its iterators do not support modification.
+     *
+     * @param modifications the modification counter
+     * @return the created list
+     */
+    static <E> List<E> list(final AtomicInteger modifications) {
+        return new TrackedList<>(modifications);
+    }
+
+    private static final class TrackedMap<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V> {
+
+        private final ConcurrentMap<K, V> delegate = new ConcurrentHashMap<>();
+        private final AtomicInteger modifications;
+        private final Set<Map.Entry<K, V>> entrySet = new EntrySet();
+
+        private TrackedMap(final AtomicInteger modifications) {
+            this.modifications = modifications;
+        }
+
+        private <T> T modified(final T result) {
+            modifications.incrementAndGet();
+            return result;
+        }
+
+        @Override
+        public int size() {
+            return delegate.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return delegate.isEmpty();
+        }
+
+        @Override
+        public boolean containsKey(final Object key) {
+            return delegate.containsKey(key);
+        }
+
+        @Override
+        public boolean containsValue(final Object value) {
+            return delegate.containsValue(value);
+        }
+
+        @Override
+        public V get(final Object key) {
+            return delegate.get(key);
+        }
+
+        @Override
+        public V getOrDefault(final Object key, final V defaultValue) {
+            return delegate.getOrDefault(key, defaultValue);
+        }
+
+        @Override
+        public V put(final K key, final V value) {
+            return modified(delegate.put(key, value));
+        }
+
+        @Override
+        public void putAll(final Map<? extends K, ? extends V> map) {
+            delegate.putAll(map);
+            modified(null);
+        }
+
+        @Override
+        public V remove(final Object key) {
+            final V removed = delegate.remove(key);
+            return removed != null ? modified(removed) : null;
+        }
+
+        @Override
+        public void clear() {
+            delegate.clear();
+            modified(null);
+        }
+
+        @Override
+        public V putIfAbsent(final K key, final V value) {
+            final V existing = delegate.putIfAbsent(key, value);
+            return existing == null ? modified(null) : existing;
+        }
+
+        @Override
+        public boolean remove(final Object key, final Object value) {
+            return delegate.remove(key, value) && modified(true);
+        }
+
+        @Override
+        public boolean replace(final K key, final V oldValue, final V newValue) {
+            return delegate.replace(key, oldValue, newValue) && modified(true);
+        }
+
+        @Override
+        public V replace(final K key, final V value) {
+            final V replaced = delegate.replace(key, value);
+            return replaced != null ? modified(replaced) : null;
+        }
+
+        @Override
+        public void replaceAll(final BiFunction<? super K, ? super V, ? extends V> function) {
+            delegate.replaceAll(function);
+            modified(null);
+        }
+
+        @Override
+        public V computeIfAbsent(final K key, final Function<? super K, ? extends V> function) {
+            return modified(delegate.computeIfAbsent(key, function));
+        }
+
+        @Override
+        public V computeIfPresent(final K key, final BiFunction<? super K, ? super V, ? extends V> function) {
+            return modified(delegate.computeIfPresent(key, function));
+        }
+
+        @Override
+        public V compute(final K key, final BiFunction<? super K, ? super V, ? extends V> function) {
+            return modified(delegate.compute(key, function));
+        }
+
+        @Override
+        public V merge(final K key, final V value, final BiFunction<? super V, ? super V, ? extends V> function) {
+            return modified(delegate.merge(key, value, function));
+        }
+
+        @Override
+        public Set<Map.Entry<K, V>> entrySet() {
+            return entrySet;
+        }
+
+        // the key and value views of AbstractMap are built on this view, so their modifications are counted as well
+        private final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+
+            @Override
+            public int size() {
+                return delegate.size();
+            }
+
+            @Override
+            public Iterator<Map.Entry<K, V>> iterator() {
+                final Iterator<Map.Entry<K, V>> iterator = delegate.entrySet().iterator();
+                return new Iterator<Map.Entry<K, V>>() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public Map.Entry<K, V> next() {
+                        final Map.Entry<K, V> entry = iterator.next();
+                        return new SimpleEntry<K, V>(entry) {
+                            @Override
+                            public V setValue(final V value) {
+                                super.setValue(value);
+                                return modified(entry.setValue(value));
+                            }
+                        };
+                    }
+
+                    @Override
+                    public void remove() {
+                        iterator.remove();
+                        modified(null);
+                    }
+                };
+            }
+
+            @Override
+            public void clear() {
+                TrackedMap.this.clear();
+            }
+        }
+    }
+
+    private static final class TrackedList<E> extends AbstractList<E> implements RandomAccess {
+
+        private final List<E> delegate = new CopyOnWriteArrayList<>();
+        private final AtomicInteger modifications;
+
+        private TrackedList(final AtomicInteger modifications) {
+            this.modifications = modifications;
+        }
+
+        private <T> T modified(final T result) {
+            modifications.incrementAndGet();
+            return result;
+        }
+
+        @Override
+        public int size() {
+            return delegate.size();
+        }
+
+        @Override
+        public E get(final int index) {
+            return delegate.get(index);
+        }
+
+        @Override
+        public boolean contains(final Object o) {
+            return delegate.contains(o);
+        }
+
+        @Override
+        public int indexOf(final Object o) {
+            return delegate.indexOf(o);
+        }
+
+        @Override
+        public int lastIndexOf(final Object o) {
+            return delegate.lastIndexOf(o);
+        }
+
+        @Override
+        public Object[] toArray() {
+            return delegate.toArray();
+        }
+
+        @Override
+        public <T> T[] toArray(final T[] array) {
+            return delegate.toArray(array);
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return delegate.iterator();
+        }
+
+        @Override
+        public ListIterator<E> listIterator() {
+            return delegate.listIterator();
+        }
+
+        @Override
+        public ListIterator<E> listIterator(final int index) {
+            return delegate.listIterator(index);
+        }
+
+        @Override
+        public E set(final int index, final E element) {
+            return modified(delegate.set(index, element));
+        }
+
+        @Override
+        public boolean add(final E element) {
+            return modified(delegate.add(element));
+        }
+
+        @Override
+        public void add(final int index, final E element) {
+            delegate.add(index, element);
+            modified(null);
+        }
+
+        @Override
+        public E remove(final int index) {
+            return modified(delegate.remove(index));
+        }
+
+        @Override
+        public boolean remove(final Object o) {
+            return delegate.remove(o) && modified(true);
+        }
+
+        @Override
+        public boolean addAll(final Collection<? extends E> elements) {
+            return delegate.addAll(elements) && modified(true);
+        }
+
+        @Override
+        public boolean addAll(final int index, final Collection<? extends E> elements) {
+            return delegate.addAll(index, elements) && modified(true);
+        }
+
+        @Override
+        public boolean removeAll(final Collection<?> elements) {
+            return delegate.removeAll(elements) && modified(true);
+        }
+
+        @Override
+        public boolean retainAll(final Collection<?> elements) {
+            return delegate.retainAll(elements) && modified(true);
+        }
+
+        @Override
+        public boolean removeIf(final Predicate<? super E> filter) {
+            return delegate.removeIf(filter) && modified(true);
+        }
+
+        @Override
+        public void replaceAll(final UnaryOperator<E> operator) {
+            delegate.replaceAll(operator);
+            modified(null);
+        }
+
+        @Override
+        public void sort(final Comparator<? super E> comparator) {
+            delegate.sort(comparator);
+            modified(null);
+        }
+
+        @Override
+        public void clear() {
+            delegate.clear();
+            modified(null);
+        }
+
+        @Override
+        protected void removeRange(final int fromIndex, final int toIndex) {
+            delegate.subList(fromIndex, toIndex).clear();
+            modified(null);
+        }
+    }
+}
@@ -23,7 +23,7 @@ import java.net.HttpCookie;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -367,10 +367,49 @@ public abstract class UriBuilder {
         return new ThreadSafe(parent);
     }
 
+    /**
+     * Creates a thread-safe `UriBuilder` from the provided parent builder, counting each of its modifications with the given counter.
+     *
+     * @param parent the `UriBuilder` parent
+     * @param modifications the modification counter
+     * @return the created `UriBuilder`
+     */
+    static UriBuilder threadSafe(final UriBuilder parent, final AtomicInteger modifications) {
+        return new ThreadSafe(parent, modifications);
+    }
+
     public static UriBuilder root() {
         return new ThreadSafe(null);
     }
 
+    /**
+     * Creates a (not thread-safe) `UriBuilder` without a parent, holding the values resolved through the parent chain of the given builder. The
+     * resulting builder produces the same `URI` as the given builder, without traversing its parents.
+     *
+     * @param builder the builder to be flattened
+     * @return the flattened `UriBuilder`
+     */
+    static UriBuilder flattened(final UriBuilder builder) {
+        final UriBuilder flat = new Basic(null);
+        flat.setScheme(traverse(builder, UriBuilder::getParent, UriBuilder::getScheme, Traverser::notNull));
+
+        final Integer port = traverse(builder, UriBuilder::getParent, UriBuilder::getPort, notValue(DEFAULT_PORT));
+        flat.setPort(port == null ? DEFAULT_PORT : port);
+
+        flat.setHost(traverse(builder, UriBuilder::getParent, UriBuilder::getHost, Traverser::notNull));
+        flat.setPath(traverse(builder, UriBuilder::getParent, UriBuilder::getPath, Traverser::notNull));
+        flat.setQuery(traverse(builder, UriBuilder::getParent, UriBuilder::getQuery, Traverser::nonEmptyMap));
+        flat.setFragment(traverse(builder, UriBuilder::getParent, UriBuilder::getFragment, Traverser::notNull));
+        flat.setUserInfo(traverse(builder, UriBuilder::getParent, UriBuilder::getUserInfo, Traverser::notNull));
+
+        final Boolean useRaw = traverse(builder, UriBuilder::getParent, UriBuilder::getUseRawValues, Traverser::notNull);
+        if (useRaw != null) {
+            flat.setUseRawValues(useRaw);
+        }
+
+        return flat;
+    }
+
     private static final class Basic extends UriBuilder {
         private String scheme;
 
@@ -467,6 +506,7 @@ public abstract class UriBuilder {
 
         public UriBuilder setScheme(String val) {
             scheme = val;
+            modified();
             return this;
         }
 
@@ -478,6 +518,7 @@ public abstract class UriBuilder {
 
         public UriBuilder setPort(int val) {
             port = val;
+            modified();
             return this;
         }
 
@@ -489,6 +530,7 @@ public abstract class UriBuilder {
 
         public UriBuilder setHost(String val) {
             host = val;
+            modified();
             return this;
         }
 
@@ -500,6 +542,7 @@ public abstract class UriBuilder {
 
         public UriBuilder setPath(GString val) {
             path = val;
+            modified();
             return this;
         }
 
@@ -507,7 +550,7 @@ public abstract class UriBuilder {
             return path;
         }
 
-        private Map<String, Object> query = new ConcurrentHashMap<>();
+        private final Map<String, Object> query;
 
         public UriBuilder setQuery(Map<String, ?> val) {
             query.putAll(val);
@@ -522,6 +565,7 @@ public abstract class UriBuilder {
 
         public UriBuilder setFragment(String val) {
             fragment = val;
+            modified();
             return this;
         }
 
@@ -533,6 +577,7 @@ public abstract class UriBuilder {
 
         public UriBuilder setUserInfo(String val) {
             userInfo = val;
+            modified();
             return this;
         }
 
@@ -546,8 +591,26 @@ public abstract class UriBuilder {
             return parent;
         }
 
+        private final AtomicInteger modifications;
+
         public ThreadSafe(final UriBuilder parent) {
+            this(parent, new AtomicInteger());
+        }
+
+        ThreadSafe(final UriBuilder parent, final AtomicInteger modifications) {
             this.parent = parent;
+            this.modifications = modifications;
+            this.query = TrackedCollections.map(modifications);
+        }
+
+        @Override
+        public void setUseRawValues(final boolean useRaw) {
+            super.setUseRawValues(useRaw);
+            modified();
+        }
+
+        private void modified() {
+            modifications.incrementAndGet();
         }
     }
 }
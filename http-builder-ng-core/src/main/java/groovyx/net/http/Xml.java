@@ -0,0 +1,349 @@
+/**
+ * Copyright (C) 2017 HttpBuilder-NG Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package groovyx.net.http;
+
+import groovy.util.slurpersupport.GPathResult;
+import groovy.util.slurpersupport.NamespaceAwareHashMap;
+import groovy.util.slurpersupport.Node;
+import groovy.util.slurpersupport.NodeChild;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Helpers for streaming the parsing of large XML response content.
+ *
+ * Rather than building a `GPathResult` for the whole document, the response is read with a StAX `XMLStreamReader` and only the elements found at
+ * a given path are built, one at a time, each as its own `GPathResult`. The path is made up of the local names of the elements from the document
+ * root, separated by `/`, where `*` matches any element (e.g. `/feed/entry`).
+ *
+ * [source,groovy]
+ * ----
+ * Xml.Elements entries = http.get(Xml.Elements) {
+ *     request.uri.path = '/feed'
+ *     Xml.elements(delegate, '/feed/entry')
+ * }
+ *
+ * entries.withCloseable {
+ *     entries.each { entry -> println entry.title }
+ * }
+ * ----
+ *
+ * Alternately, the elements may be passed to a consumer while the response is being read:
+ *
+ * [source,groovy]
+ * ----
+ * long count = http.get(Long) {
+ *     request.uri.path = '/feed'
+ *     Xml.eachElement(delegate, '/feed/entry') { entry ->
+ *         println entry.title
+ *     }
+ * }
+ * ----
+ */
+public class Xml {
+
+    private static final XMLInputFactory factory = inputFactory();
+
+    /**
+     * Configures the request to parse XML responses lazily, as the {@link Elements} found at the given path.
+     *
+     * @param config the `HttpConfig` instance
+     * @param path the path of the elements
+     */
+    public static void elements(final HttpConfig config, final String path) {
+        config.getResponse().parser(ContentTypes.XML, (cfg, fs) -> elements(fs, path));
+    }
+
+    /**
+     * Configures the request to parse XML responses one element at a time, passing each element found at the given path to the consumer. Only a
+     * single element is held in memory at a time. The parsed result of the request is the number of elements (as a `Long`).
+     *
+     * @param config the `HttpConfig` instance
+     * @param path the path of the elements
+     * @param consumer the consumer of the elements
+     */
+    public static void eachElement(final HttpConfig config, final String path, final Consumer<GPathResult> consumer) {
+        config.getResponse().parser(ContentTypes.XML, (cfg, fs) -> {
+            try (Elements elements = elements(fs, path)) {
+                long count = 0;
+                while (elements.hasNext()) {
+                    consumer.accept(elements.next());
+                    ++count;
+                }
+                return count;
+            }
+        });
+    }
+
+    /**
+     * Reads the elements found at the given path of the response content lazily. The response remains open until the returned {@link Elements}
+     * have been read to the end or closed.
+     *
+     * @param fromServer the server content accessor
+     * @param path the path of the elements
+     * @return the lazily-read elements
+     */
+    public static Elements elements(final FromServer fromServer, final String path) {
+        try {
+            final InputStream inputStream = fromServer.getInputStream();
+            return new Elements(factory.createXMLStreamReader(inputStream, fromServer.getCharset().name()), inputStream, fromServer, path);
+        } catch (XMLStreamException ex) {
+            throw new TransportingException(ex);
+        }
+    }
+
+    private static XMLInputFactory inputFactory() {
+        final XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    /**
+     * Lazily-read elements of an XML response, each built as a `GPathResult` from a StAX `XMLStreamReader`. The elements are read from the response
+     * as they are iterated; the response is finished once the last element has been read, or when the elements are closed. Elements which are not
+     * read to the end must be closed.
+     */
+    public static final class Elements implements Iterator<GPathResult>, FromServer.Streamed {
+
+        private final XMLStreamReader reader;
+        private final InputStream inputStream;
+        private final FromServer fromServer;
+        private final String[] path;
+
+        // the namespaces in scope, and for each open element the bindings its declarations have replaced (null when there was none)
+        private final Map<String, String> namespaces = new HashMap<>();
+        private final Deque<Map<String, String>> scopes = new ArrayDeque<>();
+        private int depth;
+        private int matched;
+        private GPathResult next;
+        private boolean closed;
+
+        private Elements(final XMLStreamReader reader, final InputStream inputStream, final FromServer fromServer, final String path) {
+            this.reader = reader;
+            this.inputStream = inputStream;
+            this.fromServer = fromServer;
+            this.path = (path.startsWith("/") ? path.substring(1) : path).split("/");
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next != null) {
+                return true;
+            }
+
+            if (closed) {
+                return false;
+            }
+
+            try {
+                next = advance();
+            } catch (XMLStreamException ex) {
+                close();
+                throw new TransportingException(ex);
+            }
+
+            if (next == null) {
+                close();
+                return false;
+            }
+
+            return true;
+        }
+
+        @Override
+        public GPathResult next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            final GPathResult result = next;
+            next = null;
+            return result;
+        }
+
+        /**
+         * Provides the remaining elements as a sequential `Stream`; closing the stream closes the elements.
+         *
+         * @return the stream of elements
+         */
+        public Stream<GPathResult> stream() {
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(this::close);
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+
+            closed = true;
+            next = null;
+            try {
+                reader.close();
+                inputStream.close();
+            } catch (XMLStreamException | IOException ex) {
+                // the response is finished regardless
+            } finally {
+                fromServer.finish();
+            }
+        }
+
+        private GPathResult advance() throws XMLStreamException {
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                    case XMLStreamConstants.START_ELEMENT:
+                        ++depth;
+                        startScope(null);
+
+                        if (matched == depth - 1 && depth <= path.length && matches(path[depth - 1], reader.getLocalName())) {
+                            matched = depth;
+
+                            if (matched == path.length) {
+                                // the namespaces in scope at the element, and those declared within it
+                                final Map<String, String> hints = new HashMap<>(namespaces);
+                                final Node element = element(null, hints);
+                                endScope();
+                                --depth;
+                                --matched;
+                                return new NodeChild(element, null, hints);
+                            }
+                        }
+                        break;
+
+                    case XMLStreamConstants.END_ELEMENT:
+                        endScope();
+                        if (matched == depth) {
+                            --matched;
+                        }
+                        --depth;
+                        break;
+
+                    default:
+                        break;
+                }
+            }
+
+            return null;
+        }
+
+        // builds the current element and its content, in the same way as XmlSlurper, leaving the reader on its end tag
+        private Node element(final Node parent, final Map<String, String> hints) throws XMLStreamException {
+            final Map<String, String> attributes = new NamespaceAwareHashMap();
+            final Map<String, String> attributeNamespaces = new HashMap<>();
+            for (int i = 0; i < reader.getAttributeCount(); ++i) {
+                final String name = reader.getAttributeLocalName(i);
+                attributes.put(name, reader.getAttributeValue(i));
+
+                final String uri = reader.getAttributeNamespace(i);
+                if (uri != null && !uri.isEmpty()) {
+                    attributeNamespaces.put(name, uri);
+                }
+            }
+
+            final String uri = reader.getNamespaceURI();
+            final Node node = new Node(parent, reader.getLocalName(), attributes, attributeNamespaces, uri == null ? "" : uri);
+            final StringBuilder text = new StringBuilder();
+
+            while (true) {
+                switch (reader.next()) {
+                    case XMLStreamConstants.START_ELEMENT:
+                        addText(node, text);
+                        startScope(hints);
+                        node.addChild(element(node, hints));
+                        endScope();
+                        break;
+
+                    case XMLStreamConstants.CHARACTERS:
+                    case XMLStreamConstants.CDATA:
+                    case XMLStreamConstants.SPACE:
+                        text.append(reader.getText());
+                        break;
+
+                    case XMLStreamConstants.END_ELEMENT:
+                        addText(node, text);
+                        return node;
+
+                    default:
+                        break;
+                }
+            }
+        }
+
+        // brings the namespaces declared by the current element into scope, also adding them to the hints (if any)
+        private void startScope(final Map<String, String> hints) {
+            final Map<String, String> replaced = new HashMap<>();
+            for (int i = 0; i < reader.getNamespaceCount(); ++i) {
+                final String prefix = reader.getNamespacePrefix(i) == null ? "" : reader.getNamespacePrefix(i);
+                final String uri = reader.getNamespaceURI(i);
+                if (!replaced.containsKey(prefix)) {
+                    replaced.put(prefix, namespaces.get(prefix));
+                }
+
+                namespaces.put(prefix, uri);
+                if (hints != null) {
+                    hints.put(prefix, uri);
+                }
+            }
+
+            scopes.push(replaced);
+        }
+
+        // restores the namespaces in scope before the element which is ending
+        private void endScope() {
+            for (final Map.Entry<String, String> binding : scopes.pop().entrySet()) {
+                if (binding.getValue() == null) {
+                    namespaces.remove(binding.getKey());
+                } else {
+                    namespaces.put(binding.getKey(), binding.getValue());
+                }
+            }
+        }
+
+        private static void addText(final Node node, final StringBuilder text) {
+            if (text.length() != 0) {
+                final String content = text.toString();
+                text.setLength(0);
+
+                if (content.trim().length() != 0) {
+                    node.addChild(content);
+                }
+            }
+        }
+
+        private static boolean matches(final String name, final String localName) {
+            return name.equals("*") || name.equals(localName);
+        }
+    }
+}
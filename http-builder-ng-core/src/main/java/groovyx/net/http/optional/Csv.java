@@ -20,22 +20,45 @@ import com.opencsv.CSVWriter;
 import groovyx.net.http.ChainedHttpConfig;
 import groovyx.net.http.FromServer;
 import groovyx.net.http.HttpConfig;
+import groovyx.net.http.ReaderInputStream;
 import groovyx.net.http.ToServer;
 import groovyx.net.http.TransportingException;
 
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static groovyx.net.http.NativeHandlers.Encoders.*;
 
 /**
  * Optional CSV encoder/parser implementation based on the [OpenCSV](http://opencsv.sourceforge.net/) library. It will be available when the OpenCsv
  * library is on the classpath (an optional dependency).
+ *
+ * Request rows are written to the server as they are pulled from the body (an `Iterable` or `Iterator` of `String[]`), so that large uploads do not
+ * need to be held in memory. Large responses may be read lazily, one row at a time, as {@link Rows}:
+ *
+ * [source,groovy]
+ * ----
+ * Csv.Rows rows = http.get(Csv.Rows) {
+ *     request.uri.path = '/export.csv'
+ *     Csv.rows(delegate)
+ * }
+ *
+ * rows.withCloseable {
+ *     rows.each { String[] row -> println row[0] }
+ * }
+ * ----
  */
 public class Csv {
 
@@ -106,7 +129,22 @@ public class Csv {
     }
 
     /**
-     * Used to encode the request content using the OpenCsv writer.
+     * Used to parse the server response content lazily, one row at a time. The response remains open until the returned {@link Rows} have been
+     * read to the end or closed. The `Csv.Context` configured for the content type is used, or {@link Context#DEFAULT_CSV} when there is none.
+     *
+     * @param config the configuration
+     * @param fromServer the server content accessor
+     * @return the lazily-read rows
+     */
+    public static Rows rows(final ChainedHttpConfig config, final FromServer fromServer) {
+        final Object ctx = config.actualContext(fromServer.getContentType(), Csv.Context.ID);
+        final Csv.Context context = ctx instanceof Csv.Context ? (Csv.Context) ctx : Context.DEFAULT_CSV;
+        return new Rows(context.makeReader(new InputStreamReader(fromServer.getInputStream(), fromServer.getCharset())), fromServer);
+    }
+
+    /**
+     * Used to encode the request content using the OpenCsv writer. The body is an `Iterable` or `Iterator` of `String[]` rows; the rows are written
+     * as the request content is sent, rather than all at once.
      *
      * @param config the configuration
      * @param ts the server request content accessor
@@ -119,16 +157,151 @@ public class Csv {
         final ChainedHttpConfig.ChainedRequest request = config.getChainedRequest();
         final Csv.Context ctx = (Csv.Context) config.actualContext(request.actualContentType(), Csv.Context.ID);
         final Object body = checkNull(request.actualBody());
-        checkTypes(body, new Class[]{Iterable.class});
-        final StringWriter writer = new StringWriter();
-        final CSVWriter csvWriter = ctx.makeWriter(new StringWriter());
+        checkTypes(body, new Class[]{Iterable.class, Iterator.class});
+
+        final Iterator<?> rows = body instanceof Iterable ? ((Iterable<?>) body).iterator() : (Iterator<?>) body;
+        try {
+            ts.toServer(new ReaderInputStream(new RowReader(ctx, rows), request.actualCharset()));
+        } catch (IOException e) {
+            throw new TransportingException(e);
+        }
+    }
+
+    /**
+     * Configures the request to parse responses with the `text/csv` content type lazily, as {@link Rows}.
+     *
+     * @param delegate the configuration object
+     */
+    public static void rows(final HttpConfig delegate) {
+        rows(delegate, "text/csv");
+    }
+
+    /**
+     * Configures the request to parse responses with the specified content type lazily, as {@link Rows}.
+     *
+     * @param delegate the configuration object
+     * @param contentType the content type to be registered
+     */
+    public static void rows(final HttpConfig delegate, final String contentType) {
+        delegate.getResponse().parser(contentType, Csv::rows);
+    }
+
+    /**
+     * Lazily-read rows of a CSV response. The rows are read from the response as they are iterated; the response is finished once the last row has
+     * been read, or when the rows are closed. Rows which are not read to the end must be closed.
+     */
+    public static final class Rows implements Iterator<String[]>, FromServer.Streamed {
+
+        private final CSVReader reader;
+        private final FromServer fromServer;
+        private String[] next;
+        private boolean closed;
 
-        Iterable<?> iterable = (Iterable<?>) body;
-        for (Object o : iterable) {
-            csvWriter.writeNext((String[]) o);
+        private Rows(final CSVReader reader, final FromServer fromServer) {
+            this.reader = reader;
+            this.fromServer = fromServer;
         }
 
-        ts.toServer(stringToStream(writer.toString(), request.actualCharset()));
+        @Override
+        public boolean hasNext() {
+            if (next != null) {
+                return true;
+            }
+
+            if (closed) {
+                return false;
+            }
+
+            try {
+                next = reader.readNext();
+            } catch (IOException e) {
+                close();
+                throw new TransportingException(e);
+            }
+
+            if (next == null) {
+                close();
+                return false;
+            }
+
+            return true;
+        }
+
+        @Override
+        public String[] next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            final String[] row = next;
+            next = null;
+            return row;
+        }
+
+        /**
+         * Provides the remaining rows as a sequential `Stream`; closing the stream closes the rows.
+         *
+         * @return the stream of rows
+         */
+        public Stream<String[]> stream() {
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(this::close);
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+
+            closed = true;
+            next = null;
+            try {
+                reader.close();
+            } catch (IOException e) {
+                // the response is finished regardless
+            } finally {
+                fromServer.finish();
+            }
+        }
+    }
+
+    // produces the CSV text of the rows as it is read, one row at a time
+    private static final class RowReader extends Reader {
+
+        private final Iterator<?> rows;
+        private final StringWriter row = new StringWriter();
+        private final CSVWriter writer;
+        private int position;
+
+        private RowReader(final Context context, final Iterator<?> rows) {
+            this.rows = rows;
+            this.writer = context.makeWriter(row);
+        }
+
+        @Override
+        public int read(final char[] chars, final int offset, final int length) throws IOException {
+            final StringBuffer buffer = row.getBuffer();
+            while (position == buffer.length()) {
+                if (!rows.hasNext()) {
+                    return -1;
+                }
+
+                buffer.setLength(0);
+                position = 0;
+                writer.writeNext((String[]) rows.next());
+                writer.flush();
+            }
+
+            final int count = Math.min(length, buffer.length() - position);
+            buffer.getChars(position, position + count, chars, offset);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
     }
 
     /**
@@ -15,18 +15,36 @@
  */
 package groovyx.net.http.optional;
 
+import groovy.lang.Closure;
+import groovy.lang.DelegatesTo;
 import groovyx.net.http.ChainedHttpConfig;
 import groovyx.net.http.ContentTypes;
 import groovyx.net.http.FromServer;
+import groovyx.net.http.HttpBuilder;
 import groovyx.net.http.HttpConfig;
 import groovyx.net.http.TransportingException;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import static groovyx.net.http.util.IoUtils.transfer;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
 
 /**
  * Helper methods used to assist in downloading remote content.
@@ -43,10 +61,23 @@ import static groovyx.net.http.util.IoUtils.transfer;
  * `Closure` delegate, which in our case is an instance of `HttpConfig`.
  *
  * Any other configuration of the builder must be done in the `configure` closure.
+ *
+ * Large content may be downloaded in segments, over several concurrent connections, from servers which support byte range requests:
+ *
+ * [source,groovy]
+ * ----
+ * File file = Download.toFile(http, new File('foo.zip'), 4) {
+ *     request.uri.path = '/download/foo.zip'
+ * }
+ * ----
  */
 public class Download {
 
     private static final String ID = "LdazOKMfPTGymyyz5eLb/djgY3A=";
+    private static final String SEGMENT_ID = "kQ2oVbSLgSJdJ6uZfm0cA6YH8Jk=";
+    private static final String RESUMABLE_ID = "8cA1pr1XxvOYbWGhV0mcIQxXqKU=";
+    private static final long CHECKPOINT_BYTES = 1024L * 1024L;
+    private static final Pattern CONTENT_RANGE = Pattern.compile("bytes\\s+(\\d+)-(\\d+)/(\\d+|\\*)");
 
     /**
      * Downloads the content to a temporary file (*.tmp in the system temp directory).
@@ -116,10 +147,410 @@ public class Download {
         config.getResponse().parser(contentType, Download::streamParser);
     }
 
-    private static File fileParser(final ChainedHttpConfig config, final FromServer fs) {
+    /**
+     * Downloads the content to a specified file, resuming a previously interrupted download of the same content where it stopped.
+     *
+     * While the content is received, a checkpoint of its progress and validator (the `ETag` or `Last-Modified` of the response) is kept in a sidecar
+     * file next to the downloaded file (see {@link #checkpointFile(File)}). When a checkpoint is found, only the remaining bytes are requested, with
+     * `Range` and `If-Range` headers; the partial file is appended to when the server confirms that the content is unchanged (a `206` response), and
+     * is replaced otherwise. The checkpoint is removed once the download is complete. Content without a validator is not resumable.
+     *
+     * [source,groovy]
+     * ----
+     * File file = http.get {
+     *     request.uri.path = '/download/foo.zip'
+     *     Download.toResumableFile(delegate, new File('foo.zip'))
+     * }
+     * ----
+     *
+     * @param config the `HttpConfig` instance
+     * @param file the file where content will be downloaded
+     */
+    public static void toResumableFile(final HttpConfig config, final File file) {
+        toResumableFile(config, ContentTypes.ANY.getAt(0), file);
+    }
+
+    /**
+     * Downloads the content to a specified file with the specified content type, resuming a previously interrupted download, see
+     * {@link #toResumableFile(HttpConfig, File)}.
+     *
+     * @param config the `HttpConfig` instance
+     * @param contentType the content type
+     * @param file the file where content will be downloaded
+     */
+    public static void toResumableFile(final HttpConfig config, final String contentType, final File file) {
+        final Checkpoint checkpoint = Checkpoint.load(file);
+        if (checkpoint != null) {
+            config.getRequest().getHeaders().put("Range", "bytes=" + checkpoint.written + "-");
+            config.getRequest().getHeaders().put("If-Range", checkpoint.validator);
+        }
+
+        config.getRequest().getHeaders().put("Accept-Encoding", "identity");
+        config.context(contentType, RESUMABLE_ID, new Resumable(file, checkpoint != null ? checkpoint.written : 0));
+        config.getResponse().parser(contentType, Download::resumableParser);
+    }
+
+    /**
+     * Provides the sidecar file holding the download checkpoint of the given file.
+     *
+     * @param file the downloaded file
+     * @return the checkpoint file
+     */
+    public static File checkpointFile(final File file) {
+        return new File(file.getPath() + ".checkpoint");
+    }
+
+    private static File resumableParser(final ChainedHttpConfig config, final FromServer fs) {
+        final Resumable resumable = (Resumable) config.actualContext(fs.getContentType(), RESUMABLE_ID);
         try {
-            final File file = (File) config.actualContext(fs.getContentType(), ID);
-            transfer(fs.getInputStream(), new FileOutputStream(file), true);
+            resumable.receive(fs);
+            return resumable.file;
+        } catch (IOException e) {
+            throw new TransportingException(e);
+        }
+    }
+
+    /**
+     * Downloads the content to a specified file in segments, using concurrent byte range GET requests executed on the executor of the builder (see
+     * `HttpObjectConfig.Execution#setMaxThreads(int)`). A first request for a single byte determines the length of the content; the file is then
+     * allocated at that length and each segment is written at its offset as it is received. Every segment is verified against its `Content-Range`
+     * and the validator (`ETag` or `Last-Modified`) of the first response is sent as `If-Range`, so that a change of the content during the download
+     * fails it rather than corrupting the file.
+     *
+     * When the server does not support range requests, the whole content is received by the first request, on a single connection.
+     *
+     * @param http the builder used for the requests
+     * @param file the file where content will be downloaded
+     * @param segments the maximum number of segments
+     * @param configuration the configuration of each request
+     * @return the downloaded file
+     */
+    public static File toFile(final HttpBuilder http, final File file, final int segments, final Consumer<HttpConfig> configuration) {
+        if (segments < 1) {
+            throw new IllegalArgumentException("Segments must be positive");
+        }
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(0);
+            final FileChannel channel = raf.getChannel();
+
+            final Segment probe = http.get(Segment.class, config -> segment(config, configuration, new Segment(channel, 0, 0), null));
+            if (probe.status != 206) {
+                // no range support, the whole content was received
+                probe.verify();
+                return file;
+            }
+
+            probe.verify();
+            if (probe.total < 0) {
+                throw new IOException("Content length of " + file + " not provided by the server");
+            }
+
+            raf.setLength(probe.total);
+
+            final long remaining = probe.total - probe.written;
+            final int count = (int) Math.min(segments, remaining);
+            final List<CompletableFuture<Segment>> futures = new ArrayList<>(count);
+            for (int i = 0; i < count; ++i) {
+                final long start = probe.written + remaining * i / count;
+                final long end = probe.written + remaining * (i + 1) / count - 1;
+                final Segment segment = new Segment(channel, start, end);
+                futures.add(http.getAsync(Segment.class, config -> segment(config, configuration, segment, probe.validator)));
+            }
+
+            try {
+                CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+            } catch (CompletionException ce) {
+                throw ce.getCause() instanceof RuntimeException ? (RuntimeException) ce.getCause() : new TransportingException(ce.getCause());
+            }
+
+            for (final CompletableFuture<Segment> future : futures) {
+                final Segment segment = future.join();
+                segment.verify();
+                if (segment.total != probe.total) {
+                    throw new IOException("Content length of " + file + " changed during download");
+                }
+            }
+
+            return file;
+
+        } catch (IOException e) {
+            throw new TransportingException(e);
+        }
+    }
+
+    /**
+     * Downloads the content of the configured request URI to a specified file in segments, see
+     * {@link #toFile(HttpBuilder, File, int, Consumer)}.
+     *
+     * @param http the builder used for the requests
+     * @param file the file where content will be downloaded
+     * @param segments the maximum number of segments
+     * @return the downloaded file
+     */
+    public static File toFile(final HttpBuilder http, final File file, final int segments) {
+        return toFile(http, file, segments, config -> {
+        });
+    }
+
+    /**
+     * Downloads the content to a specified file in segments, see {@link #toFile(HttpBuilder, File, int, Consumer)}.
+     *
+     * [source,groovy]
+     * ----
+     * File file = Download.toFile(http, new File('foo.zip'), 4) {
+     *     request.uri.path = '/download/foo.zip'
+     * }
+     * ----
+     *
+     * @param http the builder used for the requests
+     * @param file the file where content will be downloaded
+     * @param segments the maximum number of segments
+     * @param closure the configuration of each request (delegated to {@link HttpConfig})
+     * @return the downloaded file
+     */
+    public static File toFile(final HttpBuilder http, final File file, final int segments, @DelegatesTo(HttpConfig.class) final Closure<?> closure) {
+        return toFile(http, file, segments, config -> {
+            final Closure<?> clone = (Closure<?>) closure.clone();
+            clone.setResolveStrategy(Closure.DELEGATE_FIRST);
+            clone.setDelegate(config);
+            clone.call();
+        });
+    }
+
+    private static void segment(final HttpConfig config, final Consumer<HttpConfig> configuration, final Segment segment, final String validator) {
+        configuration.accept(config);
+
+        config.getRequest().getHeaders().put("Range", "bytes=" + segment.start + "-" + segment.end);
+        config.getRequest().getHeaders().put("Accept-Encoding", "identity");
+        if (validator != null) {
+            config.getRequest().getHeaders().put("If-Range", validator);
+        }
+
+        config.context(ContentTypes.ANY.getAt(0), SEGMENT_ID, segment);
+        config.getResponse().parser(ContentTypes.ANY.getAt(0), Download::segmentParser);
+    }
+
+    private static Segment segmentParser(final ChainedHttpConfig config, final FromServer fs) {
+        final Segment segment = (Segment) config.actualContext(ContentTypes.ANY.getAt(0), SEGMENT_ID);
+        try {
+            segment.receive(fs);
+            return segment;
+        } catch (IOException e) {
+            throw new TransportingException(e);
+        }
+    }
+
+    /**
+     * A byte range of the downloaded content, written into the file at its offset.
+     */
+    private static final class Segment {
+
+        private final FileChannel channel;
+        private final long start;
+        private final long end;
+        private int status;
+        private long total = -1;
+        private long length = -1;
+        private long written;
+        private String validator;
+
+        private Segment(final FileChannel channel, final long start, final long end) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+        }
+
+        void receive(final FromServer fs) throws IOException {
+            status = fs.getStatusCode();
+
+            final FromServer.Header<?> encoding = FromServer.Header.find(fs.getHeaders(), "Content-Encoding");
+            final boolean encoded = encoding != null && !encoding.getValue().equalsIgnoreCase("identity");
+
+            if (status == 206) {
+                if (encoded) {
+                    throw new IOException("Content-Encoding " + encoding.getValue() + " not supported for bytes " + start + "-" + end);
+                }
+
+                final FromServer.Header<?> range = FromServer.Header.find(fs.getHeaders(), "Content-Range");
+                final Matcher matcher = range == null ? null : CONTENT_RANGE.matcher(range.getValue());
+                if (matcher == null || !matcher.matches() || Long.parseLong(matcher.group(1)) != start) {
+                    throw new IOException("Unexpected Content-Range for bytes " + start + "-" + end + ": " + (range == null ? null : range.getValue()));
+                }
+
+                length = Long.parseLong(matcher.group(2)) - start + 1;
+                total = matcher.group(3).equals("*") ? -1 : Long.parseLong(matcher.group(3));
+
+            } else if (status == 200) {
+                // the length of encoded content is not the length of the decoded content
+                length = encoded ? -1 : FromServer.Header.contentLength(fs.getHeaders());
+                total = length;
+
+            } else {
+                return;
+            }
+
+            validator = validator(fs);
+
+            final InputStream inputStream = fs.getInputStream();
+            written = transfer(inputStream, channel, start, length >= 0 ? length : Long.MAX_VALUE);
+            if (length >= 0 && written == length && inputStream.read() != -1) {
+                throw new IOException("More content than expected for bytes " + start + "-" + end);
+            }
+        }
+
+        void verify() throws IOException {
+            if (status != 200 && status != 206) {
+                throw new IOException("Unexpected status " + status + " for bytes " + start + "-" + end);
+            }
+
+            if (status == 206 && length != end - start + 1) {
+                throw new IOException("Unexpected Content-Range length " + length + " for bytes " + start + "-" + end);
+            }
+
+            if (length >= 0 && written != length) {
+                throw new IOException("Received " + written + " of " + length + " bytes for bytes " + start + "-" + end);
+            }
+        }
+    }
+
+    /**
+     * A resumable download into a file, continuing from the offset of its checkpoint.
+     */
+    private static final class Resumable {
+
+        private final File file;
+        private final long offset;
+
+        private Resumable(final File file, final long offset) {
+            this.file = file;
+            this.offset = offset;
+        }
+
+        void receive(final FromServer fs) throws IOException {
+            final int status = fs.getStatusCode();
+            final long start;
+            final long length;
+
+            if (status == 206) {
+                final FromServer.Header<?> range = FromServer.Header.find(fs.getHeaders(), "Content-Range");
+                final Matcher matcher = range == null ? null : CONTENT_RANGE.matcher(range.getValue());
+                if (matcher == null || !matcher.matches() || Long.parseLong(matcher.group(1)) != offset) {
+                    throw new IOException("Unexpected Content-Range for bytes " + offset + "-: " + (range == null ? null : range.getValue()));
+                }
+
+                start = offset;
+                length = Long.parseLong(matcher.group(2)) - start + 1;
+
+            } else if (status == 200) {
+                final FromServer.Header<?> encoding = FromServer.Header.find(fs.getHeaders(), "Content-Encoding");
+                start = 0;
+                length = encoding != null && !encoding.getValue().equalsIgnoreCase("identity") ? -1 : FromServer.Header.contentLength(fs.getHeaders());
+
+            } else {
+                return;
+            }
+
+            final String validator = validator(fs);
+            long written = 0;
+
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                raf.setLength(start);
+                final FileChannel channel = raf.getChannel();
+
+                final InputStream inputStream = fs.getInputStream();
+                try {
+                    long transferred;
+                    do {
+                        // the file grows as it is written, so each block is transferred at its end
+                        transferred = transfer(inputStream, channel, start + written, CHECKPOINT_BYTES);
+                        written += transferred;
+
+                        if (validator != null && transferred > 0) {
+                            Checkpoint.store(file, validator, start + written);
+                        }
+                    } while (transferred == CHECKPOINT_BYTES);
+                } catch (IOException | RuntimeException e) {
+                    if (validator != null) {
+                        Checkpoint.store(file, validator, start + written);
+                    }
+                    throw e;
+                }
+            }
+
+            if (length >= 0 && written != length) {
+                if (validator != null) {
+                    Checkpoint.store(file, validator, start + written);
+                }
+                throw new IOException("Received " + written + " of " + length + " bytes for " + file);
+            }
+
+            Checkpoint.delete(file);
+        }
+    }
+
+    /**
+     * The progress of an interrupted download, kept in a sidecar properties file.
+     */
+    private static final class Checkpoint {
+
+        private final String validator;
+        private final long written;
+
+        private Checkpoint(final String validator, final long written) {
+            this.validator = validator;
+            this.written = written;
+        }
+
+        static Checkpoint load(final File file) {
+            final File checkpoint = checkpointFile(file);
+            if (!checkpoint.exists()) {
+                return null;
+            }
+
+            final Properties props = new Properties();
+            try (FileInputStream in = new FileInputStream(checkpoint)) {
+                props.load(in);
+
+                final String validator = props.getProperty("validator");
+                final long written = Long.parseLong(props.getProperty("written", "-1"));
+
+                // the partial file may have been removed or truncated since
+                return validator != null && written > 0 && file.length() >= written ? new Checkpoint(validator, written) : null;
+            } catch (IOException | NumberFormatException e) {
+                return null;
+            }
+        }
+
+        static void store(final File file, final String validator, final long written) throws IOException {
+            final Properties props = new Properties();
+            props.setProperty("validator", validator);
+            props.setProperty("written", Long.toString(written));
+
+            try (FileOutputStream out = new FileOutputStream(checkpointFile(file))) {
+                props.store(out, "");
+            }
+        }
+
+        static void delete(final File file) {
+            final File checkpoint = checkpointFile(file);
+            if (checkpoint.exists() && !checkpoint.delete()) {
+                checkpoint.deleteOnExit();
+            }
+        }
+    }
+
+    // the strong validator of the response content, if any
+    private static String validator(final FromServer fs) {
+        final FromServer.Header<?> etag = FromServer.Header.find(fs.getHeaders(), "ETag");
+        final FromServer.Header<?> lastModified = FromServer.Header.find(fs.getHeaders(), "Last-Modified");
+        return etag != null && !etag.getValue().startsWith("W/") ? etag.getValue() : (lastModified != null ? lastModified.getValue() : null);
+    }
+
+    private static File fileParser(final ChainedHttpConfig config, final FromServer fs) {
+        final File file = (File) config.actualContext(fs.getContentType(), ID);
+        try (FileChannel channel = FileChannel.open(file.toPath(), CREATE, WRITE, TRUNCATE_EXISTING)) {
+            transfer(fs.getInputStream(), channel, 0, Long.MAX_VALUE);
             return file;
         } catch (IOException e) {
             throw new TransportingException(e);
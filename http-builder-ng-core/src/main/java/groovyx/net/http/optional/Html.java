@@ -21,10 +21,10 @@ import groovyx.net.http.FromServer;
 import groovyx.net.http.NativeHandlers;
 import groovyx.net.http.ToServer;
 import groovyx.net.http.TransportingException;
+import groovyx.net.http.util.XmlReaders;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.xml.sax.SAXException;
-import org.xml.sax.XMLReader;
 
 import java.io.IOException;
 import java.io.InputStreamReader;
@@ -55,9 +55,10 @@ public class Html {
      */
     public static Object neckoParse(final ChainedHttpConfig config, final FromServer fromServer) {
         try {
-            final XMLReader p = new org.cyberneko.html.parsers.SAXParser();
-            p.setEntityResolver(NativeHandlers.Parsers.catalogResolver);
-            return new XmlSlurper(p).parse(new InputStreamReader(fromServer.getInputStream(), fromServer.getCharset()));
+            return NeckoReaders.POOL.parse(reader -> {
+                reader.setEntityResolver(NativeHandlers.Parsers.catalogResolver);
+                return new XmlSlurper(reader).parse(new InputStreamReader(fromServer.getInputStream(), fromServer.getCharset()));
+            });
         } catch (IOException | SAXException ex) {
             throw new TransportingException(ex);
         }
@@ -87,4 +88,12 @@ public class Html {
         final Document document = (Document) request.actualBody();
         ts.toServer(stringToStream(document.text(), request.actualCharset()));
     }
+
+    /**
+     * Holds the pool of necko readers. The parser classes are optional dependencies, so they are only resolved once
+     * necko parsing is actually used.
+     */
+    private static class NeckoReaders {
+        static final XmlReaders POOL = new XmlReaders(32, org.cyberneko.html.parsers.SAXParser::new);
+    }
 }
@@ -15,21 +15,45 @@
  */
 package groovyx.net.http.optional;
 
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import groovyx.net.http.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.StringWriter;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static groovyx.net.http.NativeHandlers.Encoders.handleRawUpload;
 
 /**
  * Parser and Encoder methods for handling JSON content using the https://github.com/FasterXML/jackson[Jackson] JSON library.
+ *
+ * The `ObjectReader` and `ObjectWriter` instances resolved from a configured `ObjectMapper` are cached per target type, so the mapper should be fully
+ * configured before it is first used for a request.
  */
 public class Jackson {
 
     static final String OBJECT_MAPPER_ID = "0w4XJJnlTNK8dvISuCDTlsusPQE=";
 
+    private static final int MAX_MAPPERS = 64;
+    private static final ConcurrentMap<ObjectMapper, Codecs> codecs = new ConcurrentHashMap<>();
+
     /**
      * Used to parse the server response content using the Jackson JSON parser.
      *
@@ -41,7 +65,42 @@ public class Jackson {
     public static Object parse(final ChainedHttpConfig config, final FromServer fromServer) {
         try {
             final ObjectMapper mapper = (ObjectMapper) config.actualContext(fromServer.getContentType(), OBJECT_MAPPER_ID);
-            return mapper.readValue(fromServer.getReader(), config.getChainedResponse().getType());
+            final ObjectReader reader = codecs(mapper).reader(config.getChainedResponse().getType());
+            final Charset charset = fromServer.getCharset();
+
+            if (detectable(charset)) {
+                return reader.readValue(fromServer.getInputStream());
+            } else {
+                return reader.readValue(new InputStreamReader(fromServer.getInputStream(), charset));
+            }
+        } catch (IOException e) {
+            throw new TransportingException(e);
+        }
+    }
+
+    /**
+     * Used to parse the server response content lazily, as a sequence of values of the given type. The content may be either a JSON array, whose
+     * elements are read one at a time, or a sequence of JSON values such as newline-delimited JSON. The response remains open until the returned
+     * {@link Records} have been read to the end or closed.
+     *
+     * @param config the configuration
+     * @param fromServer the server content accessor
+     * @param type the type of the values
+     * @param <T> the type of the values
+     * @return the lazily-read values
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static <T> Records<T> records(final ChainedHttpConfig config, final FromServer fromServer, final Class<T> type) {
+        try {
+            final ObjectMapper mapper = (ObjectMapper) config.actualContext(fromServer.getContentType(), OBJECT_MAPPER_ID);
+            final ObjectReader reader = codecs(mapper).reader(type);
+            final Charset charset = fromServer.getCharset();
+
+            final MappingIterator<T> values = detectable(charset) ?
+                reader.readValues(fromServer.getInputStream()) :
+                reader.readValues(new InputStreamReader(fromServer.getInputStream(), charset));
+
+            return new Records<>(values, fromServer);
         } catch (IOException e) {
             throw new TransportingException(e);
         }
@@ -62,9 +121,20 @@ public class Jackson {
 
             final ChainedHttpConfig.ChainedRequest request = config.getChainedRequest();
             final ObjectMapper mapper = (ObjectMapper) config.actualContext(request.actualContentType(), OBJECT_MAPPER_ID);
-            final StringWriter writer = new StringWriter();
-            mapper.writeValue(writer, request.actualBody());
-            ts.toServer(new CharSequenceInputStream(writer.toString(), request.actualCharset()));
+            final Object body = request.actualBody();
+            final ObjectWriter writer = codecs(mapper).writer(body != null ? body.getClass() : Object.class);
+            final Charset charset = request.actualCharset();
+
+            final Bytes bytes = new Bytes();
+            if (StandardCharsets.UTF_8.equals(charset)) {
+                writer.writeValue(bytes, body);
+            } else {
+                try (Writer out = new OutputStreamWriter(bytes, charset)) {
+                    writer.writeValue(out, body);
+                }
+            }
+
+            ts.toServer(bytes.toInputStream(), bytes.size());
         } catch (IOException e) {
             throw new TransportingException(e);
         }
@@ -135,4 +205,164 @@ public class Jackson {
         config.getRequest().encoder(contentTypes, Jackson::encode);
         config.getResponse().parser(contentTypes, Jackson::parse);
     }
+
+    /**
+     * Configures the client to parse JSON responses with the default JSON content type lazily, as {@link Records} of the given type.
+     *
+     * [source,groovy]
+     * ----
+     * Jackson.Records<Event> events = http.get(Jackson.Records) {
+     *     request.uri.path = '/events'
+     *     Jackson.records(delegate, Event)
+     * }
+     *
+     * events.withCloseable {
+     *     events.each { event -> println event.name }
+     * }
+     * ----
+     *
+     * @param config the configuration
+     * @param type the type of the values
+     */
+    public static void records(final HttpConfig config, final Class<?> type) {
+        records(config, type, ContentTypes.JSON);
+    }
+
+    /**
+     * Configures the client to parse JSON responses with the specified content types lazily, as {@link Records} of the given type.
+     *
+     * @param config the configuration
+     * @param type the type of the values
+     * @param contentTypes the content types to be configured
+     */
+    public static void records(final HttpConfig config, final Class<?> type, final Iterable<String> contentTypes) {
+        config.getResponse().parser(contentTypes, (cfg, fs) -> records(cfg, fs, type));
+    }
+
+    /**
+     * Lazily-read values of a response, backed by a Jackson `MappingIterator`. The values are read from the response as they are iterated; the
+     * response is finished once the last value has been read, or when the records are closed. Records which are not read to the end must be
+     * closed.
+     *
+     * @param <T> the type of the values
+     */
+    public static final class Records<T> implements Iterator<T>, FromServer.Streamed {
+
+        private final MappingIterator<T> values;
+        private final FromServer fromServer;
+        private boolean closed;
+
+        private Records(final MappingIterator<T> values, final FromServer fromServer) {
+            this.values = values;
+            this.fromServer = fromServer;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (closed) {
+                return false;
+            }
+
+            try {
+                if (values.hasNextValue()) {
+                    return true;
+                }
+            } catch (IOException e) {
+                close();
+                throw new TransportingException(e);
+            }
+
+            close();
+            return false;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            try {
+                return values.nextValue();
+            } catch (IOException e) {
+                close();
+                throw new TransportingException(e);
+            }
+        }
+
+        /**
+         * Provides the remaining values as a sequential `Stream`; closing the stream closes the records.
+         *
+         * @return the stream of values
+         */
+        public Stream<T> stream() {
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED), false).onClose(this::close);
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+
+            closed = true;
+            try {
+                values.close();
+            } catch (IOException e) {
+                // the response is finished regardless
+            } finally {
+                fromServer.finish();
+            }
+        }
+    }
+
+    private static Codecs codecs(final ObjectMapper mapper) {
+        final Codecs existing = codecs.get(mapper);
+        if (existing != null) {
+            return existing;
+        }
+
+        if (codecs.size() >= MAX_MAPPERS) {
+            codecs.clear();
+        }
+
+        return codecs.computeIfAbsent(mapper, Codecs::new);
+    }
+
+    // the encodings which Jackson detects on its own from the leading bytes of the content
+    private static boolean detectable(final Charset charset) {
+        final String name = charset.name();
+        return name.equals("UTF-8") || name.startsWith("UTF-16") || name.startsWith("UTF-32");
+    }
+
+    private static final class Codecs {
+
+        private final ObjectMapper mapper;
+        private final ConcurrentMap<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+        private final ConcurrentMap<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+        private Codecs(final ObjectMapper mapper) {
+            this.mapper = mapper;
+        }
+
+        ObjectReader reader(final Class<?> type) {
+            return readers.computeIfAbsent(type, mapper::readerFor);
+        }
+
+        ObjectWriter writer(final Class<?> type) {
+            return writers.computeIfAbsent(type, mapper::writerFor);
+        }
+    }
+
+    // hands the written bytes to the request without copying them out of the buffer
+    private static final class Bytes extends ByteArrayOutputStream {
+
+        private Bytes() {
+            super(1_024);
+        }
+
+        InputStream toInputStream() {
+            return new ByteArrayInputStream(buf, 0, count);
+        }
+    }
 }
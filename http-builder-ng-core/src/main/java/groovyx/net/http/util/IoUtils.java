@@ -19,15 +19,80 @@ import groovyx.net.http.TransportingException;
 
 import java.io.BufferedInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
 
 /**
  * Shared IO utility operations.
  */
 public class IoUtils {
 
+    private static final long TRANSFER_BLOCK = 8L * 1024L * 1024L;
+    private static final int MAX_PRESIZE = 16 * 1024 * 1024;
+
+    private static volatile int bufferSize = Integer.getInteger("groovyx.net.http.buffer-size", 8_192);
+
+    // a buffer is taken out of the thread-local while it is in use, so that nested copies on the same thread allocate their own
+    private static final ThreadLocal<byte[]> buffers = new ThreadLocal<>();
+
+    /**
+     * Retrieves the size of the buffers used to copy stream content. The default is 8 KB, which may be changed with the
+     * `groovyx.net.http.buffer-size` system property or {@link #setBufferSize(int)}.
+     *
+     * @return the buffer size in bytes
+     */
+    public static int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * Sets the size of the buffers used to copy stream content. Buffers of the previous size are discarded as they are returned.
+     *
+     * @param size the buffer size in bytes
+     */
+    public static void setBufferSize(final int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Buffer size must be positive");
+        }
+
+        bufferSize = size;
+    }
+
+    /**
+     * Borrows a copy buffer of the configured size - it is reused by later calls on the same thread once it has been returned with
+     * {@link #returnBuffer(byte[])}.
+     *
+     * @return the buffer
+     */
+    public static byte[] borrowBuffer() {
+        final byte[] buffer = buffers.get();
+        if (buffer != null && buffer.length == bufferSize) {
+            buffers.remove();
+            return buffer;
+        }
+
+        return new byte[bufferSize];
+    }
+
+    /**
+     * Returns a buffer taken with {@link #borrowBuffer()} to the pool of the current thread.
+     *
+     * @param buffer the buffer
+     */
+    public static void returnBuffer(final byte[] buffer) {
+        if (buffer.length == bufferSize) {
+            buffers.set(buffer);
+        }
+    }
+
     /**
      * Reads all bytes from the stream into a byte array.
      *
@@ -40,14 +105,50 @@ public class IoUtils {
     }
 
     public static byte[] streamToBytes(final InputStream inputStream, boolean close) throws IOException {
-        try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
-            final byte[] bytes = new byte[2_048];
+        return streamToBytes(inputStream, -1, close);
+    }
+
+    /**
+     * Reads all bytes from the stream into a byte array. When the expected length of the content is known (e.g. from a `Content-Length` header), the
+     * array is allocated at that size and returned without copying if the content matches it; the length is only a hint, so content of another size
+     * is still read fully.
+     *
+     * @param inputStream the {@link InputStream}
+     * @param length      the expected number of bytes, or `-1` if it is unknown
+     * @param close       whether or not to close the stream
+     * @return the array of bytes from the stream
+     * @throws IOException if there is a problem reading the stream
+     */
+    public static byte[] streamToBytes(final InputStream inputStream, final long length, final boolean close) throws IOException {
+        try {
+            if (length < 0 || length > MAX_PRESIZE) {
+                final ByteArrayOutputStream outputStream = new ByteArrayOutputStream(bufferSize);
+                copy(inputStream, outputStream);
+                return outputStream.toByteArray();
+            }
+
+            final byte[] bytes = new byte[(int) length];
 
+            int total = 0;
             int read;
-            while ((read = inputStream.read(bytes)) != -1) {
-                outputStream.write(bytes, 0, read);
+            while (total < bytes.length && (read = inputStream.read(bytes, total, bytes.length - total)) != -1) {
+                total += read;
             }
 
+            if (total < bytes.length) {
+                return Arrays.copyOf(bytes, total);
+            }
+
+            final int next = inputStream.read();
+            if (next == -1) {
+                return bytes;
+            }
+
+            // more content than expected
+            final ByteArrayOutputStream outputStream = new ByteArrayOutputStream(Math.max(bytes.length * 2, bufferSize));
+            outputStream.write(bytes);
+            outputStream.write(next);
+            copy(inputStream, outputStream);
             return outputStream.toByteArray();
 
         } finally {
@@ -55,6 +156,33 @@ public class IoUtils {
         }
     }
 
+    /**
+     * Reads the content of the stream into memory, provided that it is no larger than `limit` bytes. The stream is closed once it has been fully
+     * read. This is generally used to decide whether request content of unknown length may be sent as a fixed-length body or must be streamed.
+     *
+     * @param inputStream the stream - its pushback buffer must hold at least `limit + 1` bytes
+     * @param limit       the maximum number of bytes to be buffered
+     * @return the content of the stream, or `null` if it is larger than the limit (the bytes read are pushed back onto the stream)
+     * @throws IOException if there is a problem reading the stream
+     */
+    public static byte[] bufferIfSmall(final PushbackInputStream inputStream, final int limit) throws IOException {
+        final byte[] bytes = new byte[limit + 1];
+
+        int total = 0;
+        int read;
+        while (total < bytes.length && (read = inputStream.read(bytes, total, bytes.length - total)) != -1) {
+            total += read;
+        }
+
+        if (total <= limit) {
+            inputStream.close();
+            return Arrays.copyOf(bytes, total);
+        } else {
+            inputStream.unread(bytes, 0, total);
+            return null;
+        }
+    }
+
     /**
      * Safely copies the contents of the {@link BufferedInputStream} to a {@link String} and resets the stream.
      * This method is generally only useful for testing and logging purposes.
@@ -80,7 +208,9 @@ public class IoUtils {
     }
 
     /**
-     * Transfers the contents of the {@link InputStream} into the {@link OutputStream}, optionally closing the stream.
+     * Transfers the contents of the {@link InputStream} into the {@link OutputStream}, optionally closing the stream. The content of a
+     * {@link FileInputStream} is transferred through its `FileChannel` (see `FileChannel#transferTo`), which avoids copying it through the heap when
+     * the output stream is a file, and copies it in larger blocks otherwise.
      *
      * @param istream the input stream
      * @param ostream the output stream
@@ -88,11 +218,11 @@ public class IoUtils {
      */
     public static void transfer(final InputStream istream, final OutputStream ostream, final boolean close) {
         try {
-            final byte[] bytes = new byte[2_048];
-            int read;
-            while ((read = istream.read(bytes)) != -1) {
-                ostream.write(bytes, 0, read);
+            if (istream instanceof FileInputStream) {
+                transferTo(((FileInputStream) istream).getChannel(), ostream);
             }
+
+            copy(istream, ostream);
         } catch (IOException e) {
             throw new TransportingException(e);
         } finally {
@@ -105,5 +235,60 @@ public class IoUtils {
             }
         }
     }
-}
 
+    /**
+     * Transfers the contents of the {@link InputStream} into the {@link FileChannel} at the given position, using `FileChannel#transferFrom`, until
+     * the end of the stream or `count` bytes have been transferred. The stream is not closed. The position must be no larger than the current size
+     * of the file.
+     *
+     * @param istream  the input stream
+     * @param channel  the file channel
+     * @param position the position in the file where the content is written
+     * @param count    the maximum number of bytes to transfer
+     * @return the number of bytes transferred
+     * @throws IOException if there is a problem reading the stream or writing the file
+     */
+    public static long transfer(final InputStream istream, final FileChannel channel, final long position, final long count) throws IOException {
+        final ReadableByteChannel source = istream instanceof FileInputStream ? ((FileInputStream) istream).getChannel() : Channels.newChannel(istream);
+
+        long total = 0;
+        while (total < count) {
+            final long transferred = channel.transferFrom(source, position + total, Math.min(count - total, TRANSFER_BLOCK));
+            if (transferred <= 0) {
+                break;
+            }
+            total += transferred;
+        }
+
+        return total;
+    }
+
+    private static void copy(final InputStream istream, final OutputStream ostream) throws IOException {
+        final byte[] buffer = borrowBuffer();
+        try {
+            int read;
+            while ((read = istream.read(buffer)) != -1) {
+                ostream.write(buffer, 0, read);
+            }
+        } finally {
+            returnBuffer(buffer);
+        }
+    }
+
+    private static void transferTo(final FileChannel channel, final OutputStream ostream) throws IOException {
+        final WritableByteChannel target = Channels.newChannel(ostream);
+
+        long position = channel.position();
+        final long size = channel.size();
+        while (position < size) {
+            final long transferred = channel.transferTo(position, Math.min(size - position, TRANSFER_BLOCK), target);
+            if (transferred <= 0) {
+                break;
+            }
+            position += transferred;
+        }
+
+        // anything appended to the file since is copied by the caller
+        channel.position(position);
+    }
+}
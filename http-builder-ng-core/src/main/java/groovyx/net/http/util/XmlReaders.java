@@ -0,0 +1,114 @@
+/**
+ * Copyright (C) 2017 HttpBuilder-NG Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package groovyx.net.http.util;
+
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * A bounded, thread-safe pool of configured SAX `XMLReader` instances, used to avoid the cost of creating and configuring a new parser for every
+ * response.
+ *
+ * A reader is borrowed for the duration of a single parse and returned afterwards, with its content handler reset so that it does not retain the parsed
+ * content. Readers whose parse failed are discarded rather than returned. When the pool is empty, a new reader is created; when it is full, the
+ * returned reader is dropped.
+ *
+ * [source,java]
+ * ----
+ * XmlReaders readers = new XmlReaders(16, () -> new org.cyberneko.html.parsers.SAXParser());
+ * GPathResult result = readers.parse(reader -> new XmlSlurper(reader).parse(inputStream));
+ * ----
+ */
+public class XmlReaders {
+
+    /**
+     * Creates a new configured `XMLReader`.
+     */
+    @FunctionalInterface
+    public interface Factory {
+        XMLReader create() throws SAXException;
+    }
+
+    /**
+     * Parses content with a borrowed `XMLReader`.
+     *
+     * @param <T> the type of the parsed content
+     */
+    @FunctionalInterface
+    public interface Parse<T> {
+        T apply(XMLReader reader) throws IOException, SAXException;
+    }
+
+    private static final DefaultHandler NO_HANDLER = new DefaultHandler();
+
+    private final BlockingQueue<XMLReader> idle;
+    private final Factory factory;
+
+    /**
+     * Creates a pool holding at most the given number of idle readers.
+     *
+     * @param capacity the maximum number of idle readers retained
+     * @param factory the factory used to create configured readers
+     */
+    public XmlReaders(final int capacity, final Factory factory) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+
+        this.idle = new ArrayBlockingQueue<>(capacity);
+        this.factory = factory;
+    }
+
+    /**
+     * Parses content with a reader borrowed from the pool, returning the reader to the pool once the parse has completed successfully.
+     *
+     * @param parse the parse operation
+     * @param <T> the type of the parsed content
+     * @return the parsed content
+     * @throws IOException if there is a problem reading the content
+     * @throws SAXException if there is a problem parsing the content
+     */
+    public <T> T parse(final Parse<T> parse) throws IOException, SAXException {
+        final XMLReader reader = borrow();
+        final T result = parse.apply(reader);
+        release(reader);
+        return result;
+    }
+
+    /**
+     * Retrieves the number of idle readers currently held by the pool.
+     *
+     * @return the number of idle readers
+     */
+    public int getIdle() {
+        return idle.size();
+    }
+
+    private XMLReader borrow() throws SAXException {
+        final XMLReader reader = idle.poll();
+        return reader != null ? reader : factory.create();
+    }
+
+    private void release(final XMLReader reader) {
+        reader.setContentHandler(NO_HANDLER);
+        idle.offer(reader);
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (C) 2017 HttpBuilder-NG Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package groovyx.net.http
+
+import com.stehno.ersatz.DecodingContext
+import com.stehno.ersatz.ErsatzServer
+import groovyx.net.http.util.IoUtils
+import spock.lang.AutoCleanup
+import spock.lang.Specification
+
+import java.util.function.BiFunction
+import java.util.zip.GZIPInputStream
+import java.util.zip.InflaterInputStream
+
+import static com.stehno.ersatz.ContentType.TEXT_PLAIN
+
+class CompressionSpec extends Specification {
+
+    private static final String CONTENT = (1..500).collect { "line $it of the content" }.join('\n')
+
+    @AutoCleanup('stop') private final ErsatzServer ersatzServer = new ErsatzServer({
+        decoder 'text/plain', { byte[] bytes, DecodingContext ctx ->
+            if (bytes.length > 1 && bytes[0] == (byte) 0x1f && bytes[1] == (byte) 0x8b) {
+                return 'gzip:' + new GZIPInputStream(new ByteArrayInputStream(bytes)).getText('UTF-8')
+            } else if (bytes.length > 0 && bytes[0] == (byte) 0x78) {
+                return 'deflate:' + new InflaterInputStream(new ByteArrayInputStream(bytes)).getText('UTF-8')
+            }
+            return new String(bytes, 'UTF-8')
+        } as BiFunction
+    })
+
+    def 'gzip configured on the client'() {
+        setup:
+        ersatzServer.expectations {
+            post('/upload').header('Content-Encoding', 'gzip').body("gzip:$CONTENT" as String, TEXT_PLAIN).responds().content('ok', TEXT_PLAIN)
+        }.start()
+
+        expect:
+        JavaHttpBuilder.configure {
+            request.uri = "${ersatzServer.httpUrl}/upload"
+            request.contentType = 'text/plain'
+            Compression.gzip(delegate)
+        }.post {
+            request.body = body
+        } == 'ok'
+
+        where:
+        body << [CONTENT, CONTENT.bytes, new ByteArrayInputStream(CONTENT.bytes)]
+    }
+
+    def 'deflate configured on the request'() {
+        setup:
+        ersatzServer.expectations {
+            post('/upload').header('Content-Encoding', 'deflate').body("deflate:$CONTENT" as String, TEXT_PLAIN).responds().content('ok', TEXT_PLAIN)
+        }.start()
+
+        expect:
+        JavaHttpBuilder.configure {
+            request.uri = "${ersatzServer.httpUrl}/upload"
+        }.post {
+            request.contentType = 'text/plain'
+            request.body = CONTENT
+            Compression.compress(delegate, ['text/plain'], new Compression(Compression.Encoding.DEFLATE, 9, 0))
+        } == 'ok'
+    }
+
+    def 'not compressed'() {
+        setup:
+        ersatzServer.expectations {
+            post('/upload').body(content, TEXT_PLAIN).responds().content('ok', TEXT_PLAIN)
+        }.start()
+
+        expect:
+        JavaHttpBuilder.configure {
+            request.uri = "${ersatzServer.httpUrl}/upload"
+            request.contentType = 'text/plain'
+            Compression.gzip(delegate)
+        }.post {
+            request.body = content
+            if (disabled) {
+                Compression.none(delegate)
+            }
+        } == 'ok'
+
+        where:
+        content           | disabled
+        'below threshold' | false
+        CONTENT           | true
+    }
+
+    def 'gzip with a buffer smaller than its header'() {
+        setup:
+        final int bufferSize = IoUtils.bufferSize
+        IoUtils.bufferSize = 4
+
+        ersatzServer.expectations {
+            post('/upload').header('Content-Encoding', 'gzip').body("gzip:$CONTENT" as String, TEXT_PLAIN).responds().content('ok', TEXT_PLAIN)
+        }.start()
+
+        expect:
+        JavaHttpBuilder.configure {
+            request.uri = "${ersatzServer.httpUrl}/upload"
+        }.post {
+            request.contentType = 'text/plain'
+            request.body = new ByteArrayInputStream(CONTENT.bytes)
+            Compression.compress(delegate, new Compression(Compression.Encoding.GZIP, 6, 10))
+        } == 'ok'
+
+        cleanup:
+        IoUtils.bufferSize = bufferSize
+    }
+
+    def 'stream content around a large threshold'() {
+        setup:
+        ersatzServer.expectations {
+            post('/upload').body(expected, TEXT_PLAIN).responds().content('ok', TEXT_PLAIN)
+        }.start()
+
+        expect:
+        JavaHttpBuilder.configure {
+            request.uri = "${ersatzServer.httpUrl}/upload"
+        }.post {
+            request.contentType = 'text/plain'
+            request.body = new ByteArrayInputStream(CONTENT.bytes)
+            Compression.compress(delegate, new Compression(Compression.Encoding.GZIP, 6, threshold))
+        } == 'ok'
+
+        where:
+        threshold                  | expected
+        Integer.MAX_VALUE          | CONTENT
+        CONTENT.bytes.length + 1   | CONTENT
+        CONTENT.bytes.length       | "gzip:$CONTENT" as String
+        CONTENT.bytes.length - 100 | "gzip:$CONTENT" as String
+    }
+}
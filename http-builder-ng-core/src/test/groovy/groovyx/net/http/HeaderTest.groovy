@@ -92,6 +92,20 @@ class HeaderTest extends Specification {
         !find(headers, 'Content-Language');
     }
 
+    @Unroll
+    def "Content Length of #headers"() {
+        expect:
+        contentLength(headers.collect { full(it) }) == length;
+
+        where:
+        headers                                   || length
+        ['Content-Length: 1234']                  || 1234L
+        ['Accept: text/plain']                    || -1L
+        ['Content-Length: 12ab']                  || -1L
+        ['Content-Length: -5']                    || -1L
+        ['Content-Length: 99999999999999999999']  || -1L
+    }
+
     def "Content-Type And Charset"() {
         setup:
         def h = full('Content-Type: text/html; charset=utf-8');
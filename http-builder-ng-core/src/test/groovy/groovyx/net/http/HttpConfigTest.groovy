@@ -101,6 +101,190 @@ class HttpConfigTest extends Specification {
         intermediate.response.actualAction(404).closure == failure;
     }
 
+    def 'Frozen config resolves like its parent chain'() {
+        setup:
+        BiConsumer xmlEncoder = NativeHandlers.Encoders.&xml
+        BiConsumer anyEncoder = NativeHandlers.Encoders.&binary
+        BiFunction xmlParser = NativeHandlers.Parsers.&xml
+        Closure success = { res, o -> 'success' }
+        Closure failure = { res, o -> 'failure' }
+        Closure on404 = { res, o -> '404' }
+        Closure on201 = { res, o -> '201' }
+
+        def parent = chainedConfig(HttpConfigs.threadSafe()) {
+            request.charset = StandardCharsets.UTF_8
+            request.uri = 'http://localhost:10101/parent?alpha=one'
+            request.headers = [Alpha: 'parent', Bravo: 'parent']
+            request.encoder 'application/xml', xmlEncoder
+            request.auth.basic 'admin', 'secret'
+            request.cookie 'parent-cookie', 'p'
+            response.success success
+            response.when 404, on404
+            response.parser 'application/xml', xmlParser
+            context 'text/csv', 'id', 'parent-context'
+        }
+
+        def child = chainedConfig(HttpConfigs.threadSafe(parent)) {
+            request.contentType = 'application/xml'
+            request.uri.path = '/child'
+            request.headers = [Alpha: 'child', Charlie: 'child']
+            request.encoder '*/*', anyEncoder
+            request.cookie 'child-cookie', 'c'
+            response.failure failure
+            response.when 201, on201
+            context '*/*', 'id', 'child-context'
+        }
+
+        when:
+        ChainedHttpConfig frozen = child.frozen()
+
+        then:
+        frozen.parent == null
+        frozen.chainedRequest.actualContentType() == child.chainedRequest.actualContentType()
+        frozen.chainedRequest.actualCharset() == child.chainedRequest.actualCharset()
+        frozen.chainedRequest.actualHeaders([:]) == child.chainedRequest.actualHeaders([:])
+        frozen.chainedRequest.actualAuth().user == 'admin'
+        frozen.chainedRequest.actualCookies([])*.name == child.chainedRequest.actualCookies([])*.name
+        frozen.chainedRequest.uri.toURI() == child.chainedRequest.uri.toURI()
+
+        and:
+        frozen.chainedRequest.actualEncoder('application/xml') == child.chainedRequest.actualEncoder('application/xml')
+        frozen.chainedRequest.actualEncoder('text/plain') == anyEncoder
+        frozen.chainedResponse.actualParser('application/xml') == xmlParser
+
+        and:
+        [200, 201, 404, 500].every { code -> frozen.chainedResponse.actualAction(code) == child.chainedResponse.actualAction(code) }
+
+        and:
+        frozen.actualContext('text/csv', 'id') == child.actualContext('text/csv', 'id')
+        frozen.actualContext('text/plain', 'id') == 'child-context'
+    }
+
+    def 'Frozen config is cached until the chain is modified'() {
+        setup:
+        def parent = chainedConfig(HttpConfigs.threadSafe()) {
+            request.uri = 'http://localhost:10101/'
+        }
+        def child = HttpConfigs.threadSafe(parent)
+
+        when:
+        ChainedHttpConfig first = child.frozen()
+
+        then:
+        child.frozen().is(first)
+
+        when:
+        child.request.headers['Alpha'] = 'one'
+        ChainedHttpConfig second = child.frozen()
+
+        then:
+        !second.is(first)
+        second.chainedRequest.actualHeaders([:]) == [Alpha: 'one']
+
+        when:
+        parent.request.contentType = 'text/plain'
+
+        then:
+        child.frozen().chainedRequest.actualContentType() == 'text/plain'
+    }
+
+    def 'Frozen config is rebuilt when modified through references obtained before it was frozen'() {
+        setup:
+        def config = chainedConfig(HttpConfigs.threadSafe(HttpConfigs.root())) {
+            request.uri = 'http://localhost:10101/'
+        }
+        Map<String,CharSequence> headers = config.request.headers
+        List<HttpCookie> cookies = config.request.cookies
+        UriBuilder uri = config.request.uri
+        HttpConfig.Auth auth = config.request.auth
+        Map<Integer,BiFunction> byCode = config.response.byCode
+        BiFunction on404 = { res, o -> '404' } as BiFunction
+
+        when:
+        ChainedHttpConfig first = config.frozen()
+
+        then:
+        config.frozen().is(first)
+
+        when:
+        headers['Alpha'] = 'one'
+
+        then:
+        config.frozen().chainedRequest.actualHeaders([:]) == [Alpha: 'one']
+
+        when:
+        headers.keySet().remove('Alpha')
+
+        then:
+        config.frozen().chainedRequest.actualHeaders([:]) == [:]
+
+        when:
+        cookies << new HttpCookie('foo', 'bar')
+
+        then:
+        config.frozen().chainedRequest.actualCookies([])*.name == ['foo']
+
+        when:
+        uri.path = '/changed'
+
+        then:
+        config.frozen().chainedRequest.uri.toURI() == new URI('http://localhost:10101/changed')
+
+        when:
+        auth.basic('admin', 'secret')
+
+        then:
+        config.frozen().chainedRequest.actualAuth().user == 'admin'
+
+        when:
+        byCode[404] = on404
+
+        then:
+        config.frozen().chainedResponse.actualAction(404) == on404
+    }
+
+    def 'Frozen config cannot be modified'() {
+        setup:
+        ChainedHttpConfig frozen = HttpConfigs.threadSafe(HttpConfigs.root()).frozen()
+
+        when:
+        frozen.request.contentType = 'text/plain'
+
+        then:
+        thrown(UnsupportedOperationException)
+
+        when:
+        frozen.request.headers['Alpha'] = 'one'
+
+        then:
+        thrown(UnsupportedOperationException)
+
+        when:
+        frozen.response.success { res, o -> o }
+
+        then:
+        thrown(UnsupportedOperationException)
+    }
+
+    def 'Request level config resolves through the frozen client config'() {
+        setup:
+        def client = chainedConfig(HttpConfigs.threadSafe(HttpConfigs.root())) {
+            request.uri = 'http://localhost:10101/client'
+            request.headers = [Alpha: 'client']
+        }
+
+        when:
+        def first = HttpConfigs.requestLevel(client)
+        def second = HttpConfigs.requestLevel(client)
+        second.request.headers = [Bravo: 'request']
+
+        then:
+        first.parent.is(second.parent)
+        first.parent instanceof HttpConfigs.FrozenHttpConfig
+        second.chainedRequest.actualHeaders([:]) == [Bravo: 'request', Alpha: 'client']
+        second.chainedRequest.uri.toURI() == new URI('http://localhost:10101/client')
+    }
+
     private ChainedHttpConfig chainedConfig(ChainedHttpConfig chc, @DelegatesTo(HttpConfig.class) final Closure closure) {
         closure.setDelegate(chc)
         closure.setResolveStrategy(DELEGATE_FIRST)
@@ -52,6 +52,28 @@ class JavaHttpBuilderSpec extends Specification {
         http instanceof JavaHttpBuilder
     }
 
+    def 'client cookies are not re-stored on every request'() {
+        setup:
+        ersatzServer.expectations {
+            get('/cookies').cookie('foo', 'bar').called(3).responds().content('ok', TEXT_PLAIN)
+        }
+
+        HttpBuilder http = JavaHttpBuilder.configure {
+            request.uri = "${ersatzServer.httpUrl}/cookies"
+            request.cookie 'foo', 'bar'
+        }
+
+        when:
+        http.get()
+        long modifications = http.cookieStore.modifications
+        http.get()
+        http.get()
+
+        then:
+        http.cookieStore.modifications == modifications
+        ersatzServer.verify()
+    }
+
     def 'access to client implementation unsupported'() {
         setup:
         HttpBuilder http = JavaHttpBuilder.configure {
@@ -28,6 +28,8 @@ import static groovyx.net.http.util.SslUtils.ignoreSslIssues
 
 class JavaHttpPostSpec extends HttpPostTestKit implements UsesJavaClient {
 
+    private static final String LARGE_CONTENT = (1..2000).collect { "line $it of the content" }.join('\n')
+
     @Unroll 'multipart request #proto'() {
         setup:
         ersatzServer.expectations {
@@ -68,4 +70,126 @@ class JavaHttpPostSpec extends HttpPostTestKit implements UsesJavaClient {
         where:
         proto << ['HTTP', 'HTTPS']
     }
+
+    @Unroll 'streamed request content: #type'() {
+        setup:
+        String content = LARGE_CONTENT
+
+        ersatzServer.expectations {
+            post('/upload') {
+                decoder TEXT_PLAIN, Decoders.utf8String
+                called(1)
+                header(name, value)
+                body content, TEXT_PLAIN
+                responds().content(OK_TEXT, TEXT_PLAIN)
+            }
+        }
+
+        expect:
+        httpBuilder {
+            request.uri = "${serverUri('HTTP')}/upload"
+            request.contentType = TEXT_PLAIN.value
+        }.post {
+            request.body = encoded(content)
+        } == OK_TEXT
+
+        and:
+        ersatzServer.verify()
+
+        where:
+        type      | encoded                                                     || name                | value
+        'fixed'   | { String c -> c.getBytes('UTF-8') }                         || 'Content-Length'    | LARGE_CONTENT.getBytes('UTF-8').length as String
+        'chunked' | { String c -> new ByteArrayInputStream(c.getBytes('UTF-8')) } || 'Transfer-Encoding' | 'chunked'
+    }
+
+    def 'streamed request content is redirected as a GET'() {
+        setup:
+        String content = LARGE_CONTENT
+
+        ersatzServer.expectations {
+            post('/upload') {
+                decoder TEXT_PLAIN, Decoders.utf8String
+                called(1)
+                header('Transfer-Encoding', 'chunked')
+                body content, TEXT_PLAIN
+                responds().code(302).header('Location', '/uploaded')
+            }
+            get('/uploaded').called(1).responds().content(OK_TEXT, TEXT_PLAIN)
+        }
+
+        expect:
+        httpBuilder {
+            request.uri = "${serverUri('HTTP')}/upload"
+            request.contentType = TEXT_PLAIN.value
+        }.post {
+            request.body = new ByteArrayInputStream(content.getBytes('UTF-8'))
+        } == OK_TEXT
+
+        and:
+        ersatzServer.verify()
+    }
+
+    def 'streamed file content is sent again to a temporary redirect'() {
+        setup:
+        File file = File.createTempFile('upload', '.txt')
+        file.deleteOnExit()
+        file.text = LARGE_CONTENT
+
+        ersatzServer.expectations {
+            post('/upload') {
+                decoder TEXT_PLAIN, Decoders.utf8String
+                called(1)
+                header('Content-Length', file.length() as String)
+                body LARGE_CONTENT, TEXT_PLAIN
+                responds().code(307).header('Location', '/uploaded')
+            }
+            post('/uploaded') {
+                decoder TEXT_PLAIN, Decoders.utf8String
+                called(1)
+                header('Content-Length', file.length() as String)
+                body LARGE_CONTENT, TEXT_PLAIN
+                responds().content(OK_TEXT, TEXT_PLAIN)
+            }
+        }
+
+        expect:
+        httpBuilder {
+            request.uri = "${serverUri('HTTP')}/upload"
+            request.contentType = TEXT_PLAIN.value
+        }.post {
+            request.body = file
+        } == OK_TEXT
+
+        and:
+        ersatzServer.verify()
+
+        cleanup:
+        file.delete()
+    }
+
+    def 'streamed content which cannot be sent again is not redirected'() {
+        setup:
+        String content = LARGE_CONTENT
+
+        ersatzServer.expectations {
+            post('/upload') {
+                decoder TEXT_PLAIN, Decoders.utf8String
+                called(1)
+                body content, TEXT_PLAIN
+                responds().code(307).header('Location', '/uploaded').content(OK_TEXT, TEXT_PLAIN)
+            }
+            post('/uploaded').called(0)
+        }
+
+        expect:
+        httpBuilder {
+            request.uri = "${serverUri('HTTP')}/upload"
+            request.contentType = TEXT_PLAIN.value
+        }.post {
+            request.body = new ByteArrayInputStream(content.getBytes('UTF-8'))
+        } == OK_TEXT
+
+        and:
+        ersatzServer.verify()
+    }
 }
@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2017 HttpBuilder-NG Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package groovyx.net.http
+
+import com.stehno.ersatz.ErsatzServer
+import groovy.json.JsonParserType
+import groovy.json.internal.LazyValueMap
+import groovy.json.internal.ValueList
+import spock.lang.AutoCleanup
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import static com.stehno.ersatz.ContentType.APPLICATION_JSON
+
+class JsonSpec extends Specification {
+
+    @AutoCleanup('stop')
+    private ErsatzServer ersatzServer = new ErsatzServer()
+
+    @Unroll 'parser type for content length #length'() {
+        expect:
+        Json.Context.BY_SIZE.slurper(length).type == type
+        Json.Context.DEFAULT.slurper(length).type == JsonParserType.CHAR_BUFFER
+
+        where:
+        length            || type
+        -1L               || JsonParserType.CHAR_BUFFER
+        0L                || JsonParserType.INDEX_OVERLAY
+        2L * 1024 * 1024  || JsonParserType.INDEX_OVERLAY
+        3L * 1024 * 1024  || JsonParserType.CHARACTER_SOURCE
+    }
+
+    def 'default parser type'() {
+        setup:
+        ersatzServer.expectations {
+            get('/items').responds().content('{"name":"value","items":[1,2]}', APPLICATION_JSON)
+        }
+
+        def http = JavaHttpBuilder.configure {
+            request.uri = ersatzServer.httpUrl
+        }
+
+        when:
+        def result = http.get { request.uri.path = '/items' }
+
+        then:
+        result == [name: 'value', items: [1, 2]]
+        !(result instanceof LazyValueMap)
+        !(result.items instanceof ValueList)
+    }
+
+    @Unroll 'each element of #json'() {
+        setup:
+        def found = []
+
+        when:
+        long count = Json.eachElement(new StringReader(json), Json.Context.DEFAULT) { found << it }
+
+        then:
+        count == expected.size()
+        found == expected
+
+        where:
+        json                                               || expected
+        '[]'                                               || []
+        '  [ 1, 2 ,3 ]  '                                  || [1, 2, 3]
+        '[{"a":[1,{"b":"]"}]},"x,y",null]'                 || [[a: [1, [b: ']']]], 'x,y', null]
+        '["quote \\" ] , {", {"k": "\\\\"}]'               || ['quote " ] , {', [k: '\\']]
+        '{"single": true}'                                 || [[single: true]]
+    }
+
+    def 'large arrays are streamed'() {
+        setup:
+        def reader = new PipedReader()
+        def writer = new PipedWriter(reader)
+        Thread.start {
+            writer.write('[')
+            (0..<10_000).each { i -> writer.write("${i ? ',' : ''}{\"id\":$i,\"name\":\"item-$i\"}") }
+            writer.write(']')
+            writer.close()
+        }
+
+        long sum = 0
+
+        when:
+        long count = Json.eachElement(reader, Json.Context.DEFAULT) { sum += it.id }
+
+        then:
+        count == 10_000
+        sum == (0..<10_000).sum()
+    }
+
+    def 'response elements'() {
+        setup:
+        ersatzServer.expectations {
+            get('/items').responds().content('[{"id":1},{"id":2},{"id":3}]', APPLICATION_JSON)
+        }
+
+        def http = JavaHttpBuilder.configure {
+            request.uri = ersatzServer.httpUrl
+        }
+
+        def ids = []
+
+        when:
+        def count = http.get {
+            request.uri.path = '/items'
+            Json.eachElement(delegate) { ids << it.id }
+        }
+
+        then:
+        count == 3
+        ids == [1, 2, 3]
+    }
+
+    def 'configured parser types'() {
+        setup:
+        ersatzServer.expectations {
+            get('/items').responds().content('{"name":"value"}', APPLICATION_JSON)
+        }
+
+        def http = JavaHttpBuilder.configure {
+            request.uri = ersatzServer.httpUrl
+            context(ContentTypes.JSON, Json.Context.ID, new Json.Context(JsonParserType.LAX, JsonParserType.LAX, 0))
+        }
+
+        expect:
+        http.get { request.uri.path = '/items' } == [name: 'value']
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2017 HttpBuilder-NG Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package groovyx.net.http
+
+import org.junit.Rule
+import org.junit.rules.TemporaryFolder
+import spock.lang.Specification
+
+import static groovyx.net.http.MultipartContent.multipart
+
+class MultipartInputStreamSpec extends Specification {
+
+    @Rule TemporaryFolder folder = new TemporaryFolder()
+
+    private final ChainedHttpConfig config = HttpConfigs.root()
+
+    def 'parts of known length'() {
+        setup:
+        File file = folder.newFile('charlie.txt')
+        file.text = 'This is file content'
+
+        MultipartContent content = multipart {
+            field 'alpha', 'one'
+            part 'bravo', 'bravo.bin', 'application/octet-stream', 'bytes'.bytes
+            part 'charlie', file.name, 'text/plain', file
+            part 'delta', file.name, 'text/plain', file.toPath()
+        }
+        String boundary = content.boundary()
+
+        when:
+        MultipartInputStream stream = new MultipartInputStream(config, content)
+        byte[] bytes = stream.bytes
+
+        then:
+        new String(bytes, 'UTF-8') == [
+            "--$boundary",
+            'Content-Disposition: form-data; name="alpha"',
+            'Content-Type: text/plain',
+            '',
+            'one',
+            "--$boundary",
+            'Content-Disposition: form-data; name="bravo"; filename="bravo.bin"',
+            'Content-Type: application/octet-stream',
+            '',
+            'bytes',
+            "--$boundary",
+            'Content-Disposition: form-data; name="charlie"; filename="charlie.txt"',
+            'Content-Type: text/plain',
+            '',
+            'This is file content',
+            "--$boundary",
+            'Content-Disposition: form-data; name="delta"; filename="charlie.txt"',
+            'Content-Type: text/plain',
+            '',
+            'This is file content',
+            "--$boundary--",
+            ''
+        ].join('\r\n')
+
+        and:
+        stream.length == bytes.length
+    }
+
+    def 'stream part of unknown length'() {
+        setup:
+        boolean closed = false
+        InputStream source = new ByteArrayInputStream('streamed'.bytes) {
+            @Override void close() { closed = true }
+        }
+
+        MultipartContent content = multipart {
+            part 'alpha', 'alpha.txt', 'text/plain', source
+        }
+
+        when:
+        MultipartInputStream stream = new MultipartInputStream(config, content)
+
+        then:
+        stream.length == -1
+        !closed
+
+        when:
+        stream.close()
+
+        then: 'unread content is closed with the stream'
+        closed
+    }
+}
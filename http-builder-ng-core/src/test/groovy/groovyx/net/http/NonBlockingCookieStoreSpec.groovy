@@ -335,4 +335,258 @@ class NonBlockingCookieStoreSpec extends Specification {
         then:
         theCount == 0;
     }
+
+    def 'domain cookies found from sub-domains'() {
+        setup:
+        def cookies = randomCookies(3, { domain = '.yahoo.com'; path = '/'; })
+        cookies.each { cookie -> nonBlocking.add(yahoo, cookie); }
+        nonBlocking.add(google, new HttpCookie('other', 'value'));
+
+        expect:
+        nonBlocking.get(new URI('http://mail.yahoo.com/inbox')) as Set == cookies as Set
+        nonBlocking.get(yahoo).containsAll(cookies)
+        nonBlocking.get(google)*.name == ['other']
+        !nonBlocking.get(new URI('http://notyahoo.com/'))
+        !nonBlocking.get(slashdot)
+    }
+
+    def 'expired cookies purged from index'() {
+        setup:
+        def expiring = new HttpCookie('expiring', 'soon');
+        expiring.maxAge = 1L;
+        def session = new HttpCookie('session', 'stays');
+
+        nonBlocking.add(yahoo, expiring);
+        nonBlocking.add(yahoo, session);
+
+        when:
+        sleep(2000L);
+
+        then:
+        nonBlocking.get(yahoo)*.name == ['session']
+        nonBlocking.all.size() == 1
+    }
+
+    def 'very large max age does not overflow the expiration'() {
+        setup:
+        long now = System.currentTimeMillis();
+
+        expect:
+        NonBlockingCookieStore.expiresAt(now, 9L) == now + 10_000L;
+        NonBlockingCookieStore.expiresAt(now, Long.MAX_VALUE) == Long.MAX_VALUE;
+        NonBlockingCookieStore.expiresAt(now, Long.MAX_VALUE.intdiv(1_000L)) == Long.MAX_VALUE;
+
+        when:
+        def forever = new HttpCookie('forever', 'stays');
+        forever.maxAge = Long.MAX_VALUE;
+        nonBlocking.add(yahoo, forever);
+        nonBlocking.purgeExpired();
+
+        then:
+        nonBlocking.get(yahoo)*.name == ['forever']
+        nonBlocking.@expirations.first().at == Long.MAX_VALUE
+    }
+
+    def 'capacity evicts oldest cookies'() {
+        setup:
+        def store = new NonBlockingCookieStore(3, 0);
+        def cookies = randomCookies(5, {})
+        cookies.each { cookie -> store.add(yahoo, cookie); }
+
+        expect:
+        store.size == 3
+        store.evictions == 2
+        store.get(yahoo) as Set == cookies[2..4] as Set
+    }
+
+    def 'per domain limit'() {
+        setup:
+        def store = new NonBlockingCookieStore(0, 2);
+        randomCookies(4, {}).each { cookie -> store.add(yahoo, cookie); }
+        def googleCookies = randomCookies(2, {})
+        googleCookies.each { cookie -> store.add(google, cookie); }
+
+        expect:
+        store.get(yahoo)*.name == ['random2', 'random3']
+        store.get(google) as Set == googleCookies as Set
+        store.size == 4
+        store.evictions == 2
+    }
+
+    def 're-stored cookie is not the oldest'() {
+        setup:
+        def store = new NonBlockingCookieStore(2, 0);
+        def first = new HttpCookie('first', 'one');
+        store.add(yahoo, first);
+        store.add(yahoo, new HttpCookie('second', 'two'));
+        store.add(yahoo, first);
+        store.add(yahoo, new HttpCookie('third', 'three'));
+
+        expect:
+        store.get(yahoo)*.name as Set == ['first', 'third'] as Set
+    }
+
+    def 'sweeper purges expired cookies'() {
+        setup:
+        def store = new NonBlockingCookieStore();
+        def cookie = new HttpCookie('foo', 'bar');
+        cookie.maxAge = 1L;
+        store.add(yahoo, cookie);
+        store.add(google, new HttpCookie('session', 'stays'));
+        store.sweepEvery(java.time.Duration.ofMillis(100));
+
+        when:
+        sleep(3000L);
+
+        then:
+        store.all.size() == 1
+        store.expirations == 1
+
+        cleanup:
+        store.stopSweeping();
+    }
+
+    def 'journal persists and replays'() {
+        setup:
+        def folder = tmp.newFolder();
+        def journaled = new JournaledCookieStore(folder, java.time.Duration.ofMinutes(1), true, 0, 0);
+        def theCookies = randomCookies(20) { ->
+            domain = yahoo.host;
+            comment = 'my comment';
+            maxAge = 1000L;
+            path = '/foo';
+            version = 1;
+        }
+
+        theCookies.each { cookie -> journaled.add((URI) null, cookie); };
+        (0..<5).each { num -> journaled.remove((URI) null, theCookies[num]); }
+        journaled.add(yahoo, new HttpCookie('session', 'not persisted'));
+
+        when:
+        journaled.shutdown();
+        def reRead = new JournaledCookieStore(folder, null, false, 0, 0);
+
+        then:
+        folder.list() as List == [JournaledCookieStore.JOURNAL]
+        reRead.cookies*.name as Set == theCookies[5..19]*.name as Set
+        reRead.cookies.every { cookie -> cookie.comment == 'my comment' && cookie.path == '/foo' && cookie.domain == yahoo.host }
+
+        cleanup:
+        reRead?.shutdown();
+    }
+
+    def 'journal flushes in the background'() {
+        setup:
+        def folder = tmp.newFolder();
+        def journaled = new JournaledCookieStore(folder, java.time.Duration.ofMillis(50), false, 0, 0);
+        def cookie = new HttpCookie('foo', 'bar');
+        cookie.maxAge = 1000L;
+        journaled.add(yahoo, cookie);
+
+        when:
+        sleep(500L);
+
+        then:
+        new File(folder, JournaledCookieStore.JOURNAL).length() > 0
+
+        cleanup:
+        journaled.shutdown();
+    }
+
+    def 'journal ignores truncated record'() {
+        setup:
+        def folder = tmp.newFolder();
+        def journaled = new JournaledCookieStore(folder, java.time.Duration.ofMinutes(1), false, 0, 0);
+        randomCookies(3, { maxAge = 1000L; }).each { cookie -> journaled.add(yahoo, cookie); }
+        journaled.shutdown();
+
+        def file = new File(folder, JournaledCookieStore.JOURNAL);
+        def bytes = file.bytes;
+        file.bytes = bytes[0..<(bytes.length - 3)] as byte[];
+
+        when:
+        def reRead = new JournaledCookieStore(folder, null, false, 0, 0);
+
+        then:
+        reRead.cookies*.name as Set == ['random0', 'random1'] as Set
+        file.length() < bytes.length
+
+        cleanup:
+        reRead?.shutdown();
+    }
+
+    def 'journal forgets a persistent cookie replaced by a session cookie'() {
+        setup:
+        def folder = tmp.newFolder();
+        def journaled = new JournaledCookieStore(folder, java.time.Duration.ofMinutes(1), false, 0, 0);
+        def persistent = new HttpCookie('foo', 'persistent');
+        persistent.maxAge = 1000L;
+        journaled.add(yahoo, persistent);
+        journaled.flush();
+
+        when:
+        journaled.add(yahoo, new HttpCookie('foo', 'session'));
+        journaled.shutdown();
+        def reRead = new JournaledCookieStore(folder, null, false, 0, 0);
+
+        then:
+        reRead.cookies.empty
+
+        cleanup:
+        reRead?.shutdown();
+    }
+
+    def 'journal compaction keeps the expiry of a refreshed cookie'() {
+        setup:
+        def folder = tmp.newFolder();
+        def journaled = new JournaledCookieStore(folder, java.time.Duration.ofMinutes(1), false, 0, 0);
+        def original = new HttpCookie('foo', 'original');
+        original.maxAge = 2L;
+        journaled.add(yahoo, original);
+        sleep(1_500L);
+
+        def refreshed = new HttpCookie('foo', 'refreshed');
+        refreshed.maxAge = 2L;
+        journaled.add(yahoo, refreshed);
+        journaled.flush();
+
+        when:
+        synchronized (journaled) {
+            journaled.compact();
+        }
+        journaled.shutdown();
+        sleep(1_000L);
+        def reRead = new JournaledCookieStore(folder, null, false, 0, 0);
+
+        then:
+        reRead.cookies*.value == ['refreshed']
+
+        cleanup:
+        reRead?.shutdown();
+    }
+
+    def 'closing the builder shuts down the journal'() {
+        setup:
+        def folder = tmp.newFolder();
+        def http = JavaHttpBuilder.configure {
+            client.cookieFolder = folder;
+            client.cookieJournal = true;
+            client.cookieFlushInterval = java.time.Duration.ofMinutes(1);
+        }
+
+        def cookie = new HttpCookie('foo', 'bar');
+        cookie.maxAge = 1000L;
+        http.cookieStore.add(yahoo, cookie);
+
+        when:
+        http.close();
+        http.close();
+        def reRead = new JournaledCookieStore(folder, null, false, 0, 0);
+
+        then:
+        reRead.cookies*.name == ['foo']
+
+        cleanup:
+        reRead?.shutdown();
+    }
 }
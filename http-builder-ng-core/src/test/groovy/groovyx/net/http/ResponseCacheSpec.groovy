@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2017 HttpBuilder-NG Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package groovyx.net.http
+
+import com.stehno.ersatz.ErsatzServer
+import org.junit.Rule
+import org.junit.rules.TemporaryFolder
+import spock.lang.AutoCleanup
+import spock.lang.Specification
+
+import static com.stehno.ersatz.ContentType.TEXT_PLAIN
+
+class ResponseCacheSpec extends Specification {
+
+    @Rule TemporaryFolder folder = new TemporaryFolder()
+
+    @AutoCleanup('stop')
+    private ErsatzServer ersatzServer = new ErsatzServer()
+
+    private HttpBuilder builder(final ResponseCache cache) {
+        JavaHttpBuilder.configure {
+            request.uri = ersatzServer.httpUrl
+            client.responseCache = cache
+        }
+    }
+
+    def 'fresh responses are served from the cache'() {
+        setup:
+        ersatzServer.expectations {
+            get('/fresh').called(1).responds().header('Cache-Control', 'public, max-age=60').content('cached', TEXT_PLAIN)
+        }
+
+        def http = builder(new ResponseCache(1024 * 1024))
+
+        expect:
+        (1..3).collect { http.get { request.uri.path = '/fresh' } } == ['cached'] * 3
+        http.getAsync { request.uri.path = '/fresh' }.get() == 'cached'
+        ersatzServer.verify()
+    }
+
+    def 'stale responses are revalidated'() {
+        setup:
+        ersatzServer.expectations {
+            get('/etag').header('If-None-Match', '"v1"').called(2).responds().code(304)
+            get('/etag').called(1).responds().header('ETag', '"v1"').header('Cache-Control', 'no-cache').content('tagged', TEXT_PLAIN)
+        }
+
+        def http = builder(new ResponseCache(1024 * 1024))
+
+        expect:
+        (1..3).collect { http.get { request.uri.path = '/etag' } } == ['tagged'] * 3
+        ersatzServer.verify()
+    }
+
+    def 'no-store responses are not cached'() {
+        setup:
+        ersatzServer.expectations {
+            get('/private').called(2).responds().header('Cache-Control', 'no-store, max-age=60').content('secret', TEXT_PLAIN)
+        }
+
+        def http = builder(new ResponseCache(1024 * 1024))
+
+        expect:
+        (1..2).collect { http.get { request.uri.path = '/private' } } == ['secret'] * 2
+        ersatzServer.verify()
+    }
+
+    def 'unsafe requests invalidate the cached response'() {
+        setup:
+        ersatzServer.expectations {
+            get('/thing').called(2).responds().header('Cache-Control', 'max-age=60').content('thing', TEXT_PLAIN)
+            post('/thing').called(1).responds().content('changed', TEXT_PLAIN)
+        }
+
+        def http = builder(new ResponseCache(1024 * 1024))
+
+        when:
+        http.get { request.uri.path = '/thing' }
+        http.get { request.uri.path = '/thing' }
+        http.post { request.uri.path = '/thing' }
+        http.get { request.uri.path = '/thing' }
+
+        then:
+        ersatzServer.verify()
+    }
+
+    def 'evicted responses are kept on disk'() {
+        setup:
+        ersatzServer.expectations {
+            get('/one').called(1).responds().header('Cache-Control', 'max-age=60').content('a' * 90, TEXT_PLAIN)
+            get('/two').called(1).responds().header('Cache-Control', 'max-age=60').content('b' * 90, TEXT_PLAIN)
+        }
+
+        def cache = new ResponseCache(400, folder.newFolder(), 1024 * 1024)
+        def http = builder(cache)
+
+        when:
+        http.get { request.uri.path = '/one' }
+        http.get { request.uri.path = '/two' }
+        http.get { request.uri.path = '/one' }
+        http.get { request.uri.path = '/two' }
+
+        then:
+        cache.diskUsed > 0
+        cache.memoryUsed <= 400
+        ersatzServer.verify()
+    }
+
+    def 'cached parsed bodies'() {
+        setup:
+        ersatzServer.expectations {
+            get('/parsed').called(1).responds().header('Cache-Control', 'max-age=60').content('parsed', TEXT_PLAIN)
+        }
+
+        def cache = new ResponseCache(1024 * 1024)
+        cache.cacheParsed = true
+
+        int parsed = 0
+        def http = JavaHttpBuilder.configure {
+            request.uri = ersatzServer.httpUrl
+            client.responseCache = cache
+            response.parser(TEXT_PLAIN.value) { config, fs -> ++parsed; NativeHandlers.Parsers.textToString(config, fs) }
+        }
+
+        expect:
+        (1..3).collect { http.get { request.uri.path = '/parsed' } } == ['parsed'] * 3
+        parsed == 1
+    }
+
+    def 'cache control directives'() {
+        expect:
+        ResponseCache.directives(header) == expected
+
+        where:
+        header                              || expected
+        null                                || [:]
+        'no-cache'                          || ['no-cache': '']
+        'public, max-age=60'                || [public: '', 'max-age': '60']
+        'private="x", s-maxage = 10'        || [private: 'x', 's-maxage': '10']
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2017 HttpBuilder-NG Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package groovyx.net.http
+
+import com.stehno.ersatz.ErsatzServer
+import groovy.util.slurpersupport.GPathResult
+import spock.lang.AutoCleanup
+import spock.lang.Specification
+
+class XmlSpec extends Specification {
+
+    private static final String FEED = '''<?xml version="1.0" encoding="utf-8"?>
+        <feed xmlns="http://www.w3.org/2005/Atom" xmlns:x="urn:x">
+            <title>Feed</title>
+            <entry id="1"><title>First</title><x:tag>a</x:tag></entry>
+            <other><entry id="nested"/></other>
+            <entry id="2"><title>Second <![CDATA[<b>]]></title><x:tag>b</x:tag></entry>
+            <entry id="3"><title>Third</title></entry>
+        </feed>'''.stripIndent()
+
+    @AutoCleanup('stop')
+    private ErsatzServer ersatzServer = new ErsatzServer()
+
+    private HttpBuilder http
+
+    def setup() {
+        ersatzServer.expectations {
+            get('/feed').responds().content(FEED, 'application/atom+xml')
+        }
+
+        http = JavaHttpBuilder.configure {
+            request.uri = "${ersatzServer.httpUrl}/feed"
+        }
+    }
+
+    def 'elements at a path are read lazily'() {
+        when:
+        Xml.Elements entries = http.get(Xml.Elements) {
+            Xml.elements(delegate, '/feed/entry')
+        }
+
+        List<GPathResult> found = entries.collect()
+
+        then:
+        found*.@id*.text() == ['1', '2', '3']
+        found*.title*.text() == ['First', 'Second <b>', 'Third']
+        found[0].tag.text() == 'a'
+        found[0].name() == 'entry'
+        !entries.hasNext()
+    }
+
+    def 'elements closed early'() {
+        when:
+        Xml.Elements entries = http.get(Xml.Elements) {
+            Xml.elements(delegate, 'feed/*')
+        }
+
+        def first = entries.next()
+        entries.close()
+
+        then:
+        first.name() == 'title'
+        first.text() == 'Feed'
+        !entries.hasNext()
+    }
+
+    def 'namespace declarations are scoped to their element'() {
+        setup:
+        ersatzServer.expectations {
+            get('/items').responds().content('''<?xml version="1.0" encoding="utf-8"?>
+                <list xmlns:r="urn:root">
+                    <group xmlns:a="urn:a"><item><a:name>one</a:name></item></group>
+                    <group><item xmlns:b="urn:b"><b:name>two</b:name></item></group>
+                    <group><item xmlns:a="urn:other"><name>three</name></item></group>
+                </list>'''.stripIndent(), 'application/xml')
+        }
+
+        when:
+        List<GPathResult> items = http.get(Xml.Elements) {
+            request.uri.path = '/items'
+            Xml.elements(delegate, '/list/group/item')
+        }.collect()
+
+        then:
+        items.collect { hints(it) } == [
+            [r: 'urn:root', a: 'urn:a'],
+            [r: 'urn:root', b: 'urn:b'],
+            [r: 'urn:root', a: 'urn:other']
+        ]
+        items[0].name.text() == 'one'
+        items[1].name.text() == 'two'
+    }
+
+    private static Map<String, String> hints(final GPathResult result) {
+        def field = GPathResult.getDeclaredField('namespaceTagHints')
+        field.accessible = true
+        field.get(result).findAll { k, v -> k != 'xml' } as Map
+    }
+
+    def 'each element passed to a consumer'() {
+        setup:
+        def titles = []
+
+        when:
+        def count = http.get {
+            Xml.eachElement(delegate, '/feed/entry/title') { titles << it.text() }
+        }
+
+        then:
+        count == 3
+        titles == ['First', 'Second <b>', 'Third']
+    }
+}
@@ -15,6 +15,7 @@
  */
 package groovyx.net.http.optional
 
+import com.stehno.ersatz.Decoders
 import com.stehno.ersatz.ErsatzServer
 import groovyx.net.http.HttpBuilder
 import spock.lang.AutoCleanup
@@ -25,7 +26,9 @@ import static groovyx.net.http.optional.Csv.toCsv
 
 class CsvSpec extends Specification {
 
-    @AutoCleanup('stop') private final ErsatzServer ersatzServer = new ErsatzServer()
+    @AutoCleanup('stop') private final ErsatzServer ersatzServer = new ErsatzServer({
+        decoder 'text/csv', Decoders.utf8String
+    })
 
     // TODO: more testing needed here
 
@@ -48,4 +51,58 @@ class CsvSpec extends Specification {
         result[1][0] == 'Disallow'
         result[1][1].trim() == '/deny'
     }
+
+    def 'rows encoded from an iterator'() {
+        setup:
+        ersatzServer.expectations {
+            post('/upload').body('"a","b"\n"c","d,e"\n', 'text/csv').responds().content('ok', TEXT_PLAIN)
+        }.start()
+
+        when:
+        def result = HttpBuilder.configure {
+            request.uri = "${ersatzServer.httpUrl}/upload"
+            request.contentType = 'text/csv'
+            toCsv(delegate, ',' as char)
+        }.post {
+            request.body = [['a', 'b'] as String[], ['c', 'd,e'] as String[]].iterator()
+        }
+
+        then:
+        result == 'ok'
+    }
+
+    def 'rows read lazily'() {
+        setup:
+        ersatzServer.expectations {
+            get('/export.csv').responds().content((1..1000).collect { "$it,name-$it" }.join('\n'), 'text/csv')
+        }.start()
+
+        def http = HttpBuilder.configure {
+            request.uri = "${ersatzServer.httpUrl}/export.csv"
+        }
+
+        when:
+        Csv.Rows rows = http.get(Csv.Rows) {
+            Csv.rows(delegate)
+        }
+
+        def all = rows.collect { it[1] }
+
+        then:
+        all.size() == 1000
+        all.last() == 'name-1000'
+        !rows.hasNext()
+
+        when:
+        rows = http.get(Csv.Rows) {
+            Csv.rows(delegate)
+        }
+
+        def first = rows.next()
+        rows.close()
+
+        then:
+        first == ['1', 'name-1'] as String[]
+        !rows.hasNext()
+    }
 }
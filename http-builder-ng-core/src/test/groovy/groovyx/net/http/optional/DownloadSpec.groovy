@@ -16,6 +16,7 @@
 package groovyx.net.http.optional
 
 import com.stehno.ersatz.ErsatzServer
+import groovyx.net.http.TransportingException
 import org.junit.Rule
 import org.junit.rules.TemporaryFolder
 import spock.lang.AutoCleanup
@@ -23,6 +24,7 @@ import spock.lang.Specification
 
 import static groovyx.net.http.ContentTypes.TEXT
 import static groovyx.net.http.HttpBuilder.configure
+import static java.util.concurrent.Executors.newFixedThreadPool
 import static groovyx.net.http.optional.Download.*
 
 class DownloadSpec extends Specification {
@@ -131,4 +133,128 @@ class DownloadSpec extends Specification {
         then:
         stream.toByteArray() == CONTENT.bytes
     }
+
+    def 'toFile in segments'() {
+        given:
+        ersatzServer.expectations {
+            get('/segmented').header('Range', 'bytes=0-0').responds()
+                .code(206).header('Content-Range', "bytes 0-0/${CONTENT.size()}").header('ETag', '"v1"').content(CONTENT[0], TEXT[0])
+
+            [[1, 8], [9, 16], [17, 25]].each { start, end ->
+                get('/segmented').header('Range', "bytes=$start-$end").header('If-Range', '"v1"').responds()
+                    .code(206).header('Content-Range', "bytes $start-$end/${CONTENT.size()}").content(CONTENT[start..end], TEXT[0])
+            }
+        }.start()
+
+        def executor = newFixedThreadPool(3)
+        def http = configure {
+            request.uri = ersatzServer.httpUrl
+            execution.executor = executor
+        }
+
+        File saved = folder.newFile()
+
+        when:
+        File file = Download.toFile(http, saved, 3) {
+            request.uri.path = '/segmented'
+        }
+
+        then:
+        file == saved
+        file.text == CONTENT
+
+        cleanup:
+        executor.shutdown()
+    }
+
+    def 'toFile in segments without range support'() {
+        given:
+        ersatzServer.expectations {
+            get('/download').responds().content(CONTENT, TEXT[0])
+        }.start()
+
+        File saved = folder.newFile()
+        saved.text = 'previous content which is longer than the download'
+
+        when:
+        File file = Download.toFile(configure { request.uri = "${ersatzServer.httpUrl}/download" }, saved, 4)
+
+        then:
+        file.text == CONTENT
+    }
+
+    def 'toFile in segments with a short segment'() {
+        given:
+        ersatzServer.expectations {
+            get('/short').header('Range', 'bytes=0-0').responds()
+                .code(206).header('Content-Range', "bytes 0-0/${CONTENT.size()}").content(CONTENT[0], TEXT[0])
+            get('/short').header('Range', "bytes=1-25").responds()
+                .code(206).header('Content-Range', "bytes 1-25/${CONTENT.size()}").content(CONTENT[1..20], TEXT[0])
+        }.start()
+
+        when:
+        Download.toFile(configure { request.uri = "${ersatzServer.httpUrl}/short" }, folder.newFile(), 1)
+
+        then:
+        thrown(TransportingException)
+    }
+
+    def 'toResumableFile resumes from a checkpoint'() {
+        given:
+        ersatzServer.expectations {
+            get('/resumable').header('Range', 'bytes=10-').header('If-Range', '"v1"').responds()
+                .code(206).header('Content-Range', "bytes 10-25/${CONTENT.size()}").header('ETag', '"v1"').content(CONTENT[10..25], TEXT[0])
+        }.start()
+
+        File saved = folder.newFile()
+        saved.text = CONTENT[0..9] + 'garbage past the checkpoint'
+        checkpointFile(saved).text = 'validator="v1"\nwritten=10\n'
+
+        when:
+        File file = configure {
+            request.uri = "${ersatzServer.httpUrl}/resumable"
+        }.get { toResumableFile(delegate, saved) }
+
+        then:
+        file.text == CONTENT
+        !checkpointFile(saved).exists()
+    }
+
+    def 'toResumableFile restarts when the content changed'() {
+        given:
+        ersatzServer.expectations {
+            get('/resumable').header('Range', 'bytes=10-').responds().header('ETag', '"v2"').content(CONTENT, TEXT[0])
+        }.start()
+
+        File saved = folder.newFile()
+        saved.text = 'old content of the previous version'
+        checkpointFile(saved).text = 'validator="v1"\nwritten=10\n'
+
+        when:
+        File file = configure {
+            request.uri = "${ersatzServer.httpUrl}/resumable"
+        }.get { toResumableFile(delegate, saved) }
+
+        then:
+        file.text == CONTENT
+        !checkpointFile(saved).exists()
+    }
+
+    def 'toResumableFile without a checkpoint'() {
+        given:
+        ersatzServer.expectations {
+            get('/resumable').responds().header('ETag', '"v1"').content(CONTENT, TEXT[0])
+        }.start()
+
+        File saved = new File(folder.root, 'fresh.txt')
+
+        when:
+        File file = configure {
+            request.uri = "${ersatzServer.httpUrl}/resumable"
+        }.get { toResumableFile(delegate, saved) }
+
+        then:
+        file.text == CONTENT
+        !checkpointFile(saved).exists()
+    }
 }
@@ -16,16 +16,21 @@
 package groovyx.net.http.optional
 
 import com.fasterxml.jackson.databind.ObjectMapper
+import com.stehno.ersatz.Decoders
 import com.stehno.ersatz.ErsatzServer
 import groovyx.net.http.HttpBuilder
 import spock.lang.AutoCleanup
 import spock.lang.Specification
 
+import java.util.stream.Collectors
+
 import static groovyx.net.http.ContentTypes.JSON
 
 class JacksonSpec extends Specification {
 
-    @AutoCleanup('stop') private final ErsatzServer ersatzServer = new ErsatzServer()
+    @AutoCleanup('stop') private final ErsatzServer ersatzServer = new ErsatzServer({
+        decoder JSON[0], Decoders.utf8String
+    })
     private static final String CONTENT = '{"alpha":"bravo","charlie":42}'
     private static final String CONTENT_TYPE = 'jackson/json'
     private final ObjectMapper objectMapper = new ObjectMapper()
@@ -34,6 +39,9 @@ class JacksonSpec extends Specification {
         ersatzServer.expectations {
             get('/jackson').responds().content(CONTENT, CONTENT_TYPE)
             get('/json').responds().content(CONTENT, JSON[0])
+            post('/json').body(CONTENT, JSON[0]).responds().content(CONTENT, JSON[0])
+            get('/array').responds().content("[${(1..100).collect { /{"alpha":"a$it","charlie":$it}/ }.join(',')}]", JSON[0])
+            get('/ndjson').responds().content((1..100).collect { /{"alpha":"a$it","charlie":$it}/ }.join('\n'), CONTENT_TYPE)
         }.start()
     }
 
@@ -104,4 +112,111 @@ class JacksonSpec extends Specification {
         then:
         result == [alpha: 'bravo', charlie: 42]
     }
+
+    def 'typed response parsed from the content bytes'() {
+        given:
+        def http = HttpBuilder.configure {
+            request.uri = "${ersatzServer.httpUrl}/json"
+            request.contentType = JSON[0]
+            Jackson.mapper(delegate, objectMapper)
+        }
+
+        when:
+        def results = (1..3).collect {
+            http.get(Thing) {
+                Jackson.use(delegate)
+            }
+        }
+
+        then:
+        results.every { it.alpha == 'bravo' && it.charlie == 42 }
+    }
+
+    def 'request body encoded as bytes'() {
+        given:
+        def http = HttpBuilder.configure {
+            request.uri = "${ersatzServer.httpUrl}/json"
+            request.contentType = JSON[0]
+            Jackson.mapper(delegate, objectMapper)
+        }
+
+        when:
+        def result = http.post(Thing) {
+            request.body = new Thing(alpha: 'bravo', charlie: 42)
+            Jackson.use(delegate)
+        }
+
+        then:
+        result.alpha == 'bravo'
+        result.charlie == 42
+    }
+
+    def 'array response read lazily as records'() {
+        given:
+        def http = HttpBuilder.configure {
+            request.uri = "${ersatzServer.httpUrl}/array"
+            Jackson.mapper(delegate, objectMapper)
+        }
+
+        when:
+        Jackson.Records<Thing> records = http.get(Jackson.Records) {
+            Jackson.records(delegate, Thing)
+        }
+
+        def stream = records.stream()
+        List<Integer> values = stream.map { it.charlie }.collect(Collectors.toList())
+        stream.close()
+
+        then:
+        values == (1..100).toList()
+        !records.hasNext()
+    }
+
+    def 'newline-delimited response read lazily and closed early'() {
+        given:
+        def http = HttpBuilder.configure {
+            request.uri = "${ersatzServer.httpUrl}/ndjson"
+            Jackson.mapper(delegate, objectMapper, [CONTENT_TYPE])
+        }
+
+        when:
+        Jackson.Records<Thing> records = http.get(Jackson.Records) {
+            Jackson.records(delegate, Thing, [CONTENT_TYPE])
+        }
+
+        def first = records.take(3).collect { it.alpha }
+        records.close()
+
+        then:
+        first == ['a1', 'a2', 'a3']
+        !records.hasNext()
+    }
+
+    def 'records consumed by the response action are closed'() {
+        given:
+        def http = HttpBuilder.configure {
+            request.uri = "${ersatzServer.httpUrl}/array"
+            Jackson.mapper(delegate, objectMapper)
+        }
+
+        when:
+        Jackson.Records<Thing> records = null
+        int count = http.get(Integer) {
+            Jackson.records(delegate, Thing)
+            response.success { fs, body ->
+                records = body
+                body.next()
+                1
+            }
+        }
+
+        then:
+        count == 1
+        !records.hasNext()
+    }
+
+    static class Thing {
+        String alpha
+        int charlie
+    }
 }
@@ -17,6 +17,9 @@ package groovyx.net.http.util
 
 import spock.lang.Specification
 
+import java.nio.channels.FileChannel
+import java.nio.file.StandardOpenOption
+
 import static com.stehno.vanilla.test.Randomizers.forByteArray
 import static com.stehno.vanilla.test.Randomizers.random
 
@@ -34,6 +37,40 @@ class IoUtilsSpec extends Specification {
         ]
     }
 
+    def 'streamToBytes with expected length'() {
+        setup:
+        byte[] bytes = random(forByteArray(1000..1000))
+
+        expect:
+        IoUtils.streamToBytes(new ByteArrayInputStream(bytes), length, true) == bytes
+
+        where:
+        length << [-1, 0, 10, 999, 1000, 1001, 5000]
+    }
+
+    def 'buffers are reused and resized'() {
+        setup:
+        int size = IoUtils.bufferSize
+
+        when:
+        byte[] buffer = IoUtils.borrowBuffer()
+        IoUtils.returnBuffer(buffer)
+
+        then:
+        buffer.length == size
+        IoUtils.borrowBuffer().is(buffer)
+
+        when:
+        IoUtils.returnBuffer(buffer)
+        IoUtils.bufferSize = 100
+
+        then:
+        IoUtils.borrowBuffer().length == 100
+
+        cleanup:
+        IoUtils.bufferSize = size
+    }
+
     @SuppressWarnings('GrDeprecatedAPIUsage')
     def 'copyAsString'() {
         expect:
@@ -60,4 +97,60 @@ class IoUtilsSpec extends Specification {
         then:
         outputStream.toByteArray() == 'something interesting'.bytes
     }
+
+    def 'transfer from file'() {
+        setup:
+        byte[] bytes = random(forByteArray(10000..10000))
+        File file = File.createTempFile('io-utils', '.bin')
+        file.deleteOnExit()
+        file.bytes = bytes
+
+        OutputStream outputStream = new ByteArrayOutputStream()
+
+        when:
+        IoUtils.transfer(new FileInputStream(file), outputStream, true)
+
+        then:
+        outputStream.toByteArray() == bytes
+    }
+
+    def 'transfer into file channel'() {
+        setup:
+        File file = File.createTempFile('io-utils', '.bin')
+        file.deleteOnExit()
+        file.text = 'some '
+
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)
+
+        when:
+        long transferred = IoUtils.transfer(new ByteArrayInputStream('thing interesting'.bytes), channel, 5, count)
+        channel.close()
+
+        then:
+        transferred == written.length() - 5
+        file.text == written
+
+        where:
+        count          || written
+        Long.MAX_VALUE || 'some thing interesting'
+        5              || 'some thing'
+    }
+
+    def 'bufferIfSmall'() {
+        setup:
+        PushbackInputStream inputStream = new PushbackInputStream(new ByteArrayInputStream(content.bytes), 11)
+
+        expect:
+        IoUtils.bufferIfSmall(inputStream, 10) == buffered?.bytes
+
+        and: 'unbuffered content is still readable'
+        buffered != null || inputStream.text == content
+
+        where:
+        content                || buffered
+        ''                     || ''
+        'something'            || 'something'
+        'ten chars!'           || 'ten chars!'
+        'something interesting' || null
+    }
 }
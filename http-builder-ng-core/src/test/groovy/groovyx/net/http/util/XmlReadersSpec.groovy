@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2017 HttpBuilder-NG Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package groovyx.net.http.util
+
+import groovy.util.slurpersupport.GPathResult
+import org.xml.sax.SAXException
+import org.xml.sax.XMLReader
+import spock.lang.Specification
+
+import javax.xml.parsers.SAXParserFactory
+
+class XmlReadersSpec extends Specification {
+
+    private int created
+    private final XmlReaders readers = new XmlReaders(2, {
+        created++
+        SAXParserFactory factory = SAXParserFactory.newInstance()
+        factory.namespaceAware = true
+        factory.newSAXParser().XMLReader
+    } as XmlReaders.Factory)
+
+    def 'readers are reused between parses'() {
+        when:
+        List<String> names = (1..5).collect { n ->
+            GPathResult result = readers.parse { XMLReader reader ->
+                new XmlSlurper(reader).parseText("<item><name>item-$n</name></item>")
+            }
+            result.name.text()
+        }
+
+        then:
+        names == (1..5).collect { "item-$it" as String }
+        created == 1
+        readers.idle == 1
+    }
+
+    def 'parsed results are independent of later parses'() {
+        when:
+        GPathResult first = readers.parse { XMLReader reader -> new XmlSlurper(reader).parseText('<a:x xmlns:a="urn:a"><a:y>1</a:y></a:x>') }
+        GPathResult second = readers.parse { XMLReader reader -> new XmlSlurper(reader).parseText('<b:x xmlns:b="urn:b"><b:y>2</b:y></b:x>') }
+
+        then:
+        first.y.text() == '1'
+        second.y.text() == '2'
+    }
+
+    def 'readers failing to parse are discarded'() {
+        when:
+        readers.parse { XMLReader reader -> new XmlSlurper(reader).parseText('<broken>') }
+
+        then:
+        thrown(SAXException)
+        readers.idle == 0
+
+        when:
+        readers.parse { XMLReader reader -> new XmlSlurper(reader).parseText('<ok/>') }
+
+        then:
+        created == 2
+        readers.idle == 1
+    }
+
+    def 'pool retains at most its capacity'() {
+        when:
+        readers.parse { XMLReader a ->
+            readers.parse { XMLReader b ->
+                readers.parse { XMLReader c -> c }
+            }
+        }
+
+        then:
+        created == 3
+        readers.idle == 2
+    }
+}
@@ -24,20 +24,26 @@ import groovy.lang.DelegatesTo;
 import groovyx.net.http.util.IoUtils;
 import okhttp3.*;
 import okio.BufferedSink;
+import okio.Okio;
 
 import javax.net.ssl.SSLContext;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.PushbackInputStream;
 import java.net.Proxy;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.Charset;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -57,6 +63,8 @@ public class OkHttpBuilder extends HttpBuilder {
     private static final Function<HttpObjectConfig, ? extends HttpBuilder> okFactory = OkHttpBuilder::new;
     private static final String OPTIONS = "OPTIONS";
     private static final String TRACE = "TRACE";
+    private static final int DEFAULT_MAX_IDLE_CONNECTIONS = 5;
+    private static final Duration DEFAULT_KEEP_ALIVE = Duration.ofMinutes(5);
     private final ChainedHttpConfig config;
     private final HttpObjectConfig.Client clientConfig;
     private final Executor executor;
@@ -88,6 +96,8 @@ public class OkHttpBuilder extends HttpBuilder {
             );
         }
 
+        applyPooling(builder, config.getExecution());
+
         final Consumer<Object> clientCustomizer = clientConfig.getClientCustomizer();
         if (clientCustomizer != null) {
             clientCustomizer.accept(builder);
@@ -101,6 +111,27 @@ public class OkHttpBuilder extends HttpBuilder {
         this.client = builder.build();
     }
 
+    private static void applyPooling(final OkHttpClient.Builder builder, final HttpObjectConfig.Execution execution) {
+        final int maxConnections = execution.getMaxConnections() > 0 ? execution.getMaxConnections() :
+            (execution.getMaxThreads() > 1 ? execution.getMaxThreads() : 0);
+        final int maxPerRoute = execution.getMaxConnectionsPerRoute() > 0 ? execution.getMaxConnectionsPerRoute() : maxConnections;
+        final Duration keepAlive = execution.getKeepAlive();
+
+        if (maxConnections > 0) {
+            final Dispatcher dispatcher = new Dispatcher();
+            dispatcher.setMaxRequests(maxConnections);
+            dispatcher.setMaxRequestsPerHost(maxPerRoute);
+            builder.dispatcher(dispatcher);
+        }
+
+        if (maxConnections > 0 || keepAlive != null) {
+            builder.connectionPool(new ConnectionPool(
+                maxConnections > 0 ? maxConnections : DEFAULT_MAX_IDLE_CONNECTIONS,
+                (keepAlive != null ? keepAlive : DEFAULT_KEEP_ALIVE).toMillis(), TimeUnit.MILLISECONDS
+            ));
+        }
+    }
+
     private boolean usesProxy(final ProxyInfo pinfo) {
         return pinfo != null && pinfo.getProxy().type() != Proxy.Type.DIRECT;
     }
@@ -131,7 +162,7 @@ public class OkHttpBuilder extends HttpBuilder {
      * @param closure the configuration closure (delegated to {@link HttpObjectConfig})
      * @return the configured `HttpBuilder`
      */
-    public static HttpBuilder configure(@DelegatesTo(HttpObjectConfig.class) final Closure closure) {
+    public static HttpBuilder configure(@DelegatesTo(HttpObjectConfig.class) final Closure<?> closure) {
         return configure(okFactory, closure);
     }
 
@@ -181,47 +212,47 @@ public class OkHttpBuilder extends HttpBuilder {
 
     @Override
     protected Object doGet(final ChainedHttpConfig chainedConfig) {
-        return execute((url) -> new Request.Builder().get().url(url), chainedConfig);
+        return execute(chainedConfig);
     }
 
     @Override
     protected Object doHead(final ChainedHttpConfig chainedConfig) {
-        return execute((url) -> new Request.Builder().head().url(url), chainedConfig);
+        return execute(chainedConfig);
     }
 
     @Override
     protected Object doPost(final ChainedHttpConfig chainedConfig) {
-        return execute((url) -> new Request.Builder().post(resolveRequestBody(chainedConfig)).url(url), chainedConfig);
+        return execute(chainedConfig);
     }
 
     @Override
     protected Object doPut(final ChainedHttpConfig chainedConfig) {
-        return execute((url) -> new Request.Builder().put(resolveRequestBody(chainedConfig)).url(url), chainedConfig);
+        return execute(chainedConfig);
     }
 
     @Override
     protected Object doPatch(final ChainedHttpConfig chainedConfig) {
-        return execute((url) -> new Request.Builder().patch(resolveRequestBody(chainedConfig)).url(url), chainedConfig);
+        return execute(chainedConfig);
     }
 
     @Override
     protected Object doDelete(final ChainedHttpConfig chainedConfig) {
-        return execute((url) -> new Request.Builder().delete().url(url), chainedConfig);
+        return execute(chainedConfig);
     }
 
     @Override
     protected Object doOptions(final ChainedHttpConfig config) {
-        return execute((url) -> new Request.Builder().method(OPTIONS, null).url(url), config);
+        return execute(config);
     }
 
     @Override
     protected Object doTrace(final ChainedHttpConfig config) {
-        return execute((url) -> new Request.Builder().method(TRACE, null).url(url), config);
+        return execute(config);
     }
 
     @Override
     public void close() throws IOException {
-        // does nothing
+        closeCookieStore();
     }
 
     private RequestBody resolveRequestBody(final ChainedHttpConfig chainedConfig) {
@@ -275,27 +306,100 @@ public class OkHttpBuilder extends HttpBuilder {
         }
     }
 
-    private Object execute(final Function<HttpUrl, Request.Builder> makeBuilder, final ChainedHttpConfig chainedConfig) {
-        try {
-            final ChainedHttpConfig.ChainedRequest cr = chainedConfig.getChainedRequest();
-            final URI uri = cr.getUri().toURI();
-            final HttpUrl httpUrl = HttpUrl.get(uri);
-            final Request.Builder requestBuilder = makeBuilder.apply(httpUrl);
+    private Request.Builder requestBuilder(final HttpUrl url, final ChainedHttpConfig chainedConfig) {
+        final HttpVerb verb = chainedConfig.getChainedRequest().getVerb();
+        switch (verb) {
+            case GET:
+                return new Request.Builder().get().url(url);
+            case HEAD:
+                return new Request.Builder().head().url(url);
+            case POST:
+                return new Request.Builder().post(resolveRequestBody(chainedConfig)).url(url);
+            case PUT:
+                return new Request.Builder().put(resolveRequestBody(chainedConfig)).url(url);
+            case PATCH:
+                return new Request.Builder().patch(resolveRequestBody(chainedConfig)).url(url);
+            case DELETE:
+                return new Request.Builder().delete().url(url);
+            case OPTIONS:
+                return new Request.Builder().method(OPTIONS, null).url(url);
+            case TRACE:
+                return new Request.Builder().method(TRACE, null).url(url);
+            default:
+                throw new IllegalArgumentException("Unsupported verb: " + verb);
+        }
+    }
+
+    private Request buildRequest(final ChainedHttpConfig chainedConfig) throws URISyntaxException {
+        final ChainedHttpConfig.ChainedRequest cr = chainedConfig.getChainedRequest();
+        final Request.Builder requestBuilder = requestBuilder(HttpUrl.get(cr.getUri().toURI()), chainedConfig);
+
+        applyHeaders(requestBuilder, cr);
 
-            applyHeaders(requestBuilder, cr);
+        applyAuth(requestBuilder, chainedConfig);
 
-            applyAuth(requestBuilder, chainedConfig);
+        return requestBuilder.build();
+    }
 
-            try (Response response = client.newCall(requestBuilder.build()).execute()) {
+    private Object execute(final ChainedHttpConfig chainedConfig) {
+        try {
+            final Request request = buildRequest(chainedConfig);
+
+            // the response handling closes the response, unless its content is still being streamed to the caller
+            final Response response = client.newCall(request).execute();
+            try {
                 return HANDLER_FUNCTION.apply(chainedConfig, new OkHttpFromServer(chainedConfig.getChainedRequest().getUri().toURI(), response));
-            } catch (IOException ioe) {
-                throw ioe; //re-throw, close has happened
+            } catch (Exception e) {
+                response.close();
+                throw e;
             }
         } catch (Exception e) {
             return handleException(chainedConfig.getChainedResponse(), e);
         }
     }
 
+    /**
+     * Enqueues the request with the OkHttp dispatcher so that no executor thread is held while the request is in flight. The response is handled on
+     * the dispatcher thread which received it.
+     */
+    @Override
+    protected CompletableFuture<Object> doAsync(final ChainedHttpConfig chainedConfig) {
+        final CompletableFuture<Object> future = new CompletableFuture<>();
+
+        try {
+            final URI uri = chainedConfig.getChainedRequest().getUri().toURI();
+
+            final Call call = client.newCall(buildRequest(chainedConfig));
+            call.enqueue(new Callback() {
+                @Override
+                public void onFailure(final Call call, final IOException e) {
+                    completeExceptionally(chainedConfig, future, e);
+                }
+
+                @Override
+                public void onResponse(final Call call, final Response response) {
+                    try {
+                        future.complete(HANDLER_FUNCTION.apply(chainedConfig, new OkHttpFromServer(uri, response)));
+                    } catch (Exception e) {
+                        response.close();
+                        completeExceptionally(chainedConfig, future, e);
+                    }
+                }
+            });
+
+            future.whenComplete((result, thrown) -> {
+                if (future.isCancelled()) {
+                    call.cancel();
+                }
+            });
+
+        } catch (Exception e) {
+            completeExceptionally(chainedConfig, future, e);
+        }
+
+        return future;
+    }
+
     private class OkHttpFromServer implements FromServer {
 
         private final URI uri;
@@ -366,24 +470,51 @@ public class OkHttpBuilder extends HttpBuilder {
         }
     }
 
-    private static class OkHttpToServer extends RequestBody implements ToServer {
+    /**
+     * Request body fed by the configured encoder. Content of a known length (e.g. a `File`, `Path` or `byte[]` body) is written straight from its
+     * stream into the Okio sink; `File` and `Path` content is reopened from its {@link ToServer.Source} for every write, so the body may be sent
+     * again on a retry or an authentication challenge. Content of unknown length is buffered when it is no larger than {@link #BUFFER_LIMIT} bytes;
+     * anything larger is streamed with an unknown (`-1`) content length.
+     */
+    static class OkHttpToServer extends RequestBody implements ToServer {
+
+        static final int BUFFER_LIMIT = 8_192;
 
         private ChainedHttpConfig config;
         private byte[] bytes;
+        private InputStream inputStream;
+        private Source source;
+        private long contentLength = -1L;
 
-        private OkHttpToServer(final ChainedHttpConfig config) {
+        OkHttpToServer(final ChainedHttpConfig config) {
             this.config = config;
         }
 
         @Override
         public void toServer(final InputStream inputStream) {
             try {
-                this.bytes = IoUtils.streamToBytes(inputStream);
+                final PushbackInputStream pushback = new PushbackInputStream(inputStream, BUFFER_LIMIT + 1);
+                this.bytes = IoUtils.bufferIfSmall(pushback, BUFFER_LIMIT);
+                if (bytes == null) {
+                    this.inputStream = pushback;
+                }
             } catch (IOException e) {
                 throw new RuntimeException(e);
             }
         }
 
+        @Override
+        public void toServer(final InputStream inputStream, final long contentLength) {
+            this.inputStream = inputStream;
+            this.contentLength = contentLength;
+        }
+
+        @Override
+        public void toServer(final Source source, final long contentLength) {
+            this.source = source;
+            this.contentLength = contentLength;
+        }
+
         @Override
         public MediaType contentType() {
             return resolveMediaType(config.findContentType(), config.findCharset());
@@ -391,12 +522,28 @@ public class OkHttpBuilder extends HttpBuilder {
 
         @Override
         public long contentLength() throws IOException {
-            return bytes.length;
+            return bytes != null ? bytes.length : contentLength;
         }
 
         @Override
         public void writeTo(final BufferedSink sink) throws IOException {
-            sink.write(bytes);
+            if (bytes != null) {
+                sink.write(bytes);
+
+            } else if (source != null) {
+                try (okio.Source content = Okio.source(source.open())) {
+                    sink.writeAll(content);
+                }
+
+            } else if (inputStream instanceof ByteArrayInputStream) {
+                ((ByteArrayInputStream) inputStream).reset();
+                sink.writeAll(Okio.source(inputStream));
+
+            } else {
+                try (okio.Source source = Okio.source(inputStream)) {
+                    sink.writeAll(source);
+                }
+            }
         }
     }
 }
@@ -15,11 +15,18 @@
  */
 package groovyx.net.http
 
+import com.stehno.ersatz.Decoders
 import com.stehno.ersatz.ErsatzServer
 import groovy.transform.Canonical
 import okhttp3.OkHttpClient
+import okio.Buffer
+import org.junit.Rule
+import org.junit.rules.TemporaryFolder
 import spock.lang.AutoCleanup
 import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.time.Duration
 
 import static com.stehno.ersatz.ContentType.TEXT_PLAIN
 import static groovyx.net.http.ContentTypes.JSON
@@ -27,9 +34,12 @@ import static groovyx.net.http.ContentTypes.JSON
 import static groovyx.net.http.NativeHandlers.Parsers.json
 import static java.util.concurrent.TimeUnit.MILLISECONDS
 import static java.util.concurrent.TimeUnit.MINUTES
+import static java.util.concurrent.TimeUnit.SECONDS
 
 class OkHttpBuilderSpec extends Specification {
 
+    @Rule TemporaryFolder folder = new TemporaryFolder()
+
     @AutoCleanup('stop')
     private ErsatzServer ersatzServer = new ErsatzServer({
         expectations {
@@ -76,6 +86,35 @@ class OkHttpBuilderSpec extends Specification {
         client.connectTimeoutMillis() == MILLISECONDS.convert(5, MINUTES)
     }
 
+    @Unroll 'connection pooling (threads: #threads, connections: #connections, per-route: #perRoute)'() {
+        setup:
+        HttpBuilder http = OkHttpBuilder.configure {
+            execution.maxThreads = threads
+            execution.maxConnections = connections
+            execution.maxConnectionsPerRoute = perRoute
+            execution.keepAlive = Duration.ofSeconds(30)
+            request.uri = "${ersatzServer.httpUrl}/foo"
+        }
+
+        when:
+        OkHttpClient client = http.clientImplementation
+
+        then:
+        client.dispatcher().maxRequests == maxRequests
+        client.dispatcher().maxRequestsPerHost == maxPerHost
+        client.connectionPool().keepAliveDurationNs == SECONDS.toNanos(30)
+
+        and:
+        http.get() == 'ok'
+
+        where:
+        threads | connections | perRoute || maxRequests | maxPerHost
+        1       | 0           | 0        || 64          | 5
+        4       | 0           | 0        || 4           | 4
+        4       | 200         | 0        || 200         | 200
+        1       | 200         | 50       || 200         | 50
+    }
+
     def 'FromServer hasBody should return false when there is no content'() {
         setup:
         ersatzServer.expectations {
@@ -135,6 +174,95 @@ class OkHttpBuilderSpec extends Specification {
         "Your score for item (${itemScore.item}) was (${itemScore.score})." == "Your score for item (ASDFASEACV235) was (90786)."
     }
 
+    def 'OkHttpToServer: small content of unknown length is buffered'() {
+        setup:
+        def toServer = new OkHttpBuilder.OkHttpToServer(null)
+
+        when:
+        toServer.toServer(new BufferedInputStream(new ByteArrayInputStream('some content'.bytes)))
+
+        then:
+        toServer.contentLength() == 12
+        written(toServer) == 'some content'.bytes
+        written(toServer) == 'some content'.bytes
+    }
+
+    def 'OkHttpToServer: large content of unknown length is streamed'() {
+        setup:
+        def toServer = new OkHttpBuilder.OkHttpToServer(null)
+        byte[] bytes = new byte[OkHttpBuilder.OkHttpToServer.BUFFER_LIMIT * 2]
+        new Random().nextBytes(bytes)
+
+        when:
+        toServer.toServer(new BufferedInputStream(new ByteArrayInputStream(bytes)))
+
+        then:
+        toServer.contentLength() == -1
+        written(toServer) == bytes
+    }
+
+    def 'OkHttpToServer: content of known length is streamed'() {
+        setup:
+        def toServer = new OkHttpBuilder.OkHttpToServer(null)
+        File file = folder.newFile('content.txt')
+        file.text = 'file content'
+
+        when:
+        toServer.toServer(file.newInputStream(), file.length())
+
+        then:
+        toServer.contentLength() == 12
+        written(toServer) == 'file content'.bytes
+    }
+
+    def 'OkHttpToServer: file content is reopened for every write'() {
+        setup:
+        File file = folder.newFile('content.txt')
+        file.text = 'file content'
+
+        def config = HttpConfigs.requestLevel(HttpConfigs.threadSafe(HttpConfigs.root()))
+        config.request.body = file
+        def toServer = new OkHttpBuilder.OkHttpToServer(config)
+
+        when:
+        NativeHandlers.Encoders.handleRawUpload(config, toServer)
+
+        then:
+        toServer.contentLength() == 12
+        written(toServer) == 'file content'.bytes
+        written(toServer) == 'file content'.bytes
+    }
+
+    def 'POST file content'() {
+        setup:
+        File file = folder.newFile('upload.txt')
+        file.text = 'file-content ' * 2_000
+
+        ersatzServer.expectations {
+            post('/upload') {
+                header 'Content-Length', file.length() as String
+                decoder TEXT_PLAIN, Decoders.utf8String
+                body file.text, TEXT_PLAIN
+                responds().content('ok', TEXT_PLAIN)
+            }
+        }
+
+        expect:
+        OkHttpBuilder.configure {
+            request.uri = ersatzServer.httpUrl
+        }.post {
+            request.uri.path = '/upload'
+            request.contentType = TEXT_PLAIN.value
+            request.body = file
+        } == 'ok'
+    }
+
+    private static byte[] written(OkHttpBuilder.OkHttpToServer toServer) {
+        Buffer buffer = new Buffer()
+        toServer.writeTo(buffer)
+        buffer.readByteArray()
+    }
+
     @Canonical
     static class ItemScore {
         String item